@@ -0,0 +1,41 @@
+package frc.robot.lib.logging;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LogUtilBenchmark {
+
+    private boolean flag;
+
+    @Benchmark
+    public String boolToString() {
+        flag = !flag;
+        return LogUtil.boolToString(flag);
+    }
+
+    @Benchmark
+    public double boolToDouble() {
+        flag = !flag;
+        return LogUtil.boolToDouble(flag);
+    }
+
+    @Benchmark
+    public String getTimestamp() {
+        return LogUtil.getTimestamp();
+    }
+
+    @Benchmark
+    public String getSessionName() {
+        return LogUtil.getSessionName();
+    }
+
+}
@@ -0,0 +1,49 @@
+package frc.robot.lib.logging;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.ctre.phoenix6.hardware.TalonFX;
+
+import edu.wpi.first.epilogue.logging.EpilogueBackend;
+import edu.wpi.first.epilogue.logging.NullBackend;
+import edu.wpi.first.hal.HAL;
+
+/**
+ * Logging a simulated TalonFX, which needs the HAL and Phoenix desktop natives. The signals are registered on the first
+ * update in setup, so the benchmark only reads cached values.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TalonFXLoggerBenchmark {
+
+    private final TalonFXLogger logger = new TalonFXLogger();
+    private final EpilogueBackend backend = new NullBackend();
+    private TalonFX talon;
+
+    @Setup
+    public void setup() {
+        if (!HAL.initialize(500, 0)) throw new IllegalStateException("Failed to initialize the HAL");
+        talon = new TalonFX(1);
+        logger.update(backend, talon);
+    }
+
+    @Benchmark
+    public void update() {
+        logger.update(backend, talon);
+    }
+
+    @Benchmark
+    public void refreshAll() {
+        PhoenixSignalRegistry.refreshAll();
+    }
+
+}
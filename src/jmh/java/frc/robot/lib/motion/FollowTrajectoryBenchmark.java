@@ -0,0 +1,84 @@
+package frc.robot.lib.motion;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import edu.wpi.first.math.controller.LTVUnicycleController;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.DifferentialDriveKinematics;
+import edu.wpi.first.math.kinematics.DifferentialDriveWheelSpeeds;
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.math.trajectory.TrajectoryConfig;
+import edu.wpi.first.math.trajectory.TrajectoryGenerator;
+import edu.wpi.first.wpilibj.TimedRobot;
+import frc.robot.lib.util.BenchmarkInputs;
+
+/**
+ * The work {@link FollowTrajectory}'s commands do every loop. The controller solves its gains with the WPIMath JNI.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FollowTrajectoryBenchmark {
+
+    private static final int kPoses = 1024;
+
+    private final BenchmarkInputs offset = new BenchmarkInputs(-0.05, 0.05, 1);
+    private final DifferentialDriveKinematics kinematics = new DifferentialDriveKinematics(0.6);
+    private Trajectory trajectory;
+    private LTVUnicycleController controller;
+    // Poses slightly off of the trajectory at every loop, so the controller has error to correct
+    private final Pose2d[] poses = new Pose2d[kPoses];
+    private final double[] times = new double[kPoses];
+    private int index;
+
+    @Setup
+    public void setup() {
+        trajectory = TrajectoryGenerator.generateTrajectory(
+            Pose2d.kZero, List.of(new Translation2d(1.5, 0.5), new Translation2d(3, -0.5)), new Pose2d(4.5, 0, Rotation2d.kZero),
+            new TrajectoryConfig(3, 2).setKinematics(kinematics));
+        controller = new LTVUnicycleController(TimedRobot.kDefaultPeriod);
+        for (int i = 0; i < kPoses; i++) {
+            times[i] = (i * TimedRobot.kDefaultPeriod) % trajectory.getTotalTimeSeconds();
+            Pose2d reference = trajectory.sample(times[i]).poseMeters;
+            poses[i] = new Pose2d(reference.getX() + offset.next(), reference.getY() + offset.next(), reference.getRotation());
+        }
+    }
+
+    @Benchmark
+    public double sample() {
+        index = (index + 1) & (kPoses - 1);
+        return trajectory.sample(times[index]).velocityMetersPerSecond;
+    }
+
+    @Benchmark
+    public double controllerStep() {
+        index = (index + 1) & (kPoses - 1);
+        DifferentialDriveWheelSpeeds speeds = FollowTrajectory.calculateWheelSpeeds(controller, kinematics, trajectory, poses[index], times[index]);
+        return speeds.leftMetersPerSecond + speeds.rightMetersPerSecond;
+    }
+
+    /**
+     * The step of the command that sends velocities and feedforward to a {@link TalonFXDriveOutput}.
+     */
+    @Benchmark
+    public double controllerStepWithFeedforward() {
+        index = (index + 1) & (kPoses - 1);
+        double time = times[index];
+        DifferentialDriveWheelSpeeds speeds = FollowTrajectory.calculateWheelSpeeds(controller, kinematics, trajectory, poses[index], time);
+        DifferentialDriveWheelSpeeds now = FollowTrajectory.referenceWheelSpeeds(kinematics, trajectory.sample(time));
+        DifferentialDriveWheelSpeeds next = FollowTrajectory.referenceWheelSpeeds(kinematics, trajectory.sample(time + TimedRobot.kDefaultPeriod));
+        return speeds.leftMetersPerSecond + speeds.rightMetersPerSecond + next.leftMetersPerSecond - now.leftMetersPerSecond;
+    }
+
+}
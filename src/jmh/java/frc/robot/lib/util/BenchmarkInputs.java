@@ -0,0 +1,37 @@
+package frc.robot.lib.util;
+
+import java.util.Random;
+
+/**
+ * Precomputed inputs for benchmarks so generating them isn't part of what's measured.
+ */
+public class BenchmarkInputs {
+
+    private static final int kSize = 1024;
+    private static final int kMask = kSize - 1;
+
+    private final double[] values = new double[kSize];
+    private int index;
+
+    /**
+     * Creates uniformly distributed inputs in the range [min, max).
+     * @param min The smallest input
+     * @param max The largest input
+     * @param seed The random seed, so every run uses the same inputs
+     */
+    public BenchmarkInputs(double min, double max, long seed) {
+        Random random = new Random(seed);
+        for (int i = 0; i < kSize; i++) {
+            values[i] = min + random.nextDouble() * (max - min);
+        }
+    }
+
+    /**
+     * @return The next input
+     */
+    public double next() {
+        index = (index + 1) & kMask;
+        return values[index];
+    }
+
+}
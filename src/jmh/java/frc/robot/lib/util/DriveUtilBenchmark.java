@@ -0,0 +1,49 @@
+package frc.robot.lib.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import edu.wpi.first.math.Pair;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DriveUtilBenchmark {
+
+    private final BenchmarkInputs speed = new BenchmarkInputs(-1, 1, 1);
+    private final BenchmarkInputs turn = new BenchmarkInputs(-1, 1, 2);
+
+    @Benchmark
+    public double processDeadband() {
+        return DriveUtil.processDeadband(speed.next(), 0.1, 1.2);
+    }
+
+    @Benchmark
+    public double squareKeepSign() {
+        return DriveUtil.squareKeepSign(speed.next());
+    }
+
+    @Benchmark
+    public double powKeepSign() {
+        return DriveUtil.powKeepSign(speed.next(), 2.5);
+    }
+
+    @Benchmark
+    public double constantCurvature() {
+        return DriveUtil.constantCurvature(speed.next(), turn.next(), 0.02);
+    }
+
+    @Benchmark
+    public Pair<Double, Double> normalizeValues() {
+        double s = speed.next();
+        double t = turn.next();
+        return DriveUtil.normalizeValues(s + t, s - t);
+    }
+
+}
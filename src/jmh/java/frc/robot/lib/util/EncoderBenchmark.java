@@ -0,0 +1,71 @@
+package frc.robot.lib.util;
+
+import static edu.wpi.first.units.Units.Inches;
+import static edu.wpi.first.units.Units.Meters;
+import static edu.wpi.first.units.Units.Rotations;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import edu.wpi.first.units.measure.Angle;
+import edu.wpi.first.units.measure.Distance;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EncoderBenchmark {
+
+    // Roughly what a drivetrain sees over a match, in rotations and rotations per second
+    private final BenchmarkInputs rotations = new BenchmarkInputs(-500, 500, 1);
+    private final BenchmarkInputs velocities = new BenchmarkInputs(-100, 100, 2);
+    private final BenchmarkInputs meters = new BenchmarkInputs(-20, 20, 3);
+    private final Distance wheelDiameter = Inches.of(4);
+    private static final double kGearRatio = 6.75;
+
+    @Benchmark
+    public double toDistance() {
+        return Encoder.toDistance(rotations.next(), kGearRatio, 0.1016);
+    }
+
+    @Benchmark
+    public double fromDistance() {
+        return Encoder.fromDistance(meters.next(), kGearRatio, 0.1016);
+    }
+
+    @Benchmark
+    public double toVelocity() {
+        return Encoder.toVelocity(velocities.next(), kGearRatio, 0.1016);
+    }
+
+    @Benchmark
+    public double fromVelocity() {
+        return Encoder.fromVelocity(meters.next(), kGearRatio, 0.1016);
+    }
+
+    @Benchmark
+    public double toRPM() {
+        return Encoder.toRPM(velocities.next(), kGearRatio);
+    }
+
+    @Benchmark
+    public double fromRPM() {
+        return Encoder.fromRPM(velocities.next() * 60, kGearRatio);
+    }
+
+    @Benchmark
+    public Distance angularToLinear() {
+        return Encoder.angularToLinear(Rotations.of(rotations.next()), kGearRatio, wheelDiameter);
+    }
+
+    @Benchmark
+    public Angle linearToAngular() {
+        return Encoder.linearToAngular(Meters.of(meters.next()), kGearRatio, wheelDiameter);
+    }
+
+}
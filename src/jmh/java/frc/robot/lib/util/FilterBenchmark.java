@@ -0,0 +1,96 @@
+package frc.robot.lib.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import edu.wpi.first.math.filter.LinearFilter;
+import edu.wpi.first.math.filter.MedianFilter;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FilterBenchmark {
+
+    @Param({"5", "25", "100"})
+    public int window;
+
+    // Noisy supply current in amps
+    private final BenchmarkInputs current = new BenchmarkInputs(0, 60, 1);
+    private final BenchmarkInputs joystick = new BenchmarkInputs(-1, 1, 2);
+    private RunningMean mean;
+    private RunningVariance variance;
+    private WindowMinMax minMax;
+    private SlidingMedian median;
+    private ExponentialMovingAverage ema;
+    private LinearFilter wpilibMovingAverage;
+    private MedianFilter wpilibMedian;
+    private SlewRateLimiterBank bank;
+    private final double[] bankInputs = new double[3];
+    private double time;
+
+    @Setup
+    public void setup() {
+        mean = new RunningMean(window);
+        variance = new RunningVariance(window);
+        minMax = new WindowMinMax(window);
+        median = new SlidingMedian(window);
+        ema = new ExponentialMovingAverage(2.0 / (window + 1));
+        wpilibMovingAverage = LinearFilter.movingAverage(window);
+        wpilibMedian = new MedianFilter(window);
+        bank = new SlewRateLimiterBank(3, 3, 6).setVectorChannels(0, 1);
+    }
+
+    @Benchmark
+    public double runningMean() {
+        return mean.calculate(current.next());
+    }
+
+    @Benchmark
+    public double wpilibMovingAverage() {
+        return wpilibMovingAverage.calculate(current.next());
+    }
+
+    @Benchmark
+    public double runningVariance() {
+        return variance.calculate(current.next());
+    }
+
+    @Benchmark
+    public double windowMinMax() {
+        minMax.add(current.next());
+        return minMax.getMax();
+    }
+
+    @Benchmark
+    public double slidingMedian() {
+        return median.calculate(current.next());
+    }
+
+    @Benchmark
+    public double wpilibMedian() {
+        return wpilibMedian.calculate(current.next());
+    }
+
+    @Benchmark
+    public double exponentialMovingAverage() {
+        return ema.calculate(current.next());
+    }
+
+    @Benchmark
+    public double[] slewRateLimiterBank() {
+        time += 0.02;
+        bankInputs[0] = joystick.next();
+        bankInputs[1] = joystick.next();
+        bankInputs[2] = joystick.next();
+        return bank.calculate(bankInputs, time);
+    }
+
+}
@@ -0,0 +1,66 @@
+package frc.robot.lib.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import frc.robot.lib.util.InterpolatingTable.Mode;
+
+@State(Scope.Thread)
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InterpolationBenchmark {
+
+    // Shooter distance in meters
+    private final BenchmarkInputs distance = new BenchmarkInputs(1, 6, 1);
+    private final RangeTransformer transformer = new RangeTransformer(1, 6, 2000, 4500, true);
+    private final InterpolatingTable uniform;
+    private final InterpolatingTable nonUniform;
+    private final InterpolatingTable cubic;
+    private final double[] result = new double[2];
+
+    public InterpolationBenchmark() {
+        int points = 21;
+        double[] uniformX = new double[points];
+        double[] nonUniformX = new double[points];
+        double[][] rows = new double[points][];
+        for (int i = 0; i < points; i++) {
+            uniformX[i] = 1 + i * 0.25;
+            nonUniformX[i] = 1 + 5 * Math.pow(i / (points - 1.0), 1.5);
+            rows[i] = new double[] {2000 + 2500 * i / (points - 1.0), 20 + 15 * Math.sqrt(i / (points - 1.0))};
+        }
+        uniform = new InterpolatingTable(Mode.LINEAR, true, uniformX, rows);
+        nonUniform = new InterpolatingTable(Mode.LINEAR, true, nonUniformX, rows);
+        cubic = new InterpolatingTable(Mode.MONOTONE_CUBIC, true, nonUniformX, rows);
+    }
+
+    @Benchmark
+    public double rangeTransformer() {
+        return transformer.calculate(distance.next());
+    }
+
+    @Benchmark
+    public double uniformLinear() {
+        return uniform.calculate(distance.next());
+    }
+
+    @Benchmark
+    public double nonUniformLinear() {
+        return nonUniform.calculate(distance.next());
+    }
+
+    @Benchmark
+    public double monotoneCubic() {
+        return cubic.calculate(distance.next());
+    }
+
+    @Benchmark
+    public double[] multipleOutputs() {
+        return cubic.calculate(distance.next(), result);
+    }
+
+}
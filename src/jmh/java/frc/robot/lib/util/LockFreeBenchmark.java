@@ -0,0 +1,88 @@
+package frc.robot.lib.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Throughput with one producer and one consumer thread running at the same time. The blocking queue is there to
+ * compare against, it's what we'd use otherwise.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LockFreeBenchmark {
+
+    private final DoubleSpscQueue queue = new DoubleSpscQueue(1024);
+    private final ArrayBlockingQueue<Double> blockingQueue = new ArrayBlockingQueue<>(1024);
+    private final SnapshotExchanger exchanger = new SnapshotExchanger(4);
+    private final LatestValue<double[]> latest = new LatestValue<>(new double[4]);
+    private final double[] record = {1, 2, 3, 4};
+    private double value;
+
+    @Benchmark
+    @Group("spscQueue")
+    @GroupThreads(1)
+    public boolean spscOffer() {
+        return queue.offer(value++);
+    }
+
+    @Benchmark
+    @Group("spscQueue")
+    @GroupThreads(1)
+    public double spscPoll() {
+        return queue.isEmpty() ? 0 : queue.poll();
+    }
+
+    @Benchmark
+    @Group("blockingQueue")
+    @GroupThreads(1)
+    public boolean blockingOffer() {
+        return blockingQueue.offer(value++);
+    }
+
+    @Benchmark
+    @Group("blockingQueue")
+    @GroupThreads(1)
+    public Double blockingPoll() {
+        return blockingQueue.poll();
+    }
+
+    @Benchmark
+    @Group("snapshotExchanger")
+    @GroupThreads(1)
+    public void exchangerPublish() {
+        record[0]++;
+        exchanger.publish(record);
+    }
+
+    @Benchmark
+    @Group("snapshotExchanger")
+    @GroupThreads(1)
+    public double exchangerRead() {
+        return exchanger.read()[0];
+    }
+
+    @Benchmark
+    @Group("latestValue")
+    @GroupThreads(1)
+    public void latestSet() {
+        latest.set(record);
+    }
+
+    @Benchmark
+    @Group("latestValue")
+    @GroupThreads(1)
+    public double latestGet() {
+        return latest.get()[0];
+    }
+
+}
@@ -0,0 +1,59 @@
+package frc.robot.lib.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The limiters read the WPILib clock when they're created, which uses the desktop natives the jmh task puts on the
+ * library path. Everything after setup uses the explicit timestamp overloads so the clock isn't part of what's measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SlewRateLimiterBenchmark {
+
+    private final BenchmarkInputs joystick = new BenchmarkInputs(-1, 1, 1);
+    private DynamicSlewRateLimiter constant;
+    private DynamicSlewRateLimiter dynamic;
+    private DynamicSlewRateLimiter[] swerve;
+    private double time;
+    private double elevatorHeight;
+
+    @Setup
+    public void setup() {
+        constant = new DynamicSlewRateLimiter(3, 6);
+        // Slower acceleration as an elevator goes up, like a tip-over limiter
+        dynamic = new DynamicSlewRateLimiter(() -> 3 - 2 * elevatorHeight, () -> 6);
+        swerve = new DynamicSlewRateLimiter[] {
+            new DynamicSlewRateLimiter(3, 6), new DynamicSlewRateLimiter(3, 6), new DynamicSlewRateLimiter(2 * Math.PI, 4 * Math.PI)
+        };
+    }
+
+    @Benchmark
+    public double constantLimits() {
+        time += 0.02;
+        return constant.calculate(joystick.next(), time);
+    }
+
+    @Benchmark
+    public double suppliedLimits() {
+        time += 0.02;
+        elevatorHeight = (joystick.next() + 1) / 2;
+        return dynamic.calculate(joystick.next(), time);
+    }
+
+    @Benchmark
+    public double threeLimiters() {
+        time += 0.02;
+        return swerve[0].calculate(joystick.next(), time) + swerve[1].calculate(joystick.next(), time)
+            + swerve[2].calculate(joystick.next(), time);
+    }
+
+}
@@ -0,0 +1,86 @@
+package frc.robot.lib.util;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import edu.wpi.first.math.Pair;
+import edu.wpi.first.math.geometry.Rotation2d;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UtilBenchmark {
+
+    private final BenchmarkInputs joystick = new BenchmarkInputs(-1, 1, 1);
+    private final BenchmarkInputs radians = new BenchmarkInputs(-10 * Math.PI, 10 * Math.PI, 2);
+    private final BenchmarkInputs degrees = new BenchmarkInputs(-1800, 1800, 3);
+    private final List<Double> wheelSpeeds = List.of(1.0, 1.0000001, 0.9999999, 1.0);
+
+    @Benchmark
+    public double clamp() {
+        return Util.clamp(joystick.next() * 2, 1);
+    }
+
+    @Benchmark
+    public double decay() {
+        return Util.decay(joystick.next(), 0.05);
+    }
+
+    @Benchmark
+    public double deadband() {
+        return Util.deadband(joystick.next(), 0.1);
+    }
+
+    @Benchmark
+    public double lerp() {
+        return Util.lerp(-3, 3, joystick.next());
+    }
+
+    @Benchmark
+    public boolean inRange() {
+        return Util.inRange(joystick.next(), -0.5, 0.5);
+    }
+
+    @Benchmark
+    public boolean epsilonEquals() {
+        return Util.epsilonEquals(joystick.next(), 0.5, 1e-3);
+    }
+
+    @Benchmark
+    public boolean allCloseTo() {
+        return Util.allCloseTo(wheelSpeeds, 1, 1e-3);
+    }
+
+    @Benchmark
+    public double boundedAngle() {
+        return Util.boundedAngle(radians.next());
+    }
+
+    @Benchmark
+    public double boundedAngleDegrees() {
+        return Util.boundedAngleDegrees(degrees.next());
+    }
+
+    @Benchmark
+    public double boundedAnglePositive() {
+        return Util.boundedAnglePositive(radians.next());
+    }
+
+    @Benchmark
+    public Rotation2d boundedAngleRotation() {
+        return Util.boundedAngle(new Rotation2d(radians.next()));
+    }
+
+    @Benchmark
+    public Pair<Double, Double> toCartesianCoordinates() {
+        return Util.toCartesianCoordinates(joystick.next() * 5, radians.next());
+    }
+
+}
@@ -0,0 +1,168 @@
+package frc.robot.lib.controller;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.Timer;
+import frc.robot.lib.util.LongSpscQueue;
+
+/**
+ * Records a {@link HIDSnapshot} every loop to a compact binary file so a driver's inputs can be played back later with
+ * {@link HIDReplay}. Each frame is the FPGA timestamp, the button bitmask, the POV and every axis as a float.
+ * <p>
+ * Recording only packs the frame into a lock-free queue, the file is written on a background thread so the main loop
+ * never waits on file I/O. If the writer falls far enough behind that the queue fills up, frames are dropped and
+ * counted instead of blocking.
+ */
+public class HIDRecorder implements AutoCloseable {
+
+    static final int kMagic = 0x48494452; // "HIDR"
+    static final int kVersion = 1;
+
+    // Timestamp, buttons, the counts and POV, then two axes per long
+    private static final int kFrameLongs = 3 + (HIDSnapshot.kMaxAxes + 1) / 2;
+    // About 9 seconds of frames at 50 Hz
+    private static final int kQueueCapacity = 4096;
+    private static final long kWriterSleepMillis = 20;
+
+    private final HIDSnapshot snapshot;
+    private final DataOutputStream out;
+    private final LongSpscQueue queue = new LongSpscQueue(kQueueCapacity);
+    private final Thread writer;
+    private volatile boolean running = true;
+    private volatile boolean flushRequested;
+    private volatile IOException writeError;
+    private long frames;
+    private long dropped;
+
+    /**
+     * Creates a new recorder, overwriting the file if it exists.
+     * @param snapshot The snapshot to record, it should already be refreshed when {@link #record()} is called
+     * @param file The file to write to
+     * @throws IOException If the file can't be opened
+     */
+    public HIDRecorder(HIDSnapshot snapshot, Path file) throws IOException {
+        this.snapshot = snapshot;
+        out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+        out.writeInt(kMagic);
+        out.writeInt(kVersion);
+        out.writeByte(snapshot.getPort());
+        writer = new Thread(this::writeFrames, "HIDRecorder");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues the current snapshot to be written as a frame. Doesn't block or allocate.
+     */
+    public void record() {
+        // Only this thread adds to the queue, so the free space can only grow before the frame is added
+        if (queue.capacity() - queue.size() < kFrameLongs) {
+            dropped++;
+            return;
+        }
+        int axisCount = Math.min(snapshot.getAxisCount(), HIDSnapshot.kMaxAxes);
+        queue.offer(Double.doubleToRawLongBits(Timer.getFPGATimestamp()));
+        queue.offer(snapshot.getButtons());
+        queue.offer((snapshot.getButtonCount() & 0xFFL) | (axisCount & 0xFFL) << 8 | (snapshot.getPOV() & 0xFFFFL) << 16);
+        for (int i = 0; i < HIDSnapshot.kMaxAxes; i += 2) {
+            long low = Float.floatToRawIntBits((float) snapshot.getAxis(i)) & 0xFFFFFFFFL;
+            long high = Float.floatToRawIntBits((float) snapshot.getAxis(i + 1)) & 0xFFFFFFFFL;
+            queue.offer(low | high << 32);
+        }
+        frames++;
+    }
+
+    /**
+     * Records a frame every loop.
+     * @param robot The robot to add the callback to
+     */
+    public void recordPeriodically(TimedRobot robot) {
+        robot.addPeriodic(this::record, TimedRobot.kDefaultPeriod);
+    }
+
+    /**
+     * @return The number of frames recorded
+     */
+    public long getFrameCount() {
+        return frames;
+    }
+
+    /**
+     * @return The number of frames dropped because the writer fell behind
+     */
+    public long getDroppedCount() {
+        return dropped;
+    }
+
+    /**
+     * Asks the writer thread to write any buffered frames to the file. Doesn't block.
+     */
+    public void flush() {
+        flushRequested = true;
+    }
+
+    /**
+     * Writes every queued frame, then flushes and closes the file.
+     * @throws IOException If writing the file failed at any point
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        out.close();
+        if (writeError != null) throw writeError;
+    }
+
+    private void writeFrames() {
+        long[] frame = new long[kFrameLongs];
+        try {
+            while (true) {
+                // Read before draining so every frame queued before close is written
+                boolean stopping = !running;
+                boolean wrote = false;
+                while (queue.size() >= kFrameLongs) {
+                    for (int i = 0; i < kFrameLongs; i++) {
+                        frame[i] = queue.poll();
+                    }
+                    writeFrame(frame);
+                    wrote = true;
+                }
+                if (flushRequested || stopping) {
+                    flushRequested = false;
+                    out.flush();
+                }
+                if (stopping) return;
+                if (!wrote) Thread.sleep(kWriterSleepMillis);
+            }
+        } catch (IOException e) {
+            writeError = e;
+            DriverStation.reportWarning("HID recording stopped: " + e.getMessage(), false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeFrame(long[] frame) throws IOException {
+        int buttonCount = (int) (frame[2] & 0xFF);
+        int axisCount = (int) (frame[2] >>> 8 & 0xFF);
+        out.writeDouble(Double.longBitsToDouble(frame[0]));
+        out.writeLong(frame[1]);
+        out.writeByte(buttonCount);
+        out.writeShort((short) (frame[2] >>> 16));
+        out.writeByte(axisCount);
+        for (int i = 0; i < axisCount; i++) {
+            out.writeFloat(Float.intBitsToFloat((int) (frame[3 + i / 2] >>> (i % 2) * 32)));
+        }
+    }
+
+}
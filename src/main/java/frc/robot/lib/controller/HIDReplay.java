@@ -0,0 +1,169 @@
+package frc.robot.lib.controller;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import edu.wpi.first.wpilibj.simulation.GenericHIDSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+
+/**
+ * Plays back a recording made by {@link HIDRecorder} through the simulated driver station, so robot code sees exactly
+ * what the driver did. Frames can be stepped one at a time or run back to back as fast as the robot code allows,
+ * which makes recorded teleop sessions usable as regression and performance tests.
+ */
+public class HIDReplay {
+
+    /**
+     * Timing of a replay.
+     * @param frames The number of frames played
+     * @param meanMillis The mean time the loop took per frame in milliseconds
+     * @param maxMillis The longest time the loop took for one frame in milliseconds
+     * @param loopNanos How long the loop took for each frame in nanoseconds
+     */
+    public record Result(int frames, double meanMillis, double maxMillis, long[] loopNanos) {}
+
+    private final int port;
+    private final double[] timestamps;
+    private final long[] buttons;
+    private final int[] buttonCounts;
+    private final int[] povs;
+    private final float[][] axes;
+    private final GenericHIDSim sim;
+    private int frame;
+
+    /**
+     * Loads a recording, it's played back on the same port it was recorded from.
+     * @param file The recording
+     * @throws IOException If the file can't be read or isn't a recording
+     */
+    public HIDReplay(Path file) throws IOException {
+        this(file, -1);
+    }
+
+    /**
+     * Loads a recording.
+     * @param file The recording
+     * @param port The port to play it back on, -1 for the port it was recorded from
+     * @throws IOException If the file can't be read or isn't a recording
+     */
+    public HIDReplay(Path file, int port) throws IOException {
+        int capacity = 1024;
+        double[] timestamps = new double[capacity];
+        long[] buttons = new long[capacity];
+        int[] buttonCounts = new int[capacity];
+        int[] povs = new int[capacity];
+        float[][] axes = new float[capacity][];
+        int count = 0;
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != HIDRecorder.kMagic) throw new IOException(file + " isn't an HID recording");
+            int version = in.readInt();
+            if (version != HIDRecorder.kVersion) throw new IOException("Unsupported HID recording version: " + version);
+            int recordedPort = in.readUnsignedByte();
+            this.port = port < 0 ? recordedPort : port;
+            while (true) {
+                double timestamp;
+                try {
+                    timestamp = in.readDouble();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (count == capacity) {
+                    capacity *= 2;
+                    timestamps = Arrays.copyOf(timestamps, capacity);
+                    buttons = Arrays.copyOf(buttons, capacity);
+                    buttonCounts = Arrays.copyOf(buttonCounts, capacity);
+                    povs = Arrays.copyOf(povs, capacity);
+                    axes = Arrays.copyOf(axes, capacity);
+                }
+                timestamps[count] = timestamp;
+                buttons[count] = in.readLong();
+                buttonCounts[count] = in.readUnsignedByte();
+                povs[count] = in.readShort();
+                axes[count] = new float[in.readUnsignedByte()];
+                for (int i = 0; i < axes[count].length; i++) {
+                    axes[count][i] = in.readFloat();
+                }
+                count++;
+            }
+        }
+        this.timestamps = Arrays.copyOf(timestamps, count);
+        this.buttons = Arrays.copyOf(buttons, count);
+        this.buttonCounts = Arrays.copyOf(buttonCounts, count);
+        this.povs = Arrays.copyOf(povs, count);
+        this.axes = Arrays.copyOf(axes, count);
+        sim = new GenericHIDSim(this.port);
+    }
+
+    /**
+     * @return The number of frames in the recording
+     */
+    public int size() {
+        return timestamps.length;
+    }
+
+    /**
+     * @return If there are frames left to play
+     */
+    public boolean hasNext() {
+        return frame < timestamps.length;
+    }
+
+    /**
+     * Sends the next frame to the simulated driver station.
+     * @return The time between this frame and the last one when it was recorded in seconds, 0 for the first frame
+     */
+    public double step() {
+        if (!hasNext()) throw new IllegalStateException("No frames left to replay");
+        int i = frame++;
+        sim.setButtonCount(buttonCounts[i]);
+        for (int button = 1; button <= buttonCounts[i]; button++) {
+            sim.setRawButton(button, (buttons[i] & (1L << (button - 1))) != 0);
+        }
+        sim.setAxisCount(axes[i].length);
+        for (int axis = 0; axis < axes[i].length; axis++) {
+            sim.setRawAxis(axis, axes[i][axis]);
+        }
+        sim.setPOVCount(1);
+        sim.setPOV(povs[i]);
+        sim.notifyNewData();
+        return i == 0 ? 0 : timestamps[i] - timestamps[i - 1];
+    }
+
+    /**
+     * Plays every remaining frame back to back, running the loop after each one and timing it.
+     * @param loop The robot code to run each frame, e.g. {@code robot::loopFunc} or {@code CommandScheduler.getInstance()::run}
+     * @param stepTiming Whether to advance the simulated clock by the recorded time between frames, timing must be
+     * paused with {@link SimHooks#pauseTiming()} for this to work
+     * @return The timing of every frame
+     */
+    public Result run(Runnable loop, boolean stepTiming) {
+        long[] loopNanos = new long[timestamps.length - frame];
+        long total = 0;
+        long max = 0;
+        int played = 0;
+        while (hasNext()) {
+            double dt = step();
+            if (stepTiming && dt > 0) SimHooks.stepTiming(dt);
+            long start = System.nanoTime();
+            loop.run();
+            long elapsed = System.nanoTime() - start;
+            loopNanos[played++] = elapsed;
+            total += elapsed;
+            max = Math.max(max, elapsed);
+        }
+        return new Result(played, played == 0 ? 0 : total / 1e6 / played, max / 1e6, loopNanos);
+    }
+
+    /**
+     * Starts the recording over from the first frame.
+     */
+    public void rewind() {
+        frame = 0;
+    }
+
+}
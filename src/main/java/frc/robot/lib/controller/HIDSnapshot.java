@@ -0,0 +1,111 @@
+package frc.robot.lib.controller;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+
+/**
+ * A copy of every button, axis and the POV of one HID, read once per loop. Controllers read from the snapshot instead
+ * of going through {@link DriverStation} for every button and axis, which takes the driver station lock each time.
+ * <p>
+ * Any controller class can hold one and override {@code getRawButton}, {@code getRawAxis} and {@code getPOV} to read
+ * from it, see {@link Logitech3DPro}.
+ */
+public class HIDSnapshot {
+
+    // The most axes the driver station sends for one HID
+    static final int kMaxAxes = 12;
+
+    private final int port;
+    private final double[] axes = new double[kMaxAxes];
+    private int axisCount;
+    private long buttons;
+    private int buttonCount;
+    private int pov = -1;
+
+    /**
+     * Creates a new snapshot that's refreshed at the start of every {@link CommandScheduler} run, before any triggers are polled.
+     * @param port The port of the HID on the driver station
+     */
+    public HIDSnapshot(int port) {
+        this(port, true);
+    }
+
+    /**
+     * Creates a new snapshot.
+     * @param port The port of the HID on the driver station
+     * @param refreshWithScheduler Whether to refresh the snapshot at the start of every {@link CommandScheduler} run,
+     * otherwise {@link #refresh()} must be called every loop
+     */
+    public HIDSnapshot(int port, boolean refreshWithScheduler) {
+        this.port = port;
+        if (refreshWithScheduler) {
+            CommandScheduler.getInstance().getDefaultButtonLoop().bind(this::refresh);
+        }
+        refresh();
+    }
+
+    /**
+     * Reads every button, axis and the POV from the driver station.
+     */
+    public void refresh() {
+        buttons = DriverStation.getStickButtons(port);
+        buttonCount = DriverStation.getStickButtonCount(port);
+        axisCount = Math.min(DriverStation.getStickAxisCount(port), axes.length);
+        for (int i = 0; i < axisCount; i++) {
+            axes[i] = DriverStation.getStickAxis(port, i);
+        }
+        pov = DriverStation.getStickPOVCount(port) > 0 ? DriverStation.getStickPOV(port, 0) : -1;
+    }
+
+    /**
+     * @param button The button index, starting at 1
+     * @return If the button was pressed when the snapshot was taken
+     */
+    public boolean getButton(int button) {
+        return button > 0 && button <= 64 && (buttons & (1L << (button - 1))) != 0;
+    }
+
+    /**
+     * @return Every button as a bitmask, bit 0 is button 1
+     */
+    public long getButtons() {
+        return buttons;
+    }
+
+    /**
+     * @return The number of buttons on the HID
+     */
+    public int getButtonCount() {
+        return buttonCount;
+    }
+
+    /**
+     * @param axis The axis index, starting at 0
+     * @return The value of the axis when the snapshot was taken, 0 if the HID doesn't have the axis
+     */
+    public double getAxis(int axis) {
+        return axis >= 0 && axis < axisCount ? axes[axis] : 0;
+    }
+
+    /**
+     * @return The number of axes on the HID
+     */
+    public int getAxisCount() {
+        return axisCount;
+    }
+
+    /**
+     * @return The angle of the first POV in degrees, -1 if it isn't pressed
+     */
+    public int getPOV() {
+        return pov;
+    }
+
+    /**
+     * @return The port of the HID on the driver station
+     */
+    public int getPort() {
+        return port;
+    }
+
+}
@@ -5,27 +5,61 @@ import edu.wpi.first.wpilibj2.command.button.Trigger;
 
 /**
  * Logitech G Extreme 3D Pro Joystick
+ * Buttons, axes and the POV are read once per loop into a {@link HIDSnapshot} and everything reads from that,
+ * and there's only ever one trigger per button.
  */
 public class Logitech3DPro extends Joystick {
 
+    private static final int kButtons = 12;
+
+    private final HIDSnapshot snapshot;
+    private final Trigger[] triggers = new Trigger[kButtons + 1];
+
     public Logitech3DPro(final int port) {
         super(port);
+        snapshot = new HIDSnapshot(port);
+        for (int i = 1; i <= kButtons; i++) {
+            final int button = i;
+            triggers[i] = new Trigger(() -> snapshot.getButton(button));
+        }
     }
 
-    public Trigger b1() {return new Trigger(() -> getRawButton(1));}
-    public Trigger b2() {return new Trigger(() -> getRawButton(2));}
-    public Trigger b3() {return new Trigger(() -> getRawButton(3));}
-    public Trigger b4() {return new Trigger(() -> getRawButton(4));}
-    public Trigger b5() {return new Trigger(() -> getRawButton(5));}
-    public Trigger b6() {return new Trigger(() -> getRawButton(6));}
-    public Trigger b7() {return new Trigger(() -> getRawButton(7));}
-    public Trigger b8() {return new Trigger(() -> getRawButton(8));}
-    public Trigger b9() {return new Trigger(() -> getRawButton(9));}
-    public Trigger b10() {return new Trigger(() -> getRawButton(10));}
-    public Trigger b11() {return new Trigger(() -> getRawButton(11));}
-    public Trigger b12() {return new Trigger(() -> getRawButton(12));}
+    public Trigger b1() {return triggers[1];}
+    public Trigger b2() {return triggers[2];}
+    public Trigger b3() {return triggers[3];}
+    public Trigger b4() {return triggers[4];}
+    public Trigger b5() {return triggers[5];}
+    public Trigger b6() {return triggers[6];}
+    public Trigger b7() {return triggers[7];}
+    public Trigger b8() {return triggers[8];}
+    public Trigger b9() {return triggers[9];}
+    public Trigger b10() {return triggers[10];}
+    public Trigger b11() {return triggers[11];}
+    public Trigger b12() {return triggers[12];}
     public Trigger trigger() {return b1();}
 
+    /**
+     * @return The snapshot that this joystick reads from
+     */
+    public HIDSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public boolean getRawButton(int button) {
+        return snapshot.getButton(button);
+    }
+
+    @Override
+    public double getRawAxis(int axis) {
+        return snapshot.getAxis(axis);
+    }
+
+    @Override
+    public int getPOV() {
+        return snapshot.getPOV();
+    }
+
     public double getXInverted() {
         return -getX();
     }
@@ -0,0 +1,159 @@
+package frc.robot.lib.logging;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.sun.management.ThreadMXBean;
+
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.TimedRobot;
+
+/**
+ * Measures how many bytes the main thread allocates per loop and inside registered sections of code, and publishes
+ * them to NetworkTables. Allocation on the roboRIO leads to GC pauses which show up as loop jitter, so hot paths
+ * should allocate nothing.
+ * <p>
+ * Sections must start and stop on the same thread. Doesn't allocate while measuring.
+ */
+public class AllocationTracker {
+
+    private static final ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final NetworkTable table;
+    private final List<String> names = new ArrayList<>();
+    private final List<IntegerPublisher> publishers = new ArrayList<>();
+    private long[] starts = new long[0];
+    private long[] lastBytes = new long[0];
+    private long[] totalBytes = new long[0];
+    private final IntegerPublisher loopPublisher;
+    private final IntegerPublisher loopMaxPublisher;
+    private long loopStart = -1;
+    private long lastLoopBytes;
+    private long maxLoopBytes;
+
+    /**
+     * Creates a new tracker that publishes under the given NetworkTables table.
+     * @param tableName The table to publish to
+     */
+    public AllocationTracker(String tableName) {
+        if (!isSupported()) throw new UnsupportedOperationException("This JVM can't measure thread allocation");
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+        table = NetworkTableInstance.getDefault().getTable(tableName);
+        loopPublisher = table.getIntegerTopic("Loop Bytes").publish();
+        loopMaxPublisher = table.getIntegerTopic("Max Loop Bytes").publish();
+    }
+
+    /**
+     * Creates a new tracker that publishes to the "Allocation" table.
+     */
+    public AllocationTracker() {
+        this("Allocation");
+    }
+
+    /**
+     * @return If this JVM can measure how much each thread allocates
+     */
+    public static boolean isSupported() {
+        return threadBean.isThreadAllocatedMemorySupported();
+    }
+
+    /**
+     * @return The total number of bytes the current thread has allocated
+     */
+    public static long getCurrentThreadAllocatedBytes() {
+        return threadBean.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Registers a section of code to measure. Don't call this in a loop.
+     * @param name The name of the section
+     * @return The id of the section to pass to {@link #start(int)} and {@link #stop(int)}
+     */
+    public int register(String name) {
+        names.add(name);
+        publishers.add(table.getIntegerTopic(name + " Bytes").publish());
+        int size = names.size();
+        starts = Arrays.copyOf(starts, size);
+        lastBytes = Arrays.copyOf(lastBytes, size);
+        totalBytes = Arrays.copyOf(totalBytes, size);
+        return size - 1;
+    }
+
+    /**
+     * Starts measuring a section.
+     * @param section The id from {@link #register(String)}
+     */
+    public void start(int section) {
+        starts[section] = threadBean.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Stops measuring a section.
+     * @param section The id from {@link #register(String)}
+     * @return The bytes allocated since {@link #start(int)}
+     */
+    public long stop(int section) {
+        long bytes = threadBean.getCurrentThreadAllocatedBytes() - starts[section];
+        lastBytes[section] = bytes;
+        totalBytes[section] += bytes;
+        return bytes;
+    }
+
+    /**
+     * @param section The id from {@link #register(String)}
+     * @return The bytes allocated the last time the section ran
+     */
+    public long getLastBytes(int section) {
+        return lastBytes[section];
+    }
+
+    /**
+     * @param section The id from {@link #register(String)}
+     * @return The bytes allocated by every run of the section
+     */
+    public long getTotalBytes(int section) {
+        return totalBytes[section];
+    }
+
+    /**
+     * @return The bytes allocated by the main thread between the last two loops
+     */
+    public long getLastLoopBytes() {
+        return lastLoopBytes;
+    }
+
+    /**
+     * Measures the main thread's allocation from one loop to the next and publishes every measurement each loop.
+     * @param robot The robot to add the callback to
+     */
+    public void trackLoop(TimedRobot robot) {
+        robot.addPeriodic(this::loop, TimedRobot.kDefaultPeriod);
+    }
+
+    /**
+     * Publishes the last measurement of every section.
+     */
+    public void publish() {
+        for (int i = 0; i < publishers.size(); i++) {
+            publishers.get(i).set(lastBytes[i]);
+        }
+        loopPublisher.set(lastLoopBytes);
+        loopMaxPublisher.set(maxLoopBytes);
+    }
+
+    private void loop() {
+        long now = threadBean.getCurrentThreadAllocatedBytes();
+        if (loopStart >= 0) {
+            lastLoopBytes = now - loopStart;
+            maxLoopBytes = Math.max(maxLoopBytes, lastLoopBytes);
+        }
+        publish();
+        // Start after publishing so publishing isn't counted against the next loop
+        loopStart = threadBean.getCurrentThreadAllocatedBytes();
+    }
+
+}
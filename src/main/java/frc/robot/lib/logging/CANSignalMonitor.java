@@ -0,0 +1,299 @@
+package frc.robot.lib.logging;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.Utils;
+
+import edu.wpi.first.networktables.BooleanPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.IntegerArrayPublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.Alert;
+import edu.wpi.first.wpilibj.Alert.AlertType;
+
+/**
+ * Watches how fresh CAN signals are using the timestamp of each frame, so an overloaded bus shows up as data instead of
+ * as a mechanism behaving badly. Call {@link #update()} right after the signals are refreshed.
+ * <p>
+ * For every signal it tracks the age of the latest frame, the jitter between frames compared to the signal's update
+ * frequency, and how many updates were missed. A signal is stale when its latest frame is older than twice its period,
+ * which raises an alert for the device. Per device summaries and a histogram of signal ages can be published to
+ * NetworkTables with {@link #publishTo(String)}.
+ * <p>
+ * Everything is kept in primitive arrays and updating doesn't allocate.
+ */
+public class CANSignalMonitor {
+
+    /**
+     * The upper edges of the age histogram buckets in seconds, the last bucket holds everything older.
+     */
+    public static final double[] kAgeBucketEdges = {0.005, 0.010, 0.020, 0.050, 0.100};
+    /**
+     * How much each new interval counts towards the jitter, the same smoothing as RFC 3550.
+     */
+    private static final double kJitterGain = 1.0 / 16;
+    /**
+     * How often to reread the update frequency of every signal, in updates.
+     */
+    private static final int kFrequencyRefreshUpdates = 50;
+
+    private NetworkTable table;
+    private IntegerArrayPublisher histogramPublisher;
+    private final List<Device> devices = new ArrayList<>();
+    private BaseStatusSignal[] signals = new BaseStatusSignal[0];
+    // Per signal
+    private int[] deviceOf = new int[0];
+    private double[] timestamps = new double[0];
+    private double[] periods = new double[0];
+    private double[] lastTimestamp = new double[0];
+    private double[] age = new double[0];
+    private double[] jitter = new double[0];
+    private long[] missed = new long[0];
+    private boolean[] stale = new boolean[0];
+    private final long[] histogram = new long[kAgeBucketEdges.length + 1];
+    private long updates;
+
+    private static final class Device {
+        private final String name;
+        private DoublePublisher maxAge;
+        private DoublePublisher jitter;
+        private IntegerPublisher missed;
+        private BooleanPublisher stale;
+        private Alert alert;
+        private double maxAgeSeconds;
+        private double maxJitterSeconds;
+        private long missedUpdates;
+        private int staleSignals;
+
+        private Device(String name) {
+            this.name = name;
+        }
+
+        private void publishTo(NetworkTable table) {
+            NetworkTable deviceTable = table.getSubTable(name);
+            maxAge = deviceTable.getDoubleTopic("Max Age (ms)").publish();
+            jitter = deviceTable.getDoubleTopic("Max Jitter (ms)").publish();
+            missed = deviceTable.getIntegerTopic("Missed Updates").publish();
+            stale = deviceTable.getBooleanTopic("Stale").publish();
+            alert = new Alert(table.getPath().substring(1), name + " has stale CAN signals", AlertType.kWarning);
+        }
+    }
+
+    /**
+     * Publishes device summaries and the age histogram under a NetworkTables table every update, and raises alerts
+     * for devices with stale signals.
+     * @param tableName The table to publish to
+     * @return This monitor for chaining
+     */
+    public synchronized CANSignalMonitor publishTo(String tableName) {
+        if (table != null) throw new IllegalStateException("Already publishing to " + table.getPath());
+        table = NetworkTableInstance.getDefault().getTable(tableName);
+        histogramPublisher = table.getIntegerArrayTopic("Age Histogram").publish();
+        String[] labels = new String[kAgeBucketEdges.length + 1];
+        for (int i = 0; i < kAgeBucketEdges.length; i++) {
+            labels[i] = "< " + Math.round(kAgeBucketEdges[i] * 1000) + " ms";
+        }
+        labels[kAgeBucketEdges.length] = ">= " + Math.round(kAgeBucketEdges[kAgeBucketEdges.length - 1] * 1000) + " ms";
+        table.getStringArrayTopic("Age Histogram Buckets").publish().set(labels);
+        for (Device device : devices) {
+            device.publishTo(table);
+        }
+        return this;
+    }
+
+    /**
+     * Starts monitoring a device's signals. Don't call this in a loop.
+     * @param name The name of the device
+     * @param deviceSignals The signals of the device to monitor
+     */
+    public synchronized void addDevice(String name, BaseStatusSignal... deviceSignals) {
+        int start = signals.length;
+        addDevice(name, deviceSignals.length);
+        System.arraycopy(deviceSignals, 0, signals, start, deviceSignals.length);
+        for (int i = 0; i < deviceSignals.length; i++) {
+            periods[start + i] = periodOf(deviceSignals[i]);
+        }
+    }
+
+    /**
+     * Grows every array for a new device with the given number of signals.
+     */
+    synchronized void addDevice(String name, int signalCount) {
+        int device = devices.size();
+        Device newDevice = new Device(name);
+        if (table != null) newDevice.publishTo(table);
+        devices.add(newDevice);
+        int oldLength = deviceOf.length;
+        int length = oldLength + signalCount;
+        signals = Arrays.copyOf(signals, length);
+        deviceOf = Arrays.copyOf(deviceOf, length);
+        timestamps = Arrays.copyOf(timestamps, length);
+        periods = Arrays.copyOf(periods, length);
+        lastTimestamp = Arrays.copyOf(lastTimestamp, length);
+        age = Arrays.copyOf(age, length);
+        jitter = Arrays.copyOf(jitter, length);
+        missed = Arrays.copyOf(missed, length);
+        stale = Arrays.copyOf(stale, length);
+        Arrays.fill(deviceOf, oldLength, length, device);
+        Arrays.fill(lastTimestamp, oldLength, length, Double.NaN);
+    }
+
+    /**
+     * Checks every signal against the current time and publishes the results. Call this right after refreshing the signals.
+     */
+    public synchronized void update() {
+        boolean refreshFrequencies = updates % kFrequencyRefreshUpdates == 0;
+        for (int i = 0; i < signals.length; i++) {
+            BaseStatusSignal signal = signals[i];
+            if (signal == null) continue;
+            timestamps[i] = signal.getTimestamp().getTime();
+            // Update frequencies can change at runtime, like when a bus is optimized
+            if (refreshFrequencies) periods[i] = periodOf(signal);
+        }
+        update(Utils.getCurrentTimeSeconds(), timestamps, periods);
+        publish();
+    }
+
+    /**
+     * Updates the statistics of every signal.
+     * @param now The current time, on the same clock as the timestamps
+     * @param frameTimestamps The timestamp of the latest frame of each signal
+     * @param expectedPeriods The period each signal is expected to update at, infinite if it's not being sent
+     */
+    synchronized void update(double now, double[] frameTimestamps, double[] expectedPeriods) {
+        updates++;
+        for (int d = 0; d < devices.size(); d++) {
+            Device device = devices.get(d);
+            device.maxAgeSeconds = 0;
+            device.maxJitterSeconds = 0;
+            device.staleSignals = 0;
+        }
+        for (int i = 0; i < deviceOf.length; i++) {
+            double timestamp = frameTimestamps[i];
+            double period = expectedPeriods[i];
+            boolean sent = Double.isFinite(period);
+            if (sent && !Double.isNaN(lastTimestamp[i]) && timestamp > lastTimestamp[i]) {
+                double interval = timestamp - lastTimestamp[i];
+                jitter[i] += (Math.abs(interval - period) - jitter[i]) * kJitterGain;
+                long skipped = Math.round(interval / period) - 1;
+                if (skipped > 0) missed[i] += skipped;
+            }
+            lastTimestamp[i] = timestamp;
+            age[i] = Math.max(0, now - timestamp);
+            stale[i] = sent && age[i] > 2 * period;
+            histogram[bucketOf(age[i])]++;
+
+            Device device = devices.get(deviceOf[i]);
+            device.maxAgeSeconds = Math.max(device.maxAgeSeconds, age[i]);
+            device.maxJitterSeconds = Math.max(device.maxJitterSeconds, jitter[i]);
+            if (stale[i]) device.staleSignals++;
+        }
+        for (int d = 0; d < devices.size(); d++) {
+            devices.get(d).missedUpdates = 0;
+        }
+        for (int i = 0; i < deviceOf.length; i++) {
+            devices.get(deviceOf[i]).missedUpdates += missed[i];
+        }
+    }
+
+    /**
+     * @param signal The index of the signal, in the order they were added
+     * @return The age of the signal's latest frame in seconds
+     */
+    public synchronized double getAge(int signal) {
+        return age[signal];
+    }
+
+    /**
+     * @param signal The index of the signal, in the order they were added
+     * @return The smoothed difference between the time between frames and the signal's period in seconds
+     */
+    public synchronized double getJitter(int signal) {
+        return jitter[signal];
+    }
+
+    /**
+     * @param signal The index of the signal, in the order they were added
+     * @return How many frames of the signal have been missed
+     */
+    public synchronized long getMissedUpdates(int signal) {
+        return missed[signal];
+    }
+
+    /**
+     * @param signal The index of the signal, in the order they were added
+     * @return If the signal's latest frame is older than twice its period
+     */
+    public synchronized boolean isStale(int signal) {
+        return stale[signal];
+    }
+
+    /**
+     * @param name The name of the device
+     * @return The number of the device's signals that are stale
+     */
+    public synchronized int getStaleSignalCount(String name) {
+        return getDevice(name).staleSignals;
+    }
+
+    /**
+     * @param name The name of the device
+     * @return The age of the device's oldest signal in seconds
+     */
+    public synchronized double getMaxAge(String name) {
+        return getDevice(name).maxAgeSeconds;
+    }
+
+    /**
+     * @param name The name of the device
+     * @return How many frames have been missed across all of the device's signals
+     */
+    public synchronized long getMissedUpdates(String name) {
+        return getDevice(name).missedUpdates;
+    }
+
+    /**
+     * @return The number of signal ages seen in each bucket of {@link #kAgeBucketEdges}, since the monitor was created
+     */
+    public synchronized long[] getAgeHistogram() {
+        return histogram.clone();
+    }
+
+    private void publish() {
+        if (table == null) return;
+        for (int d = 0; d < devices.size(); d++) {
+            Device device = devices.get(d);
+            device.maxAge.set(device.maxAgeSeconds * 1000);
+            device.jitter.set(device.maxJitterSeconds * 1000);
+            device.missed.set(device.missedUpdates);
+            device.stale.set(device.staleSignals > 0);
+            device.alert.set(device.staleSignals > 0);
+        }
+        histogramPublisher.set(histogram);
+    }
+
+    private Device getDevice(String name) {
+        for (Device device : devices) {
+            if (device.name.equals(name)) return device;
+        }
+        throw new IllegalArgumentException("No device named " + name);
+    }
+
+    private static int bucketOf(double ageSeconds) {
+        for (int i = 0; i < kAgeBucketEdges.length; i++) {
+            if (ageSeconds < kAgeBucketEdges[i]) return i;
+        }
+        return kAgeBucketEdges.length;
+    }
+
+    private static double periodOf(BaseStatusSignal signal) {
+        double frequency = signal.getAppliedUpdateFrequency();
+        return frequency > 0 ? 1 / frequency : Double.POSITIVE_INFINITY;
+    }
+
+}
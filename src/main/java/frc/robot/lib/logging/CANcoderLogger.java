@@ -0,0 +1,24 @@
+package frc.robot.lib.logging;
+
+import com.ctre.phoenix6.hardware.CANcoder;
+
+import edu.wpi.first.epilogue.CustomLoggerFor;
+
+@CustomLoggerFor(CANcoder.class)
+public class CANcoderLogger extends PhoenixDeviceLogger<CANcoder> {
+
+    private static final DeviceDescriptor<CANcoder> kDescriptor = new DeviceDescriptor<CANcoder>("CANcoder")
+        .addDouble("Position (Rots)", cancoder -> cancoder.getPosition(false))
+        .addDouble("Absolute Position (Rots)", cancoder -> cancoder.getAbsolutePosition(false))
+        .addDouble("Velocity (Rots\\s)", cancoder -> cancoder.getVelocity(false))
+        .addEnum("Magnet Health", cancoder -> cancoder.getMagnetHealth(false))
+        .addBoolean("Bad Magnet", cancoder -> cancoder.getFault_BadMagnet(false))
+        .addBoolean("Undervoltage", cancoder -> cancoder.getFault_Undervoltage(false))
+        .addDouble("Supply Voltage (V)", cancoder -> cancoder.getSupplyVoltage(false))
+        .addInteger("Firmware Version", cancoder -> cancoder.getVersion(false));
+
+    public CANcoderLogger() {
+        super(CANcoder.class, kDescriptor);
+    }
+
+}
@@ -0,0 +1,134 @@
+package frc.robot.lib.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.StatusSignal;
+
+import edu.wpi.first.epilogue.logging.EpilogueBackend;
+
+/**
+ * Declares which signals of a Phoenix device type are logged and under what names, once for every device of the type.
+ * Getters should use the overloads that take {@code false} so nothing blocks on CAN when a device is first logged.
+ * <pre>
+ * new DeviceDescriptor&lt;CANcoder&gt;("CANcoder")
+ *     .addDouble("Position (Rots)", cancoder -&gt; cancoder.getPosition(false))
+ *     .addEnum("Magnet Health", cancoder -&gt; cancoder.getMagnetHealth(false));
+ * </pre>
+ * @param <T> The type of device
+ */
+public class DeviceDescriptor<T> {
+
+    @FunctionalInterface
+    private interface Writer {
+        void write(EpilogueBackend backend, String name, BaseStatusSignal signal);
+    }
+
+    private record Entry<T>(String name, Function<T, ? extends BaseStatusSignal> getter, Writer writer) {}
+
+    private final String typeName;
+    private final List<Entry<T>> entries = new ArrayList<>();
+
+    /**
+     * Creates a new descriptor with no signals.
+     * @param typeName The name of the device type, devices are named this followed by their ID
+     */
+    public DeviceDescriptor(String typeName) {
+        this.typeName = typeName;
+    }
+
+    /**
+     * Adds a signal logged as a double.
+     * @param name The name to log the signal under
+     * @param getter Gets the signal from a device
+     * @return This descriptor for chaining
+     */
+    public DeviceDescriptor<T> addDouble(String name, Function<T, ? extends BaseStatusSignal> getter) {
+        entries.add(new Entry<>(name, getter, (backend, key, signal) -> backend.log(key, signal.getValueAsDouble())));
+        return this;
+    }
+
+    /**
+     * Adds a signal logged as a boolean.
+     * @param name The name to log the signal under
+     * @param getter Gets the signal from a device
+     * @return This descriptor for chaining
+     */
+    public DeviceDescriptor<T> addBoolean(String name, Function<T, StatusSignal<Boolean>> getter) {
+        entries.add(new Entry<>(name, getter, (backend, key, signal) -> backend.log(key, (Boolean) valueOf(signal))));
+        return this;
+    }
+
+    /**
+     * Adds a signal logged as an integer.
+     * @param name The name to log the signal under
+     * @param getter Gets the signal from a device
+     * @return This descriptor for chaining
+     */
+    public DeviceDescriptor<T> addInteger(String name, Function<T, StatusSignal<Integer>> getter) {
+        entries.add(new Entry<>(name, getter, (backend, key, signal) -> backend.log(key, (Integer) valueOf(signal))));
+        return this;
+    }
+
+    /**
+     * Adds a signal logged as an enum.
+     * @param <E> The type of the signal
+     * @param name The name to log the signal under
+     * @param getter Gets the signal from a device
+     * @return This descriptor for chaining
+     */
+    public <E extends Enum<E>> DeviceDescriptor<T> addEnum(String name, Function<T, StatusSignal<E>> getter) {
+        entries.add(new Entry<>(name, getter, (backend, key, signal) -> {
+            @SuppressWarnings("unchecked")
+            E value = (E) valueOf(signal);
+            backend.log(key, value);
+        }));
+        return this;
+    }
+
+    /**
+     * @return The name of the device type
+     */
+    public String getTypeName() {
+        return typeName;
+    }
+
+    /**
+     * @return The number of signals of each device
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets every described signal of a device, in the order they were added.
+     * @param device The device
+     * @return The device's signals
+     */
+    public BaseStatusSignal[] signalsOf(T device) {
+        BaseStatusSignal[] signals = new BaseStatusSignal[entries.size()];
+        for (int i = 0; i < signals.length; i++) {
+            signals[i] = entries.get(i).getter().apply(device);
+        }
+        return signals;
+    }
+
+    /**
+     * Logs the cached value of every signal without refreshing them.
+     * @param backend The backend to log to
+     * @param signals The device's signals from {@link #signalsOf(Object)}
+     */
+    public void log(EpilogueBackend backend, BaseStatusSignal[] signals) {
+        for (int i = 0; i < signals.length; i++) {
+            Entry<T> entry = entries.get(i);
+            entry.writer().write(backend, entry.name(), signals[i]);
+        }
+    }
+
+    private static Object valueOf(BaseStatusSignal signal) {
+        return ((StatusSignal<?>) signal).getValue();
+    }
+
+}
@@ -17,6 +17,8 @@ import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
 import edu.wpi.first.wpilibj2.command.Commands;
+import frc.robot.lib.util.PeriodicScheduler;
+import frc.robot.lib.util.PeriodicScheduler.Priority;
 
 public class LogUtil {
 
@@ -81,31 +83,92 @@ public class LogUtil {
         return topic.subscribe(defaultValue);
     }
 
+    /**
+     * Used for getting tunable doubles for quick iteration, with the default value sent through a throttle as a low
+     * priority topic. Don't call this method in a loop as it will create NT subscribers and publishers.
+     * @param name of value in network tables
+     * @param defaultValue
+     * @param throttle The throttle to send the default value through, it must be updated periodically
+     * @return A subscriber that can be used to get the value from network tables
+     */
+    public static DoubleSubscriber getTunableDouble(String name, double defaultValue, TelemetryThrottle throttle) {
+        DoubleTopic topic = NetworkTableInstance.getDefault().getTable("Tuning").getDoubleTopic(name);
+        throttle.addDouble(topic.getName(), TelemetryThrottle.Priority.LOW, 1).set(defaultValue);
+        return topic.subscribe(defaultValue);
+    }
+
+    /**
+     * Used for getting tunable booleans for quick iteration, with the default value sent through a throttle as a low
+     * priority topic. Don't call this method in a loop as it will create NT subscribers and publishers.
+     * @param name of value in network tables
+     * @param defaultValue
+     * @param throttle The throttle to send the default value through, it must be updated periodically
+     * @return A subscriber that can be used to get the value from network tables
+     */
+    public static BooleanSubscriber getTunableBoolean(String name, boolean defaultValue, TelemetryThrottle throttle) {
+        BooleanTopic topic = NetworkTableInstance.getDefault().getTable("Tuning").getBooleanTopic(name);
+        throttle.addBoolean(topic.getName(), TelemetryThrottle.Priority.LOW, 1).set(defaultValue);
+        return topic.subscribe(defaultValue);
+    }
+
     /**
      * Logs Driver Station data to NetworkTables. Adds a periodic callback to the given robot.
      * @param robot The robot to add the callback to
      * Should try to get some of these into DriverStation's FMSInfo or DS datalog
      */
     public static void logDriverStation(TimedRobot robot) {
+        robot.addPeriodic(LogUtil::publishDriverStation, TimedRobot.kDefaultPeriod);
+    }
+
+    /**
+     * Logs Driver Station data to NetworkTables on the scheduler's telemetry thread instead of the main robot thread.
+     * @param scheduler The scheduler to run on
+     */
+    public static void logDriverStation(PeriodicScheduler scheduler) {
+        scheduler.schedule("Driver Station Logging", Priority.TELEMETRY, TimedRobot.kDefaultPeriod, LogUtil::publishDriverStation);
+    }
+
+    /**
+     * Logs Driver Station data to NetworkTables through a throttle, so only whether the robot is enabled is always sent.
+     * Adds a periodic callback to the given robot. Don't call this more than once as it creates NT publishers.
+     * @param robot The robot to add the callback to
+     * @param throttle The throttle to publish through, it must be updated periodically
+     */
+    public static void logDriverStation(TimedRobot robot, TelemetryThrottle throttle) {
+        var mode = throttle.addString("/Driver Station/DS Mode", TelemetryThrottle.Priority.NORMAL, 10);
+        var enabled = throttle.addBoolean("/Driver Station/Robot Enabled", TelemetryThrottle.Priority.CRITICAL, 50);
+        var matchTime = throttle.addDouble("/Driver Station/Match Time", TelemetryThrottle.Priority.NORMAL, 4);
+        var fmsAttached = throttle.addBoolean("/Driver Station/is FMS Attached", TelemetryThrottle.Priority.LOW, 1);
         robot.addPeriodic(() -> {
-            String mode = "Unknown";
-            if (DriverStation.isTeleop()) {
-                mode = "Teleop";
-            }
-            else if (DriverStation.isAutonomous()) {
-                mode = "Autonomous";
-            }
-            else if (DriverStation.isTest()) {
-                mode = "Test";
-            }
-            var table = NetworkTableInstance.getDefault().getTable("Driver Station");
-            table.getEntry("DS Mode").setString(mode);
-            table.getEntry("Robot Enabled").setBoolean(DriverStation.isEnabled());
-            table.getEntry("Match Time").setDouble(DriverStation.getMatchTime());
-            table.getEntry("is FMS Attached").setBoolean(DriverStation.isFMSAttached());
+            mode.set(getDriverStationMode());
+            enabled.set(DriverStation.isEnabled());
+            matchTime.set(DriverStation.getMatchTime());
+            fmsAttached.set(DriverStation.isFMSAttached());
         }, TimedRobot.kDefaultPeriod);
     }
 
+    private static String getDriverStationMode() {
+        if (DriverStation.isTeleop()) {
+            return "Teleop";
+        }
+        else if (DriverStation.isAutonomous()) {
+            return "Autonomous";
+        }
+        else if (DriverStation.isTest()) {
+            return "Test";
+        }
+        return "Unknown";
+    }
+
+    private static void publishDriverStation() {
+        String mode = getDriverStationMode();
+        var table = NetworkTableInstance.getDefault().getTable("Driver Station");
+        table.getEntry("DS Mode").setString(mode);
+        table.getEntry("Robot Enabled").setBoolean(DriverStation.isEnabled());
+        table.getEntry("Match Time").setDouble(DriverStation.getMatchTime());
+        table.getEntry("is FMS Attached").setBoolean(DriverStation.isFMSAttached());
+    }
+
     private static final Command noInterrupter = Commands.none().withName("No Interrupter");
     /**
      * Logs command interrupts to NetworkTables and DataLog. Does not have to be called periodically.
@@ -121,4 +184,22 @@ public class LogUtil {
         });
     }
 
+    /**
+     * Logs command interrupts to the DataLog, and to NetworkTables through a throttle. Does not have to be called
+     * periodically. Don't call this more than once as it creates NT publishers.
+     * @param log The log to write every interrupt to
+     * @param throttle The throttle to publish the last interrupt through, it must be updated periodically
+     */
+    public static void logCommandInterrupts(DataLog log, TelemetryThrottle throttle) {
+        var commandInterrupt = new StringLogEntry(log, "/Command Scheduler");
+        var interrupted = throttle.addString("/Command Scheduler/Last Interrupted Command", TelemetryThrottle.Priority.NORMAL, 10);
+        var interrupting = throttle.addString("/Command Scheduler/Last Interrupting Command", TelemetryThrottle.Priority.NORMAL, 10);
+        CommandScheduler.getInstance().onCommandInterrupt((interruptedCommand, interrupter) -> {
+            Command interruptingCommand = interrupter.orElse(noInterrupter);
+            commandInterrupt.append("Command: " + interruptedCommand.getName() + " was interrupted by " + interruptingCommand.getName() + ".");
+            interrupted.set(interruptedCommand.getName());
+            interrupting.set(interruptingCommand.getName());
+        });
+    }
+
 }
@@ -0,0 +1,56 @@
+package frc.robot.lib.logging;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.hardware.ParentDevice;
+
+import edu.wpi.first.epilogue.logging.ClassSpecificLogger;
+import edu.wpi.first.epilogue.logging.EpilogueBackend;
+
+/**
+ * Logs a Phoenix device type from a {@link DeviceDescriptor}. The first time a device is logged its signals are
+ * registered with {@link PhoenixSignalRegistry}, after that only cached values are read so logging never blocks on CAN.
+ * <p>
+ * Signals are only fresh if the registry is refreshed, with {@link PhoenixSignalRegistry#refreshPeriodically}.
+ * @param <T> The type of device
+ */
+public abstract class PhoenixDeviceLogger<T extends ParentDevice> extends ClassSpecificLogger<T> {
+
+    private final DeviceDescriptor<T> descriptor;
+    private final Map<T, BaseStatusSignal[]> signals = new IdentityHashMap<>();
+
+    /**
+     * Creates a new logger.
+     * @param type The class of the device
+     * @param descriptor The signals to log
+     */
+    protected PhoenixDeviceLogger(Class<T> type, DeviceDescriptor<T> descriptor) {
+        super(type);
+        this.descriptor = descriptor;
+    }
+
+    @Override
+    protected void update(EpilogueBackend dataLogger, T device) {
+        BaseStatusSignal[] deviceSignals = signals.get(device);
+        if (deviceSignals == null) {
+            deviceSignals = descriptor.signalsOf(device);
+            signals.put(device, deviceSignals);
+            if (PhoenixSignalRegistry.register(descriptor.getTypeName() + " " + device.getDeviceID(), device, deviceSignals)) {
+                onRegister(device);
+            }
+        }
+        dataLogger.log("Device ID", device.getDeviceID());
+        dataLogger.log("Has Reset Occurred", device.hasResetOccurred());
+        dataLogger.log("Connected", device.isConnected());
+        descriptor.log(dataLogger, deviceSignals);
+    }
+
+    /**
+     * Called once when a device's signals are first registered.
+     * @param device The device
+     */
+    protected void onRegister(T device) {}
+
+}
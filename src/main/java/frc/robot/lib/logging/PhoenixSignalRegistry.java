@@ -0,0 +1,169 @@
+package frc.robot.lib.logging;
+
+import static edu.wpi.first.units.Units.Seconds;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.hardware.ParentDevice;
+
+import edu.wpi.first.units.measure.Time;
+import edu.wpi.first.wpilibj.TimedRobot;
+import frc.robot.lib.util.PeriodicScheduler;
+import frc.robot.lib.util.PeriodicScheduler.Priority;
+
+/**
+ * Holds the signals of every logged Phoenix device so they can all be refreshed together, with one call per CAN bus
+ * instead of one per device type. The device loggers register their signals here the first time they log a device.
+ * <p>
+ * Anything that needs fresh signals, like {@link CANSignalMonitor}, can be run right after each refresh with
+ * {@link #addRefreshListener(Runnable)}.
+ */
+public class PhoenixSignalRegistry {
+
+    /**
+     * Prevent this class from being instantiated.
+     */
+    private PhoenixSignalRegistry() {}
+
+    private record Bus(String name, BaseStatusSignal[] signals) {}
+
+    // Replaced instead of modified so it can be refreshed from another thread while devices are being added
+    private static volatile Bus[] buses = new Bus[0];
+    private static final Set<ParentDevice> devices = Collections.newSetFromMap(new IdentityHashMap<>());
+    private static final CopyOnWriteArrayList<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private static volatile CANSignalMonitor monitor;
+
+    /**
+     * Adds a device's signals to be refreshed with every other registered signal on its bus. Devices that are already
+     * registered are ignored.
+     * @param name The name of the device, like "TalonFX 1"
+     * @param device The device
+     * @param signals The signals of the device
+     * @return If the device was registered, false if it already was
+     */
+    public static synchronized boolean register(String name, ParentDevice device, BaseStatusSignal... signals) {
+        if (!devices.add(device)) return false;
+        addSignals(name, device, signals);
+        return true;
+    }
+
+    /**
+     * Adds more signals of a device to be refreshed with every other registered signal on its bus, whether or not the
+     * device itself is registered. Used for signals that aren't logged, like the fault fields read by
+     * {@link TalonFXFaultMonitor}. Don't add the same signals twice.
+     * @param name The name of the signals, like "TalonFX 1 Faults"
+     * @param device The device the signals are from
+     * @param signals The signals
+     */
+    public static synchronized void addSignals(String name, ParentDevice device, BaseStatusSignal... signals) {
+        String busName = device.getNetwork();
+        Bus[] current = buses;
+        int index = indexOf(current, busName);
+        Bus[] updated = Arrays.copyOf(current, index < 0 ? current.length + 1 : current.length);
+        if (index < 0) {
+            index = current.length;
+            updated[index] = new Bus(busName, new BaseStatusSignal[0]);
+        }
+        BaseStatusSignal[] old = updated[index].signals();
+        BaseStatusSignal[] combined = Arrays.copyOf(old, old.length + signals.length);
+        System.arraycopy(signals, 0, combined, old.length, signals.length);
+        updated[index] = new Bus(busName, combined);
+        buses = updated;
+        if (monitor != null) monitor.addDevice(name, signals);
+    }
+
+    /**
+     * @param device The device
+     * @return If the device's signals have been registered
+     */
+    public static synchronized boolean isRegistered(ParentDevice device) {
+        return devices.contains(device);
+    }
+
+    /**
+     * Runs something after every refresh, on the same thread as the refresh.
+     * @param listener The code to run
+     */
+    public static void addRefreshListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Refreshes every registered signal, periodically determined by the period and offset provided.
+     * @param robot The robot to add the callback to
+     * @param period The rate at which the signals should be refreshed
+     * @param offset The offset from the main loop at which this refresh should occur
+     */
+    public static void refreshPeriodically(TimedRobot robot, Time period, Time offset) {
+        robot.addPeriodic(PhoenixSignalRegistry::refreshAll, period, offset);
+    }
+
+    /**
+     * Refreshes every registered signal on the scheduler's telemetry thread instead of the main robot thread.
+     * Use this or {@link #refreshPeriodically(TimedRobot, Time, Time)}, not both.
+     * @param scheduler The scheduler to run on
+     * @param period The rate at which the signals should be refreshed
+     */
+    public static void refreshPeriodically(PeriodicScheduler scheduler, Time period) {
+        scheduler.schedule("Phoenix Signal Refresh", Priority.TELEMETRY, period.in(Seconds), PhoenixSignalRegistry::refreshAll);
+    }
+
+    /**
+     * Refreshes every registered signal with one call per CAN bus, then runs the refresh listeners.
+     */
+    public static void refreshAll() {
+        Bus[] current = buses;
+        if (current.length == 0) return;
+        for (Bus bus : current) {
+            BaseStatusSignal.refreshAll(bus.signals());
+        }
+        CANSignalMonitor currentMonitor = monitor;
+        if (currentMonitor != null) currentMonitor.update();
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Monitors the age, jitter and missed updates of every registered signal after each refresh, publishing to the
+     * "CAN Signals" table. Call this before any devices are logged.
+     * @return The monitor
+     */
+    public static synchronized CANSignalMonitor enableSignalMonitor() {
+        if (monitor == null) {
+            monitor = new CANSignalMonitor().publishTo("CAN Signals");
+        }
+        return monitor;
+    }
+
+    /**
+     * @return The number of CAN buses with registered signals, which is how many refresh calls each refresh makes
+     */
+    public static int getBusCount() {
+        return buses.length;
+    }
+
+    /**
+     * @return The number of registered signals across every bus
+     */
+    public static int getSignalCount() {
+        int count = 0;
+        for (Bus bus : buses) {
+            count += bus.signals().length;
+        }
+        return count;
+    }
+
+    private static int indexOf(Bus[] current, String busName) {
+        for (int i = 0; i < current.length; i++) {
+            if (current[i].name().equals(busName)) return i;
+        }
+        return -1;
+    }
+
+}
@@ -0,0 +1,27 @@
+package frc.robot.lib.logging;
+
+import com.ctre.phoenix6.hardware.Pigeon2;
+
+import edu.wpi.first.epilogue.CustomLoggerFor;
+
+@CustomLoggerFor(Pigeon2.class)
+public class Pigeon2Logger extends PhoenixDeviceLogger<Pigeon2> {
+
+    private static final DeviceDescriptor<Pigeon2> kDescriptor = new DeviceDescriptor<Pigeon2>("Pigeon2")
+        .addDouble("Yaw (Deg)", pigeon -> pigeon.getYaw(false))
+        .addDouble("Pitch (Deg)", pigeon -> pigeon.getPitch(false))
+        .addDouble("Roll (Deg)", pigeon -> pigeon.getRoll(false))
+        .addDouble("Yaw Rate (Deg\\s)", pigeon -> pigeon.getAngularVelocityZWorld(false))
+        .addDouble("Acceleration X (G)", pigeon -> pigeon.getAccelerationX(false))
+        .addDouble("Acceleration Y (G)", pigeon -> pigeon.getAccelerationY(false))
+        .addDouble("Acceleration Z (G)", pigeon -> pigeon.getAccelerationZ(false))
+        .addDouble("Temperature (C)", pigeon -> pigeon.getTemperature(false))
+        .addDouble("Supply Voltage (V)", pigeon -> pigeon.getSupplyVoltage(false))
+        .addBoolean("Undervoltage", pigeon -> pigeon.getFault_Undervoltage(false))
+        .addInteger("Firmware Version", pigeon -> pigeon.getVersion(false));
+
+    public Pigeon2Logger() {
+        super(Pigeon2.class, kDescriptor);
+    }
+
+}
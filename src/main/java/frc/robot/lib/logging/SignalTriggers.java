@@ -0,0 +1,250 @@
+package frc.robot.lib.logging;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.button.Trigger;
+
+/**
+ * Threshold triggers on Phoenix signals that are all checked together in one pass, instead of every trigger reading its
+ * own signal each scheduler loop. Register conditions like stalls and limits with {@link #above} and {@link #below},
+ * then bind commands to the returned triggers.
+ * <p>
+ * Conditions are checked right after {@link PhoenixSignalRegistry} refreshes, so only cached values are read and
+ * nothing is sent over CAN. The signals should be logged or otherwise registered so they're refreshed. Each condition
+ * can have hysteresis, so it doesn't flicker around its threshold, and a debounce time it must hold for before it
+ * changes. Every condition's state is kept in primitive arrays and checking them doesn't allocate.
+ */
+public class SignalTriggers {
+
+    /**
+     * How a signal is compared to a threshold.
+     */
+    public enum Comparison {
+        /**
+         * Active while the signal is above the threshold.
+         */
+        ABOVE,
+        /**
+         * Active while the signal is below the threshold.
+         */
+        BELOW,
+        /**
+         * Active while the magnitude of the signal is above the threshold.
+         */
+        MAGNITUDE_ABOVE,
+        /**
+         * Active while the magnitude of the signal is below the threshold.
+         */
+        MAGNITUDE_BELOW
+    }
+
+    // Per signal, each signal is only read once per pass however many conditions use it
+    private final Map<BaseStatusSignal, Integer> signalIndices = new IdentityHashMap<>();
+    private BaseStatusSignal[] signals = new BaseStatusSignal[0];
+    private double[] values = new double[0];
+    // Per condition
+    private int conditions;
+    private int[] signalOf = new int[0];
+    private boolean[] above = new boolean[0];
+    private boolean[] magnitude = new boolean[0];
+    private double[] threshold = new double[0];
+    private double[] hysteresis = new double[0];
+    private double[] debounce = new double[0];
+    private boolean[] raw = new boolean[0];
+    private double[] pendingSince = new double[0];
+    // Read from other threads, only replaced while holding the lock
+    private volatile boolean[] active = new boolean[0];
+    // Written after every pass so the states are visible to threads that read this first
+    private volatile long evaluations;
+    private boolean listening;
+
+    /**
+     * Checks every condition after each refresh of {@link PhoenixSignalRegistry}.
+     * @return This for chaining
+     */
+    public synchronized SignalTriggers evaluateAfterRefresh() {
+        if (!listening) {
+            listening = true;
+            PhoenixSignalRegistry.addRefreshListener(this::evaluate);
+        }
+        return this;
+    }
+
+    /**
+     * Creates a trigger that's active while a signal is above a threshold.
+     * @param signal The signal to check
+     * @param threshold The threshold
+     * @return The trigger
+     */
+    public Trigger above(BaseStatusSignal signal, double threshold) {
+        return when(signal, Comparison.ABOVE, threshold, 0, 0);
+    }
+
+    /**
+     * Creates a trigger that's active while a signal is above a threshold.
+     * @param signal The signal to check
+     * @param threshold The threshold
+     * @param hysteresis How far below the threshold the signal must fall before the trigger turns off
+     * @param debounceSeconds How long the signal must stay across the threshold before the trigger changes
+     * @return The trigger
+     */
+    public Trigger above(BaseStatusSignal signal, double threshold, double hysteresis, double debounceSeconds) {
+        return when(signal, Comparison.ABOVE, threshold, hysteresis, debounceSeconds);
+    }
+
+    /**
+     * Creates a trigger that's active while a signal is below a threshold.
+     * @param signal The signal to check
+     * @param threshold The threshold
+     * @return The trigger
+     */
+    public Trigger below(BaseStatusSignal signal, double threshold) {
+        return when(signal, Comparison.BELOW, threshold, 0, 0);
+    }
+
+    /**
+     * Creates a trigger that's active while a signal is below a threshold.
+     * @param signal The signal to check
+     * @param threshold The threshold
+     * @param hysteresis How far above the threshold the signal must rise before the trigger turns off
+     * @param debounceSeconds How long the signal must stay across the threshold before the trigger changes
+     * @return The trigger
+     */
+    public Trigger below(BaseStatusSignal signal, double threshold, double hysteresis, double debounceSeconds) {
+        return when(signal, Comparison.BELOW, threshold, hysteresis, debounceSeconds);
+    }
+
+    /**
+     * Creates a trigger from a signal condition. Don't call this in a loop.
+     * @param signal The signal to check
+     * @param comparison How to compare the signal to the threshold
+     * @param threshold The threshold
+     * @param hysteresis How far back across the threshold the signal must go before the trigger turns off
+     * @param debounceSeconds How long the signal must stay across the threshold before the trigger changes
+     * @return The trigger
+     */
+    public Trigger when(BaseStatusSignal signal, Comparison comparison, double threshold, double hysteresis, double debounceSeconds) {
+        int condition = addCondition(indexOf(signal), comparison, threshold, hysteresis, debounceSeconds);
+        return new Trigger(() -> isActive(condition));
+    }
+
+    /**
+     * Reads every signal's cached value and checks every condition, already done after each refresh if
+     * {@link #evaluateAfterRefresh()} was called.
+     */
+    public synchronized void evaluate() {
+        for (int i = 0; i < signals.length; i++) {
+            if (signals[i] != null) values[i] = signals[i].getValueAsDouble();
+        }
+        evaluate(Timer.getFPGATimestamp());
+    }
+
+    /**
+     * @param condition The index of the condition, in the order they were added
+     * @return If the condition is active as of the latest pass
+     */
+    public boolean isActive(int condition) {
+        // Read first so every state written before it in the pass is visible
+        if (evaluations == 0) return false;
+        return active[condition];
+    }
+
+    /**
+     * @return How many passes have been made over the conditions
+     */
+    public long getEvaluationCount() {
+        return evaluations;
+    }
+
+    /**
+     * @return The number of registered conditions
+     */
+    public synchronized int getConditionCount() {
+        return conditions;
+    }
+
+    /**
+     * Adds a value to compare against, which is a signal's cached value unless the signal is null.
+     * @return The index of the value
+     */
+    synchronized int indexOf(BaseStatusSignal signal) {
+        if (signal != null) {
+            Integer existing = signalIndices.get(signal);
+            if (existing != null) return existing;
+        }
+        int index = signals.length;
+        signals = Arrays.copyOf(signals, index + 1);
+        values = Arrays.copyOf(values, index + 1);
+        signals[index] = signal;
+        if (signal != null) signalIndices.put(signal, index);
+        return index;
+    }
+
+    /**
+     * Adds a condition on a value.
+     * @return The index of the condition
+     */
+    synchronized int addCondition(int signal, Comparison compare, double limit, double band, double debounceSeconds) {
+        if (signal < 0 || signal >= signals.length) throw new IllegalArgumentException("No signal with index " + signal);
+        if (!Double.isFinite(limit)) throw new IllegalArgumentException("Threshold must be finite, got: " + limit);
+        if (!(band >= 0)) throw new IllegalArgumentException("Hysteresis must be non-negative, got: " + band);
+        if (!(debounceSeconds >= 0)) throw new IllegalArgumentException("Debounce must be non-negative, got: " + debounceSeconds);
+        int index = conditions++;
+        signalOf = Arrays.copyOf(signalOf, conditions);
+        above = Arrays.copyOf(above, conditions);
+        magnitude = Arrays.copyOf(magnitude, conditions);
+        threshold = Arrays.copyOf(threshold, conditions);
+        hysteresis = Arrays.copyOf(hysteresis, conditions);
+        debounce = Arrays.copyOf(debounce, conditions);
+        raw = Arrays.copyOf(raw, conditions);
+        pendingSince = Arrays.copyOf(pendingSince, conditions);
+        signalOf[index] = signal;
+        above[index] = compare == Comparison.ABOVE || compare == Comparison.MAGNITUDE_ABOVE;
+        magnitude[index] = compare == Comparison.MAGNITUDE_ABOVE || compare == Comparison.MAGNITUDE_BELOW;
+        threshold[index] = limit;
+        hysteresis[index] = band;
+        debounce[index] = debounceSeconds;
+        pendingSince[index] = Double.NaN;
+        active = Arrays.copyOf(active, conditions);
+        return index;
+    }
+
+    /**
+     * Sets the values compared against, for values without a signal.
+     */
+    synchronized void setValue(int signal, double value) {
+        values[signal] = value;
+    }
+
+    /**
+     * Checks every condition against the current values.
+     * @param now The current time in seconds
+     */
+    synchronized void evaluate(double now) {
+        boolean[] states = active;
+        for (int i = 0; i < conditions; i++) {
+            double value = values[signalOf[i]];
+            if (magnitude[i]) value = Math.abs(value);
+            // Once across the threshold the value has to come back past the hysteresis band to turn off
+            double band = raw[i] ? hysteresis[i] : 0;
+            boolean across = above[i] ? value > threshold[i] - band : value < threshold[i] + band;
+            raw[i] = across;
+            if (across == states[i]) {
+                pendingSince[i] = Double.NaN;
+            } else if (Double.isNaN(pendingSince[i])) {
+                pendingSince[i] = now;
+            }
+            if (across != states[i] && now - pendingSince[i] >= debounce[i]) {
+                states[i] = across;
+                pendingSince[i] = Double.NaN;
+            }
+        }
+        evaluations++;
+    }
+
+}
@@ -0,0 +1,164 @@
+package frc.robot.lib.logging;
+
+import java.util.function.Function;
+
+import com.ctre.phoenix6.StatusSignal;
+import com.ctre.phoenix6.hardware.TalonFX;
+
+/**
+ * Every fault a TalonFX can report, each one is a bit in the {@code long} fault sets used by {@link TalonFXFaultMonitor}.
+ */
+public enum TalonFXFault {
+    /**
+     * Hardware failure occurred.
+     */
+    HARDWARE(TalonFX::getFault_Hardware, TalonFX::getStickyFault_Hardware),
+    /**
+     * Processor temperature exceeded limit.
+     */
+    PROC_TEMP(TalonFX::getFault_ProcTemp, TalonFX::getStickyFault_ProcTemp),
+    /**
+     * Device temperature exceeded limit.
+     */
+    DEVICE_TEMP(TalonFX::getFault_DeviceTemp, TalonFX::getStickyFault_DeviceTemp),
+    /**
+     * Device supply voltage dropped to near brownout levels.
+     */
+    UNDERVOLTAGE(TalonFX::getFault_Undervoltage, TalonFX::getStickyFault_Undervoltage),
+    /**
+     * Device boot while detecting the enable signal.
+     */
+    BOOT_DURING_ENABLE(TalonFX::getFault_BootDuringEnable, TalonFX::getStickyFault_BootDuringEnable),
+    /**
+     * An unlicensed feature is in use, device may not behave as expected.
+     */
+    UNLICENSED_FEATURE_IN_USE(TalonFX::getFault_UnlicensedFeatureInUse, TalonFX::getStickyFault_UnlicensedFeatureInUse),
+    /**
+     * Bridge was disabled most likely due to supply voltage dropping too low.
+     */
+    BRIDGE_BROWNOUT(TalonFX::getFault_BridgeBrownout, TalonFX::getStickyFault_BridgeBrownout),
+    /**
+     * The remote sensor has reset.
+     */
+    REMOTE_SENSOR_RESET(TalonFX::getFault_RemoteSensorReset, TalonFX::getStickyFault_RemoteSensorReset),
+    /**
+     * The remote Talon used for differential control is not present on CAN Bus.
+     */
+    MISSING_DIFFERENTIAL_FX(TalonFX::getFault_MissingDifferentialFX, TalonFX::getStickyFault_MissingDifferentialFX),
+    /**
+     * The remote sensor position has overflowed.
+     */
+    REMOTE_SENSOR_POS_OVERFLOW(TalonFX::getFault_RemoteSensorPosOverflow, TalonFX::getStickyFault_RemoteSensorPosOverflow),
+    /**
+     * Supply voltage exceeded the maximum voltage rating of the device.
+     */
+    OVER_SUPPLY_V(TalonFX::getFault_OverSupplyV, TalonFX::getStickyFault_OverSupplyV),
+    /**
+     * Supply voltage is unstable.
+     */
+    UNSTABLE_SUPPLY_V(TalonFX::getFault_UnstableSupplyV, TalonFX::getStickyFault_UnstableSupplyV),
+    /**
+     * Reverse limit switch has been asserted, output is set to neutral.
+     */
+    REVERSE_HARD_LIMIT(TalonFX::getFault_ReverseHardLimit, TalonFX::getStickyFault_ReverseHardLimit),
+    /**
+     * Forward limit switch has been asserted, output is set to neutral.
+     */
+    FORWARD_HARD_LIMIT(TalonFX::getFault_ForwardHardLimit, TalonFX::getStickyFault_ForwardHardLimit),
+    /**
+     * Reverse soft limit has been asserted, output is set to neutral.
+     */
+    REVERSE_SOFT_LIMIT(TalonFX::getFault_ReverseSoftLimit, TalonFX::getStickyFault_ReverseSoftLimit),
+    /**
+     * Forward soft limit has been asserted, output is set to neutral.
+     */
+    FORWARD_SOFT_LIMIT(TalonFX::getFault_ForwardSoftLimit, TalonFX::getStickyFault_ForwardSoftLimit),
+    /**
+     * The remote soft limit device is not present on CAN Bus.
+     */
+    MISSING_SOFT_LIMIT_REMOTE(TalonFX::getFault_MissingSoftLimitRemote, TalonFX::getStickyFault_MissingSoftLimitRemote),
+    /**
+     * The remote limit switch device is not present on CAN Bus.
+     */
+    MISSING_HARD_LIMIT_REMOTE(TalonFX::getFault_MissingHardLimitRemote, TalonFX::getStickyFault_MissingHardLimitRemote),
+    /**
+     * The remote sensor's data is no longer trusted.
+     */
+    REMOTE_SENSOR_DATA_INVALID(TalonFX::getFault_RemoteSensorDataInvalid, TalonFX::getStickyFault_RemoteSensorDataInvalid),
+    /**
+     * The remote sensor used for fusion has fallen out of sync with the local sensor.
+     */
+    FUSED_SENSOR_OUT_OF_SYNC(TalonFX::getFault_FusedSensorOutOfSync, TalonFX::getStickyFault_FusedSensorOutOfSync),
+    /**
+     * Stator current limit occurred.
+     */
+    STATOR_CURR_LIMIT(TalonFX::getFault_StatorCurrLimit, TalonFX::getStickyFault_StatorCurrLimit),
+    /**
+     * Supply current limit occurred.
+     */
+    SUPPLY_CURR_LIMIT(TalonFX::getFault_SupplyCurrLimit, TalonFX::getStickyFault_SupplyCurrLimit),
+    /**
+     * Using fused CANcoder feature while unlicensed, the device has fallen back to remote CANcoder.
+     */
+    USING_FUSED_CANCODER_WHILE_UNLICENSED(TalonFX::getFault_UsingFusedCANcoderWhileUnlicensed, TalonFX::getStickyFault_UsingFusedCANcoderWhileUnlicensed),
+    /**
+     * Static brake was momentarily disabled due to excessive braking current while disabled.
+     */
+    STATIC_BRAKE_DISABLED(TalonFX::getFault_StaticBrakeDisabled, TalonFX::getStickyFault_StaticBrakeDisabled);
+
+    private static final TalonFXFault[] kValues = values();
+
+    final Function<TalonFX, StatusSignal<Boolean>> active;
+    final Function<TalonFX, StatusSignal<Boolean>> sticky;
+
+    TalonFXFault(Function<TalonFX, StatusSignal<Boolean>> active, Function<TalonFX, StatusSignal<Boolean>> sticky) {
+        this.active = active;
+        this.sticky = sticky;
+    }
+
+    /**
+     * @return The bit of this fault in a fault set
+     */
+    public long bit() {
+        return 1L << ordinal();
+    }
+
+    /**
+     * @param faults A fault set
+     * @return If this fault is in the set
+     */
+    public boolean isIn(long faults) {
+        return (faults & bit()) != 0;
+    }
+
+    /**
+     * Builds a fault set to check against, like {@code mask(UNDERVOLTAGE, BRIDGE_BROWNOUT)}.
+     * @param faults The faults in the set
+     * @return The fault set
+     */
+    public static long mask(TalonFXFault... faults) {
+        long mask = 0;
+        for (TalonFXFault fault : faults) {
+            mask |= fault.bit();
+        }
+        return mask;
+    }
+
+    /**
+     * Describes what changed between two fault sets, like {@code "+UNDERVOLTAGE -STATOR_CURR_LIMIT"}.
+     * @param before The old fault set
+     * @param after The new fault set
+     * @return The faults that were added and removed, empty if nothing changed
+     */
+    public static String describeChange(long before, long after) {
+        StringBuilder description = new StringBuilder();
+        long changed = before ^ after;
+        for (TalonFXFault fault : kValues) {
+            if (!fault.isIn(changed)) continue;
+            if (description.length() > 0) description.append(' ');
+            description.append(fault.isIn(after) ? '+' : '-').append(fault.name());
+        }
+        return description.toString();
+    }
+
+}
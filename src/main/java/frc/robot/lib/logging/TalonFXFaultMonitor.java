@@ -0,0 +1,290 @@
+package frc.robot.lib.logging;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntToLongFunction;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.StatusSignal;
+import com.ctre.phoenix6.hardware.TalonFX;
+
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.StringLogEntry;
+import edu.wpi.first.wpilibj.TimedRobot;
+
+/**
+ * Watches every fault of many TalonFXs while only refreshing the two packed fault field signals of each one, instead
+ * of dozens of individual fault signals. When a device's fault field changes its individual fault signals are read
+ * once to decode it into a {@link TalonFXFault} set, and the change is logged.
+ * <p>
+ * Queries for the whole robot, like {@code anyActive(TalonFXFault.mask(UNDERVOLTAGE, BRIDGE_BROWNOUT))}, are a
+ * single bitwise and.
+ * <p>
+ * With {@link #useSignalRegistry()} the fault fields are refreshed by {@link PhoenixSignalRegistry} with every other
+ * signal on their bus and {@link #update()} only reads their cached values.
+ */
+public class TalonFXFaultMonitor {
+
+    private static final TalonFXFault[] kFaults = TalonFXFault.values();
+
+    private final List<String> names = new ArrayList<>();
+    // Null for devices added without a talon
+    private final List<TalonFX> talons = new ArrayList<>();
+    private BaseStatusSignal[] fieldSignals = new BaseStatusSignal[0];
+    private StatusSignal<Boolean>[][] activeSignals = newSignalArray(0);
+    private StatusSignal<Boolean>[][] stickySignals = newSignalArray(0);
+    private double[] activeFields = new double[0];
+    private double[] stickyFields = new double[0];
+    private int[] lastActiveField = new int[0];
+    private int[] lastStickyField = new int[0];
+    private long[] active = new long[0];
+    private long[] sticky = new long[0];
+    private long robotActive;
+    private long robotSticky;
+    private Consumer<String> log;
+    private boolean registered;
+    private final IntToLongFunction decodeActive = device -> decode(activeSignals[device]);
+    private final IntToLongFunction decodeSticky = device -> decode(stickySignals[device]);
+
+    /**
+     * Starts monitoring the faults of some TalonFXs. Don't call this in a loop.
+     * @param newTalons The talons to monitor
+     * @return This monitor for chaining
+     */
+    public synchronized TalonFXFaultMonitor addTalons(TalonFX... newTalons) {
+        for (TalonFX talon : newTalons) {
+            int device = addDevice("TalonFX " + talon.getDeviceID());
+            talons.set(device, talon);
+            fieldSignals[device * 2] = talon.getFaultField();
+            fieldSignals[device * 2 + 1] = talon.getStickyFaultField();
+            activeSignals[device] = signalsOf(talon, false);
+            stickySignals[device] = signalsOf(talon, true);
+            if (registered) registerFields(device);
+        }
+        return this;
+    }
+
+    /**
+     * Grows every array for a new device without any signals.
+     * @return The index of the device
+     */
+    synchronized int addDevice(String name) {
+        int device = names.size();
+        int length = device + 1;
+        fieldSignals = Arrays.copyOf(fieldSignals, length * 2);
+        activeSignals = Arrays.copyOf(activeSignals, length);
+        stickySignals = Arrays.copyOf(stickySignals, length);
+        activeFields = Arrays.copyOf(activeFields, length);
+        stickyFields = Arrays.copyOf(stickyFields, length);
+        lastActiveField = Arrays.copyOf(lastActiveField, length);
+        lastStickyField = Arrays.copyOf(lastStickyField, length);
+        active = Arrays.copyOf(active, length);
+        sticky = Arrays.copyOf(sticky, length);
+        names.add(name);
+        talons.add(null);
+        return device;
+    }
+
+    /**
+     * Registers the fault fields of every talon, including ones added later, with {@link PhoenixSignalRegistry} so
+     * they're refreshed with the rest of their bus instead of by {@link #update()}. Call {@link #update()} after the
+     * registry refreshes, like from {@link PhoenixSignalRegistry#addRefreshListener(Runnable)}.
+     * @return This monitor for chaining
+     */
+    public synchronized TalonFXFaultMonitor useSignalRegistry() {
+        if (!registered) {
+            registered = true;
+            for (int device = 0; device < talons.size(); device++) {
+                registerFields(device);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Logs every fault change to a DataLog.
+     * @param dataLog The log to write to
+     * @return This monitor for chaining
+     */
+    public TalonFXFaultMonitor logTo(DataLog dataLog) {
+        return logTo(new StringLogEntry(dataLog, "/TalonFX Faults")::append);
+    }
+
+    /**
+     * Sends every fault change somewhere.
+     * @param changes Where to send each change
+     * @return This monitor for chaining
+     */
+    synchronized TalonFXFaultMonitor logTo(Consumer<String> changes) {
+        log = changes;
+        return this;
+    }
+
+    /**
+     * Updates the monitor every loop.
+     * @param robot The robot to add the callback to
+     */
+    public void updatePeriodically(TimedRobot robot) {
+        robot.addPeriodic(this::update, TimedRobot.kDefaultPeriod);
+    }
+
+    /**
+     * Refreshes the fault fields, unless the registry refreshes them, and decodes any that changed.
+     */
+    public synchronized void update() {
+        if (fieldSignals.length == 0) return;
+        if (!registered) BaseStatusSignal.refreshAll(fieldSignals);
+        for (int device = 0; device < active.length; device++) {
+            activeFields[device] = fieldSignals[device * 2].getValueAsDouble();
+            stickyFields[device] = fieldSignals[device * 2 + 1].getValueAsDouble();
+        }
+        update(activeFields, stickyFields, decodeActive, decodeSticky);
+    }
+
+    /**
+     * Decodes any fault fields that changed.
+     * @param activeFieldValues The raw value of every device's active fault field
+     * @param stickyFieldValues The raw value of every device's sticky fault field
+     * @param decodeActive Reads a device's active faults as a fault set, only called when its field changed
+     * @param decodeSticky Reads a device's sticky faults as a fault set, only called when its field changed
+     */
+    synchronized void update(double[] activeFieldValues, double[] stickyFieldValues, IntToLongFunction decodeActive,
+            IntToLongFunction decodeSticky) {
+        long newRobotActive = 0;
+        long newRobotSticky = 0;
+        for (int device = 0; device < active.length; device++) {
+            // Through long so fields with the top bit set wrap instead of saturating
+            int activeField = (int) (long) activeFieldValues[device];
+            int stickyField = (int) (long) stickyFieldValues[device];
+            // Decode again if the field has a fault but nothing decoded, the individual signals may have lagged the field
+            if (activeField != lastActiveField[device] || (activeField != 0 && active[device] == 0)) {
+                lastActiveField[device] = activeField;
+                active[device] = transition(device, "Active", active[device], activeField == 0 ? 0 : decodeActive.applyAsLong(device));
+            }
+            if (stickyField != lastStickyField[device] || (stickyField != 0 && sticky[device] == 0)) {
+                lastStickyField[device] = stickyField;
+                sticky[device] = transition(device, "Sticky", sticky[device], stickyField == 0 ? 0 : decodeSticky.applyAsLong(device));
+            }
+            newRobotActive |= active[device];
+            newRobotSticky |= sticky[device];
+        }
+        robotActive = newRobotActive;
+        robotSticky = newRobotSticky;
+    }
+
+    /**
+     * @param talon A monitored talon
+     * @return The talon's active faults
+     */
+    public synchronized long getActiveFaults(TalonFX talon) {
+        return active[indexOf(talon)];
+    }
+
+    /**
+     * @param talon A monitored talon
+     * @return The talon's sticky faults
+     */
+    public synchronized long getStickyFaults(TalonFX talon) {
+        return sticky[indexOf(talon)];
+    }
+
+    /**
+     * @return Every fault that's active on at least one talon
+     */
+    public synchronized long getRobotActiveFaults() {
+        return robotActive;
+    }
+
+    /**
+     * @return Every fault that's sticky on at least one talon
+     */
+    public synchronized long getRobotStickyFaults() {
+        return robotSticky;
+    }
+
+    /**
+     * @param faults The faults to check for, see {@link TalonFXFault#mask(TalonFXFault...)}
+     * @return If any talon has any of the faults active
+     */
+    public synchronized boolean anyActive(long faults) {
+        return (robotActive & faults) != 0;
+    }
+
+    /**
+     * @param faults The faults to check for, see {@link TalonFXFault#mask(TalonFXFault...)}
+     * @return If any talon has any of the faults sticky
+     */
+    public synchronized boolean anySticky(long faults) {
+        return (robotSticky & faults) != 0;
+    }
+
+    /**
+     * @param faults The faults to check for
+     * @return Every talon that has any of the faults active
+     */
+    public synchronized List<TalonFX> getTalonsWithActive(long faults) {
+        List<TalonFX> result = new ArrayList<>();
+        for (int device : getDevicesWithActive(faults)) {
+            if (talons.get(device) != null) result.add(talons.get(device));
+        }
+        return result;
+    }
+
+    /**
+     * @param faults The faults to check for
+     * @return The index of every device that has any of the faults active
+     */
+    synchronized int[] getDevicesWithActive(long faults) {
+        int count = 0;
+        int[] result = new int[active.length];
+        for (int device = 0; device < active.length; device++) {
+            if ((active[device] & faults) != 0) result[count++] = device;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private void registerFields(int device) {
+        TalonFX talon = talons.get(device);
+        PhoenixSignalRegistry.addSignals("TalonFX " + talon.getDeviceID() + " Faults", talon,
+            fieldSignals[device * 2], fieldSignals[device * 2 + 1]);
+    }
+
+    private long transition(int device, String kind, long before, long after) {
+        if (before != after && log != null) {
+            log.accept(names.get(device) + " " + kind + ": " + TalonFXFault.describeChange(before, after));
+        }
+        return after;
+    }
+
+    private static long decode(StatusSignal<Boolean>[] signals) {
+        BaseStatusSignal.refreshAll(signals);
+        long faults = 0;
+        for (int i = 0; i < signals.length; i++) {
+            if (signals[i].getValue()) faults |= kFaults[i].bit();
+        }
+        return faults;
+    }
+
+    private int indexOf(TalonFX talon) {
+        int index = talons.indexOf(talon);
+        if (index < 0) throw new IllegalArgumentException("TalonFX " + talon.getDeviceID() + " isn't being monitored");
+        return index;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static StatusSignal<Boolean>[] signalsOf(TalonFX talon, boolean sticky) {
+        StatusSignal<Boolean>[] signals = new StatusSignal[kFaults.length];
+        for (int i = 0; i < kFaults.length; i++) {
+            signals[i] = (sticky ? kFaults[i].sticky : kFaults[i].active).apply(talon);
+        }
+        return signals;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static StatusSignal<Boolean>[][] newSignalArray(int length) {
+        return new StatusSignal[length][];
+    }
+
+}
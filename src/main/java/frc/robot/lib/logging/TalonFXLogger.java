@@ -7,94 +7,125 @@ import com.ctre.phoenix6.BaseStatusSignal;
 import com.ctre.phoenix6.hardware.TalonFX;
 
 import edu.wpi.first.epilogue.CustomLoggerFor;
-import edu.wpi.first.epilogue.logging.ClassSpecificLogger;
 import edu.wpi.first.epilogue.logging.EpilogueBackend;
+import edu.wpi.first.epilogue.logging.NullBackend;
 import edu.wpi.first.units.measure.Time;
+import edu.wpi.first.util.datalog.DataLog;
 import edu.wpi.first.wpilibj.TimedRobot;
+import frc.robot.lib.util.JitWarmup;
+import frc.robot.lib.util.PeriodicScheduler;
 
 @CustomLoggerFor(TalonFX.class)
-public class TalonFXLogger extends ClassSpecificLogger<TalonFX> {
+public class TalonFXLogger extends PhoenixDeviceLogger<TalonFX> {
 
-    private static List<BaseStatusSignal> allSignals = new ArrayList<>();
-    private static List<TalonFX> trackedTalons = new ArrayList<>();
+    private static final DeviceDescriptor<TalonFX> kDescriptor = new DeviceDescriptor<TalonFX>("TalonFX")
+        .addEnum("Bridge Output", talon -> talon.getBridgeOutput(false))
+        .addEnum("Control Mode", talon -> talon.getControlMode(false))
+        .addEnum("Rotor Polarity", talon -> talon.getAppliedRotorPolarity(false))
+        .addEnum("Fwd Limit Switch", talon -> talon.getForwardLimit(false))
+        .addEnum("Rev Limit Switch", talon -> talon.getReverseLimit(false))
+        .addBoolean("Fwd Soft Limit Switch", talon -> talon.getFault_ForwardSoftLimit(false))
+        .addBoolean("Rev Soft Limit Switch", talon -> talon.getFault_ReverseSoftLimit(false))
+        .addDouble("Position (Rots)", talon -> talon.getPosition(false))
+        .addDouble("Velocity (Rots\\s)", talon -> talon.getVelocity(false))
+        .addDouble("Acceleration (Rots\\s^2)", talon -> talon.getAcceleration(false))
+        .addDouble("Closed Loop Reference", talon -> talon.getClosedLoopReference(false))
+        .addDouble("Closed Loop Reference Slope", talon -> talon.getClosedLoopReferenceSlope(false))
+        .addDouble("Closed Loop Error", talon -> talon.getClosedLoopError(false))
+        .addInteger("Closed Loop Slot", talon -> talon.getClosedLoopSlot(false))
+        .addDouble("Supply Voltage (V)", talon -> talon.getSupplyVoltage(false))
+        .addDouble("Motor Voltage (V)", talon -> talon.getMotorVoltage(false))
+        .addDouble("Supply Current (A)", talon -> talon.getSupplyCurrent(false))
+        .addDouble("Torque Current (A)", talon -> talon.getTorqueCurrent(false))
+        .addDouble("Device Temperature (C)", talon -> talon.getDeviceTemp(false))
+        .addInteger("Firmware Version", talon -> talon.getVersion(false));
+
+    private static final List<TalonFX> trackedTalons = new ArrayList<>();
+    private static volatile TalonFXFaultMonitor faultMonitor;
 
     public TalonFXLogger() {
-        super(TalonFX.class);
+        super(TalonFX.class, kDescriptor);
     }
 
     @Override
     protected void update(EpilogueBackend dataLogger, TalonFX talon) {
-        if (!trackedTalons.contains(talon)) {
-            addTalonSignals(talon);
+        super.update(dataLogger, talon);
+        TalonFXFaultMonitor faults = faultMonitor;
+        if (faults != null) dataLogger.log("Active Faults", faults.getActiveFaults(talon));
+    }
+
+    @Override
+    protected void onRegister(TalonFX talon) {
+        synchronized (TalonFXLogger.class) {
             trackedTalons.add(talon);
+            if (faultMonitor != null) faultMonitor.addTalons(talon);
         }
-        dataLogger.log("Device ID", talon.getDeviceID());
-        dataLogger.log("Has Reset Occurred", talon.hasResetOccurred());
-        dataLogger.log("Connected", talon.isConnected());
-        dataLogger.log("Bridge Output", talon.getBridgeOutput(false).getValue());
-        dataLogger.log("Control Mode", talon.getControlMode(false).getValue());
-        dataLogger.log("Rotor Polarity", talon.getAppliedRotorPolarity(false).getValue());
-        dataLogger.log("Fwd Limit Switch", talon.getForwardLimit(false).getValue());
-        dataLogger.log("Rev Limit Switch", talon.getReverseLimit(false).getValue());
-        dataLogger.log("Fwd Soft Limit Switch", talon.getFault_ForwardSoftLimit(false).getValue());
-        dataLogger.log("Rev Soft Limit Switch", talon.getFault_ReverseSoftLimit(false).getValue());
-        dataLogger.log("Position (Rots)", talon.getPosition(false).getValueAsDouble());
-        dataLogger.log("Velocity (Rots\\s)", talon.getVelocity(false).getValueAsDouble());
-        dataLogger.log("Acceleration (Rots\\s^2)", talon.getAcceleration(false).getValueAsDouble());
-        dataLogger.log("Closed Loop Reference", talon.getClosedLoopReference(false).getValueAsDouble());
-        dataLogger.log("Closed Loop Reference Slope", talon.getClosedLoopReferenceSlope(false).getValueAsDouble());
-        dataLogger.log("Closed Loop Error", talon.getClosedLoopError(false).getValueAsDouble());
-        dataLogger.log("Closed Loop Slot", talon.getClosedLoopSlot(false).getValue());
-        dataLogger.log("Supply Voltage (V)", talon.getSupplyVoltage(false).getValueAsDouble());
-        dataLogger.log("Motor Voltage (V)", talon.getMotorVoltage(false).getValueAsDouble());
-        dataLogger.log("Supply Current (A)", talon.getSupplyCurrent(false).getValueAsDouble());
-        dataLogger.log("Torque Current (A)", talon.getTorqueCurrent(false).getValueAsDouble());
-        dataLogger.log("Device Temperature (C)", talon.getDeviceTemp(false).getValueAsDouble());
-        dataLogger.log("Firmware Version", talon.getVersion(false).getValue());
     }
 
     /**
      * This must be called for your TalonFXs to be logged properly.
-     * Refreshes all of the TalonFX at once, periodically determined by the period and offset provided.
+     * Refreshes every logged Phoenix device at once, not just TalonFXs, periodically determined by the period and offset provided.
+     * The same as {@link PhoenixSignalRegistry#refreshPeriodically(TimedRobot, Time, Time)}.
      * @param robot The robot to add the callback to
      * @param period The rate at which the TalonFXs should be refreshed
      * @param offset The offset from the main loop at which this refresh should occur
      */
     public static void refreshAllLoggedTalonFX(TimedRobot robot, Time period, Time offset) {
-        robot.addPeriodic(() -> {
-            if (allSignals.size() > 0) {
-                BaseStatusSignal.refreshAll(allSignals.toArray(new BaseStatusSignal[allSignals.size()]));
-            }
-        }, period, offset);
+        PhoenixSignalRegistry.refreshPeriodically(robot, period, offset);
+    }
+
+    /**
+     * Refreshes every logged Phoenix device on the scheduler's telemetry thread instead of the main robot thread.
+     * Use this or {@link #refreshAllLoggedTalonFX(TimedRobot, Time, Time)}, not both.
+     * @param scheduler The scheduler to run on
+     * @param period The rate at which the TalonFXs should be refreshed
+     */
+    public static void refreshAllLoggedTalonFX(PeriodicScheduler scheduler, Time period) {
+        PhoenixSignalRegistry.refreshPeriodically(scheduler, period);
     }
 
     /**
-     * Adds a talon's signals to be refreshed on a periodic loop since this logger doesn't refresh signals when directly logging them
+     * Monitors the age, jitter and missed updates of every logged device's signals after each refresh, publishing to the
+     * "CAN Signals" table. Call this before any devices are logged. The same as {@link PhoenixSignalRegistry#enableSignalMonitor()}.
+     * @return The monitor
      */
-    private static void addTalonSignals(TalonFX talon) {
-        allSignals.addAll(List.of(
-            talon.getBridgeOutput(),
-            talon.getControlMode(),
-            talon.getAppliedRotorPolarity(),
-            talon.getForwardLimit(),
-            talon.getReverseLimit(),
-            talon.getFault_ForwardSoftLimit(),
-            talon.getFault_ReverseSoftLimit(),
-            talon.getPosition(),
-            talon.getVelocity(),
-            talon.getAcceleration(),
-            talon.getClosedLoopReference(),
-            talon.getClosedLoopReferenceSlope(),
-            talon.getClosedLoopError(),
-            talon.getClosedLoopSlot(),
-            talon.getSupplyVoltage(),
-            talon.getMotorVoltage(),
-            talon.getSupplyCurrent(),
-            talon.getTorqueCurrent(),
-            talon.getDeviceTemp(),
-            talon.getVersion()
-        ));
+    public static CANSignalMonitor enableSignalMonitor() {
+        return PhoenixSignalRegistry.enableSignalMonitor();
     }
 
-}
+    /**
+     * Watches the faults of every logged TalonFX after each refresh, logging each change to the DataLog.
+     * @param dataLog The log to write fault changes to
+     * @return The monitor, which can be used to check for faults across the whole robot
+     */
+    public static synchronized TalonFXFaultMonitor enableFaultMonitor(DataLog dataLog) {
+        if (faultMonitor == null) {
+            faultMonitor = new TalonFXFaultMonitor().logTo(dataLog).useSignalRegistry()
+                .addTalons(trackedTalons.toArray(new TalonFX[0]));
+            PhoenixSignalRegistry.addRefreshListener(faultMonitor::update);
+        }
+        return faultMonitor;
+    }
+
+    /**
+     * Registers logging with a warm-up so it's compiled before the match. The talons' signals are logged to a backend
+     * that discards everything. Only cached signal values are read, the talons aren't registered and their reset flags
+     * aren't read, so the real logger still sees every reset.
+     * @param warmup The warm-up to add the task to
+     * @param talons The talons to log, usually the robot's real ones
+     */
+    public static void addWarmupTask(JitWarmup warmup, TalonFX... talons) {
+        if (talons.length == 0) return;
+        EpilogueBackend backend = new NullBackend();
+        BaseStatusSignal[][] signals = new BaseStatusSignal[talons.length][];
+        for (int i = 0; i < talons.length; i++) {
+            signals[i] = kDescriptor.signalsOf(talons[i]);
+        }
+        warmup.add("TalonFXLogger", i -> {
+            BaseStatusSignal[] talonSignals = signals[i % signals.length];
+            kDescriptor.log(backend, talonSignals);
+            return talonSignals[0].getValueAsDouble();
+        });
+    }
 
+}
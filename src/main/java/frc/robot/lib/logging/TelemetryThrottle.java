@@ -0,0 +1,522 @@
+package frc.robot.lib.logging;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.DoubleSupplier;
+
+import edu.wpi.first.networktables.BooleanPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.StringPublisher;
+import edu.wpi.first.util.datalog.BooleanLogEntry;
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import edu.wpi.first.util.datalog.IntegerLogEntry;
+import edu.wpi.first.util.datalog.StringLogEntry;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.Timer;
+
+/**
+ * Keeps NetworkTables telemetry under a bytes per second budget so the dashboard link and the NT thread only carry
+ * what the driver station needs. Each topic has a priority and a max rate, and every value sent is paid for from a
+ * token bucket shared by all the topics.
+ * <p>
+ * Critical topics are always sent. Normal topics wait until the budget has room. Low priority topics stop being sent
+ * before the budget runs out, leaving room for the others, and their values are written only to the DataLog while
+ * they're held back. Values that are held back or limited by their topic's rate are sent by {@link #update()} once
+ * there's room, so the dashboard always ends up with the latest value.
+ * <p>
+ * Values equal to the last one set aren't sent again, since NetworkTables wouldn't send them either.
+ * <p>
+ * Epilogue's logging can be sent through a throttle with {@link ThrottledEpilogueBackend}.
+ */
+public class TelemetryThrottle {
+
+    /**
+     * How important a topic is to the driver station.
+     */
+    public enum Priority {
+        /**
+         * Always sent, like whether the robot is enabled.
+         */
+        CRITICAL,
+        /**
+         * Sent when the budget has room.
+         */
+        NORMAL,
+        /**
+         * Only sent when the budget has plenty of room, otherwise written to the DataLog.
+         */
+        LOW
+    }
+
+    /**
+     * What happened to a value offered to the throttle.
+     */
+    enum Result {
+        SENT,
+        RATE_LIMITED,
+        DEFERRED,
+        LOGGED
+    }
+
+    /**
+     * Roughly how many bytes NetworkTables sends for each value on top of the value itself.
+     */
+    static final int kMessageOverheadBytes = 12;
+    /**
+     * How many seconds of budget can be saved up for a burst.
+     */
+    private static final double kBurstSeconds = 0.1;
+    /**
+     * How much of the burst low priority topics leave for the others.
+     */
+    private static final double kLowPriorityReserve = 0.5;
+
+    /**
+     * A throttled topic and its statistics.
+     */
+    public abstract static class Topic {
+        private final String name;
+        private final Priority priority;
+        private final double minInterval;
+        private double lastSent = Double.NEGATIVE_INFINITY;
+        private boolean pending;
+        private boolean appended;
+        private long sent;
+        private long rateLimited;
+        private long deferred;
+        private long logged;
+
+        Topic(String name, Priority priority, double maxRateHz) {
+            if (!(maxRateHz > 0)) throw new IllegalArgumentException("Max rate must be positive, got: " + maxRateHz);
+            this.name = name;
+            this.priority = priority;
+            this.minInterval = 1 / maxRateHz;
+        }
+
+        /**
+         * @return The size of the latest value in bytes
+         */
+        abstract int size();
+
+        /**
+         * Sends the latest value to NetworkTables.
+         */
+        abstract void publish();
+
+        /**
+         * Writes the latest value to the DataLog.
+         */
+        abstract void append(DataLog log);
+
+        /**
+         * @return The name of the topic
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return The priority of the topic
+         */
+        public Priority getPriority() {
+            return priority;
+        }
+
+        /**
+         * @return How many values were sent to NetworkTables
+         */
+        public long getSentCount() {
+            return sent;
+        }
+
+        /**
+         * @return How many values came faster than the topic's max rate
+         */
+        public long getRateLimitedCount() {
+            return rateLimited;
+        }
+
+        /**
+         * @return How many values of a normal topic waited for room in the budget
+         */
+        public long getDeferredCount() {
+            return deferred;
+        }
+
+        /**
+         * @return How many values of a low priority topic were held back by the budget and written to the DataLog
+         */
+        public long getLoggedCount() {
+            return logged;
+        }
+    }
+
+    /**
+     * A throttled double topic.
+     */
+    public final class ThrottledDouble extends Topic {
+        private final DoublePublisher publisher;
+        private DoubleLogEntry entry;
+        private double value;
+        private boolean hasValue;
+
+        private ThrottledDouble(String name, Priority priority, double maxRateHz) {
+            super(name, priority, maxRateHz);
+            publisher = NetworkTableInstance.getDefault().getDoubleTopic(name).publish();
+        }
+
+        /**
+         * Sets the value of the topic, it's sent if the throttle allows.
+         * @param value The new value
+         */
+        public void set(double value) {
+            synchronized (TelemetryThrottle.this) {
+                if (hasValue && value == this.value) return;
+                this.value = value;
+                hasValue = true;
+                offer(this);
+            }
+        }
+
+        @Override
+        int size() {
+            return Double.BYTES;
+        }
+
+        @Override
+        void publish() {
+            publisher.set(value);
+        }
+
+        @Override
+        void append(DataLog log) {
+            if (entry == null) entry = new DoubleLogEntry(log, getName());
+            entry.append(value);
+        }
+    }
+
+    /**
+     * A throttled integer topic.
+     */
+    public final class ThrottledInteger extends Topic {
+        private final IntegerPublisher publisher;
+        private IntegerLogEntry entry;
+        private long value;
+        private boolean hasValue;
+
+        private ThrottledInteger(String name, Priority priority, double maxRateHz) {
+            super(name, priority, maxRateHz);
+            publisher = NetworkTableInstance.getDefault().getIntegerTopic(name).publish();
+        }
+
+        /**
+         * Sets the value of the topic, it's sent if the throttle allows.
+         * @param value The new value
+         */
+        public void set(long value) {
+            synchronized (TelemetryThrottle.this) {
+                if (hasValue && value == this.value) return;
+                this.value = value;
+                hasValue = true;
+                offer(this);
+            }
+        }
+
+        @Override
+        int size() {
+            return Long.BYTES;
+        }
+
+        @Override
+        void publish() {
+            publisher.set(value);
+        }
+
+        @Override
+        void append(DataLog log) {
+            if (entry == null) entry = new IntegerLogEntry(log, getName());
+            entry.append(value);
+        }
+    }
+
+    /**
+     * A throttled boolean topic.
+     */
+    public final class ThrottledBoolean extends Topic {
+        private final BooleanPublisher publisher;
+        private BooleanLogEntry entry;
+        private boolean value;
+        private boolean hasValue;
+
+        private ThrottledBoolean(String name, Priority priority, double maxRateHz) {
+            super(name, priority, maxRateHz);
+            publisher = NetworkTableInstance.getDefault().getBooleanTopic(name).publish();
+        }
+
+        /**
+         * Sets the value of the topic, it's sent if the throttle allows.
+         * @param value The new value
+         */
+        public void set(boolean value) {
+            synchronized (TelemetryThrottle.this) {
+                if (hasValue && value == this.value) return;
+                this.value = value;
+                hasValue = true;
+                offer(this);
+            }
+        }
+
+        @Override
+        int size() {
+            return 1;
+        }
+
+        @Override
+        void publish() {
+            publisher.set(value);
+        }
+
+        @Override
+        void append(DataLog log) {
+            if (entry == null) entry = new BooleanLogEntry(log, getName());
+            entry.append(value);
+        }
+    }
+
+    /**
+     * A throttled string topic.
+     */
+    public final class ThrottledString extends Topic {
+        private final StringPublisher publisher;
+        private StringLogEntry entry;
+        private String value;
+
+        private ThrottledString(String name, Priority priority, double maxRateHz) {
+            super(name, priority, maxRateHz);
+            publisher = NetworkTableInstance.getDefault().getStringTopic(name).publish();
+        }
+
+        /**
+         * Sets the value of the topic, it's sent if the throttle allows.
+         * @param value The new value
+         */
+        public void set(String value) {
+            synchronized (TelemetryThrottle.this) {
+                if (value.equals(this.value)) return;
+                this.value = value;
+                offer(this);
+            }
+        }
+
+        @Override
+        int size() {
+            return value.length();
+        }
+
+        @Override
+        void publish() {
+            publisher.set(value);
+        }
+
+        @Override
+        void append(DataLog log) {
+            if (entry == null) entry = new StringLogEntry(log, getName());
+            entry.append(value);
+        }
+    }
+
+    private final double bytesPerSecond;
+    private final double capacity;
+    private final DoubleSupplier clock;
+    // Kept in priority order so update sends the most important values first
+    private final List<Topic> topics = new ArrayList<>();
+    private double tokens;
+    private double lastRefill = Double.NaN;
+    private long bytesSent;
+    private DataLog log;
+
+    /**
+     * Creates a new throttle with no topics.
+     * @param bytesPerSecond The most bytes per second to send over NetworkTables
+     */
+    public TelemetryThrottle(double bytesPerSecond) {
+        this(bytesPerSecond, Timer::getFPGATimestamp);
+    }
+
+    TelemetryThrottle(double bytesPerSecond, DoubleSupplier clock) {
+        if (!(bytesPerSecond > 0)) throw new IllegalArgumentException("Bytes per second must be positive, got: " + bytesPerSecond);
+        this.bytesPerSecond = bytesPerSecond;
+        this.capacity = bytesPerSecond * kBurstSeconds;
+        this.clock = clock;
+        tokens = capacity;
+    }
+
+    /**
+     * Writes the values of low priority topics to a DataLog while they're held back.
+     * @param dataLog The log to write to
+     * @return This throttle for chaining
+     */
+    public synchronized TelemetryThrottle logTo(DataLog dataLog) {
+        log = dataLog;
+        return this;
+    }
+
+    /**
+     * Creates a throttled double topic. Don't call this in a loop as it creates an NT publisher.
+     * @param name The full name of the topic
+     * @param priority How important the topic is
+     * @param maxRateHz The most times per second the topic is sent
+     * @return The topic
+     */
+    public ThrottledDouble addDouble(String name, Priority priority, double maxRateHz) {
+        return add(new ThrottledDouble(name, priority, maxRateHz));
+    }
+
+    /**
+     * Creates a throttled integer topic. Don't call this in a loop as it creates an NT publisher.
+     * @param name The full name of the topic
+     * @param priority How important the topic is
+     * @param maxRateHz The most times per second the topic is sent
+     * @return The topic
+     */
+    public ThrottledInteger addInteger(String name, Priority priority, double maxRateHz) {
+        return add(new ThrottledInteger(name, priority, maxRateHz));
+    }
+
+    /**
+     * Creates a throttled boolean topic. Don't call this in a loop as it creates an NT publisher.
+     * @param name The full name of the topic
+     * @param priority How important the topic is
+     * @param maxRateHz The most times per second the topic is sent
+     * @return The topic
+     */
+    public ThrottledBoolean addBoolean(String name, Priority priority, double maxRateHz) {
+        return add(new ThrottledBoolean(name, priority, maxRateHz));
+    }
+
+    /**
+     * Creates a throttled string topic. Don't call this in a loop as it creates an NT publisher.
+     * @param name The full name of the topic
+     * @param priority How important the topic is
+     * @param maxRateHz The most times per second the topic is sent
+     * @return The topic
+     */
+    public ThrottledString addString(String name, Priority priority, double maxRateHz) {
+        return add(new ThrottledString(name, priority, maxRateHz));
+    }
+
+    /**
+     * Sends held back values every loop.
+     * @param robot The robot to add the callback to
+     */
+    public void updatePeriodically(TimedRobot robot) {
+        robot.addPeriodic(this::update, TimedRobot.kDefaultPeriod);
+    }
+
+    /**
+     * Sends the latest value of every topic that was held back, most important first, as far as the budget and the
+     * topics' rates allow.
+     */
+    public synchronized void update() {
+        double now = clock.getAsDouble();
+        for (int i = 0; i < topics.size(); i++) {
+            Topic topic = topics.get(i);
+            if (topic.pending) offer(topic, now, true);
+        }
+    }
+
+    /**
+     * @return Every topic in priority order, for reading their statistics
+     */
+    public synchronized List<Topic> getTopics() {
+        return Collections.unmodifiableList(new ArrayList<>(topics));
+    }
+
+    /**
+     * @return The total bytes sent, including an estimate of the NetworkTables overhead
+     */
+    public synchronized long getBytesSent() {
+        return bytesSent;
+    }
+
+    /**
+     * @return The bytes that can be sent right now, negative if critical topics have overdrawn the budget
+     */
+    public synchronized double getAvailableBytes() {
+        refill(clock.getAsDouble());
+        return tokens;
+    }
+
+    /**
+     * @return The most bytes per second sent over NetworkTables
+     */
+    public double getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    synchronized <T extends Topic> T add(T topic) {
+        int index = topics.size();
+        while (index > 0 && topics.get(index - 1).priority.compareTo(topic.getPriority()) > 0) {
+            index--;
+        }
+        topics.add(index, topic);
+        return topic;
+    }
+
+    synchronized Result offer(Topic topic) {
+        return offer(topic, clock.getAsDouble(), false);
+    }
+
+    /**
+     * Sends a topic's latest value if its rate and the budget allow.
+     * @param retry If the value was already counted when it was first held back
+     */
+    private Result offer(Topic topic, double now, boolean retry) {
+        if (!retry) topic.appended = false;
+        if (now - topic.lastSent < topic.minInterval) {
+            if (!retry) topic.rateLimited++;
+            topic.pending = true;
+            return Result.RATE_LIMITED;
+        }
+        refill(now);
+        int bytes = topic.size() + kMessageOverheadBytes;
+        if (topic.priority == Priority.CRITICAL || tokens - bytes >= floorOf(topic.priority)) {
+            // Critical topics can overdraw, which holds back the others until the budget recovers
+            tokens = Math.max(tokens - bytes, -capacity);
+            topic.publish();
+            topic.lastSent = now;
+            topic.pending = false;
+            topic.sent++;
+            bytesSent += bytes;
+            return Result.SENT;
+        }
+        topic.pending = true;
+        if (topic.priority == Priority.LOW) {
+            // A value held back by its rate is logged the first time the budget holds it back too
+            if (!topic.appended) {
+                topic.appended = true;
+                topic.logged++;
+                if (log != null) topic.append(log);
+            }
+            return Result.LOGGED;
+        }
+        if (!retry) topic.deferred++;
+        return Result.DEFERRED;
+    }
+
+    private double floorOf(Priority priority) {
+        return priority == Priority.LOW ? capacity * kLowPriorityReserve : 0;
+    }
+
+    private void refill(double now) {
+        if (!Double.isNaN(lastRefill) && now > lastRefill) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * bytesPerSecond);
+        }
+        if (Double.isNaN(lastRefill) || now > lastRefill) lastRefill = now;
+    }
+
+}
@@ -0,0 +1,204 @@
+package frc.robot.lib.logging;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.wpi.first.epilogue.logging.EpilogueBackend;
+import edu.wpi.first.util.struct.Struct;
+import frc.robot.lib.logging.TelemetryThrottle.Priority;
+import frc.robot.lib.logging.TelemetryThrottle.ThrottledBoolean;
+import frc.robot.lib.logging.TelemetryThrottle.ThrottledDouble;
+import frc.robot.lib.logging.TelemetryThrottle.ThrottledInteger;
+import frc.robot.lib.logging.TelemetryThrottle.ThrottledString;
+import frc.robot.lib.logging.TelemetryThrottle.Topic;
+
+/**
+ * Sends Epilogue's logging through a {@link TelemetryThrottle} instead of straight to NetworkTables, so logged fields
+ * like every {@link TalonFXLogger} signal share the same budget as the rest of the telemetry. Use it as the backend
+ * in the Epilogue config:
+ * <pre>{@code
+ * Epilogue.configure(config -> config.backend = new ThrottledEpilogueBackend(throttle,
+ *     new FileBackend(DataLogManager.getLog()), Priority.LOW, 5)
+ *     .withRule("/Robot/drivetrain", Priority.NORMAL, 25));
+ * }</pre>
+ * Each topic gets the priority and max rate of the longest rule its name starts with, or the defaults. Numbers,
+ * booleans, strings and enums are throttled. Arrays and structs are passed to the fallback backend, which should write
+ * to the DataLog. Held back low priority values are only written to the DataLog if the throttle has one, with
+ * {@link TelemetryThrottle#logTo}.
+ * <p>
+ * Topics are created the first time they're logged, after that logging a value is a map lookup.
+ */
+public class ThrottledEpilogueBackend implements EpilogueBackend {
+
+    private enum Kind {
+        DOUBLE,
+        INTEGER,
+        BOOLEAN,
+        STRING
+    }
+
+    private record Rule(String prefix, Priority priority, double maxRateHz) {}
+
+    private final TelemetryThrottle throttle;
+    private final EpilogueBackend fallback;
+    // Shared with every nested backend
+    private final List<Rule> rules;
+    private final String prefix;
+    private final Map<String, Topic> topics = new HashMap<>();
+    private final Map<String, ThrottledEpilogueBackend> nested = new HashMap<>();
+
+    /**
+     * Creates a new backend where every topic has the same priority and max rate until rules are added.
+     * @param throttle The throttle to send values through, it must be updated periodically
+     * @param fallback The backend for values that can't be throttled, like a FileBackend
+     * @param priority The priority of topics that don't match a rule
+     * @param maxRateHz The max rate of topics that don't match a rule
+     */
+    public ThrottledEpilogueBackend(TelemetryThrottle throttle, EpilogueBackend fallback, Priority priority, double maxRateHz) {
+        this(throttle, fallback, new ArrayList<>(), "/");
+        withRule("", priority, maxRateHz);
+    }
+
+    private ThrottledEpilogueBackend(TelemetryThrottle throttle, EpilogueBackend fallback, List<Rule> rules, String prefix) {
+        this.throttle = throttle;
+        this.fallback = fallback;
+        this.rules = rules;
+        this.prefix = prefix;
+    }
+
+    /**
+     * Sets the priority and max rate of every topic whose full name starts with a prefix. Only applies to topics logged
+     * after it's added, so add rules before Epilogue starts.
+     * @param topicPrefix The start of the topic names, like "/Robot/shooter"
+     * @param priority How important the topics are
+     * @param maxRateHz The most times per second each topic is sent
+     * @return This backend for chaining
+     */
+    public ThrottledEpilogueBackend withRule(String topicPrefix, Priority priority, double maxRateHz) {
+        if (!(maxRateHz > 0)) throw new IllegalArgumentException("Max rate must be positive, got: " + maxRateHz);
+        rules.add(new Rule(topicPrefix, priority, maxRateHz));
+        return this;
+    }
+
+    @Override
+    public EpilogueBackend getNested(String path) {
+        ThrottledEpilogueBackend backend = nested.get(path);
+        if (backend == null) {
+            backend = new ThrottledEpilogueBackend(throttle, fallback, rules, prefix + path + "/");
+            nested.put(path, backend);
+        }
+        return backend;
+    }
+
+    @Override
+    public void log(String identifier, int value) {
+        log(identifier, (long) value);
+    }
+
+    @Override
+    public void log(String identifier, long value) {
+        if (topicFor(identifier, Kind.INTEGER) instanceof ThrottledInteger topic) topic.set(value);
+        else fallback.log(prefix + identifier, value);
+    }
+
+    @Override
+    public void log(String identifier, float value) {
+        log(identifier, (double) value);
+    }
+
+    @Override
+    public void log(String identifier, double value) {
+        if (topicFor(identifier, Kind.DOUBLE) instanceof ThrottledDouble topic) topic.set(value);
+        else fallback.log(prefix + identifier, value);
+    }
+
+    @Override
+    public void log(String identifier, boolean value) {
+        if (topicFor(identifier, Kind.BOOLEAN) instanceof ThrottledBoolean topic) topic.set(value);
+        else fallback.log(prefix + identifier, value);
+    }
+
+    @Override
+    public void log(String identifier, String value) {
+        if (topicFor(identifier, Kind.STRING) instanceof ThrottledString topic) topic.set(value);
+        else fallback.log(prefix + identifier, value);
+    }
+
+    @Override
+    public void log(String identifier, byte[] value) {
+        fallback.log(prefix + identifier, value);
+    }
+
+    @Override
+    public void log(String identifier, int[] value) {
+        fallback.log(prefix + identifier, value);
+    }
+
+    @Override
+    public void log(String identifier, long[] value) {
+        fallback.log(prefix + identifier, value);
+    }
+
+    @Override
+    public void log(String identifier, float[] value) {
+        fallback.log(prefix + identifier, value);
+    }
+
+    @Override
+    public void log(String identifier, double[] value) {
+        fallback.log(prefix + identifier, value);
+    }
+
+    @Override
+    public void log(String identifier, boolean[] value) {
+        fallback.log(prefix + identifier, value);
+    }
+
+    @Override
+    public void log(String identifier, String[] value) {
+        fallback.log(prefix + identifier, value);
+    }
+
+    @Override
+    public <S> void log(String identifier, S value, Struct<S> struct) {
+        fallback.log(prefix + identifier, value, struct);
+    }
+
+    @Override
+    public <S> void log(String identifier, S[] value, Struct<S> struct) {
+        fallback.log(prefix + identifier, value, struct);
+    }
+
+    /**
+     * Finds the topic for an identifier, creating it the first time.
+     * @return The topic, which is a different kind if the identifier was logged as another type before
+     */
+    private Topic topicFor(String identifier, Kind kind) {
+        Topic topic = topics.get(identifier);
+        if (topic == null) {
+            String name = prefix + identifier;
+            Rule rule = ruleFor(name);
+            topic = switch (kind) {
+                case DOUBLE -> throttle.addDouble(name, rule.priority(), rule.maxRateHz());
+                case INTEGER -> throttle.addInteger(name, rule.priority(), rule.maxRateHz());
+                case BOOLEAN -> throttle.addBoolean(name, rule.priority(), rule.maxRateHz());
+                case STRING -> throttle.addString(name, rule.priority(), rule.maxRateHz());
+            };
+            topics.put(identifier, topic);
+        }
+        return topic;
+    }
+
+    private Rule ruleFor(String name) {
+        Rule best = null;
+        for (Rule rule : rules) {
+            if (name.startsWith(rule.prefix()) && (best == null || rule.prefix().length() >= best.prefix().length())) {
+                best = rule;
+            }
+        }
+        return best;
+    }
+
+}
@@ -0,0 +1,290 @@
+package frc.robot.lib.motion;
+
+import com.ctre.phoenix6.hardware.TalonFX;
+
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.TimedRobot;
+
+/**
+ * Estimates the feedforward gains of a mechanism while it's being driven normally, so they can be checked against the
+ * ones from SysId as the mechanism wears. Fits {@code V = kS * sign(v) + kV * v + kA * a} plus a gravity term with
+ * recursive least squares, which costs the same for every sample and doesn't keep any history.
+ * <p>
+ * Old samples are slowly forgotten so the estimates follow the mechanism if it changes. Each gain has a 95% confidence
+ * bound from the covariance of the fit, the bounds only shrink while the mechanism is driven with varied speeds and
+ * accelerations. Samples near zero velocity are skipped since static friction isn't linear there.
+ */
+public class FeedforwardEstimator {
+
+    /**
+     * What gravity term the mechanism has.
+     */
+    public enum Mechanism {
+        /**
+         * No gravity term, like a flywheel or drivetrain.
+         */
+        SIMPLE(3),
+        /**
+         * A constant kG, like an elevator.
+         */
+        ELEVATOR(4),
+        /**
+         * kG times the cosine of the angle from horizontal, like an arm.
+         */
+        ARM(4);
+
+        private final int gains;
+
+        Mechanism(int gains) {
+            this.gains = gains;
+        }
+    }
+
+    /**
+     * The gains that are estimated, kG is only estimated for elevators and arms.
+     */
+    public enum Gain {
+        KS("kS"), KV("kV"), KA("kA"), KG("kG");
+
+        private final String label;
+
+        Gain(String label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * The initial covariance of every gain, large since nothing is known about them yet.
+     */
+    private static final double kInitialCovariance = 1e3;
+    /**
+     * The covariance trace above which samples stop being forgotten, so the covariance can't blow up while the
+     * mechanism sits still.
+     */
+    private static final double kMaxCovarianceTrace = 1e4;
+    /**
+     * How many standard deviations the confidence bounds are, 95%.
+     */
+    private static final double kBoundStandardDeviations = 1.96;
+
+    private final Mechanism mechanism;
+    private final double forgettingFactor;
+    private final double minVelocity;
+    private final int n;
+    private final double[] theta;
+    private final double[][] covariance;
+    // Scratch space so samples don't allocate
+    private final double[] regressor;
+    private final double[] gain;
+    private double noiseVariance;
+    private double weight;
+    private long samples;
+
+    private NetworkTable table;
+    private DoublePublisher[] estimatePublishers;
+    private DoublePublisher[] boundPublishers;
+    private IntegerPublisher samplePublisher;
+
+    /**
+     * Creates a new estimator.
+     * @param mechanism What gravity term the mechanism has
+     * @param forgettingFactor How much of the fit to keep each sample, from 0 to 1. Samples are forgotten after
+     * roughly {@code 1 / (1 - forgettingFactor)} more samples, so 0.999 at 50 Hz remembers about 20 seconds.
+     * @param minVelocity Samples slower than this are skipped, in the same units as the velocities
+     */
+    public FeedforwardEstimator(Mechanism mechanism, double forgettingFactor, double minVelocity) {
+        if (!(forgettingFactor > 0 && forgettingFactor <= 1)) {
+            throw new IllegalArgumentException("Forgetting factor must be in (0, 1], got: " + forgettingFactor);
+        }
+        if (minVelocity < 0) throw new IllegalArgumentException("Minimum velocity must be non-negative, got: " + minVelocity);
+        this.mechanism = mechanism;
+        this.forgettingFactor = forgettingFactor;
+        this.minVelocity = minVelocity;
+        n = mechanism.gains;
+        theta = new double[n];
+        covariance = new double[n][n];
+        regressor = new double[n];
+        gain = new double[n];
+        reset();
+    }
+
+    /**
+     * Creates a new estimator that remembers about 20 seconds at 50 Hz and skips samples slower than 0.05 units per second.
+     * @param mechanism What gravity term the mechanism has
+     */
+    public FeedforwardEstimator(Mechanism mechanism) {
+        this(mechanism, 0.999, 0.05);
+    }
+
+    /**
+     * Publishes every estimate, its confidence bound and the sample count under a NetworkTables table each sample.
+     * @param tableName The table to publish to
+     * @return This estimator for chaining
+     */
+    public FeedforwardEstimator publishTo(String tableName) {
+        if (table != null) throw new IllegalStateException("Already publishing to " + table.getPath());
+        table = NetworkTableInstance.getDefault().getTable(tableName);
+        estimatePublishers = new DoublePublisher[n];
+        boundPublishers = new DoublePublisher[n];
+        for (int i = 0; i < n; i++) {
+            String label = Gain.values()[i].label;
+            estimatePublishers[i] = table.getDoubleTopic(label).publish();
+            boundPublishers[i] = table.getDoubleTopic(label + " Bound").publish();
+        }
+        samplePublisher = table.getIntegerTopic("Samples").publish();
+        return this;
+    }
+
+    /**
+     * Adds a sample from a talon's cached signals every loop, so they must be refreshed elsewhere like with
+     * {@code TalonFXLogger.refreshAllLoggedTalonFX}. Gains are in volts per mechanism rotation, so the talon's
+     * SensorToMechanismRatio should be set, and for arms a position of 0 must be horizontal.
+     * @param robot The robot to add the callback to
+     * @param talon The talon driving the mechanism
+     */
+    public void samplePeriodically(TimedRobot robot, TalonFX talon) {
+        robot.addPeriodic(() -> addSample(talon), TimedRobot.kDefaultPeriod);
+    }
+
+    /**
+     * Adds a sample from a talon's cached signals without refreshing them.
+     * @param talon The talon driving the mechanism
+     * @return If the sample was used
+     */
+    public boolean addSample(TalonFX talon) {
+        return addSample(talon.getMotorVoltage(false).getValueAsDouble(), talon.getVelocity(false).getValueAsDouble(),
+            talon.getAcceleration(false).getValueAsDouble(), talon.getPosition(false).getValueAsDouble() * 2 * Math.PI);
+    }
+
+    /**
+     * Adds a sample of a mechanism without an angle.
+     * @param voltage The voltage applied to the motor
+     * @param velocity The velocity of the mechanism
+     * @param acceleration The acceleration of the mechanism
+     * @return If the sample was used
+     */
+    public boolean addSample(double voltage, double velocity, double acceleration) {
+        return addSample(voltage, velocity, acceleration, 0);
+    }
+
+    /**
+     * Adds a sample and updates the estimates.
+     * @param voltage The voltage applied to the motor
+     * @param velocity The velocity of the mechanism
+     * @param acceleration The acceleration of the mechanism
+     * @param angleRadians The angle of an arm from horizontal, ignored for other mechanisms
+     * @return If the sample was used, samples slower than the minimum velocity or that aren't finite are skipped
+     */
+    public boolean addSample(double voltage, double velocity, double acceleration, double angleRadians) {
+        if (!Double.isFinite(voltage) || !Double.isFinite(velocity) || !Double.isFinite(acceleration)
+                || !Double.isFinite(angleRadians) || Math.abs(velocity) < minVelocity || velocity == 0) {
+            return false;
+        }
+        regressor[0] = Math.signum(velocity);
+        regressor[1] = velocity;
+        regressor[2] = acceleration;
+        if (mechanism == Mechanism.ELEVATOR) regressor[3] = 1;
+        else if (mechanism == Mechanism.ARM) regressor[3] = Math.cos(angleRadians);
+
+        // P * phi, P is symmetric so this is also phi^T * P
+        double denominator = 0;
+        double error = voltage;
+        for (int i = 0; i < n; i++) {
+            double sum = 0;
+            for (int j = 0; j < n; j++) {
+                sum += covariance[i][j] * regressor[j];
+            }
+            gain[i] = sum;
+            denominator += regressor[i] * sum;
+            error -= regressor[i] * theta[i];
+        }
+        double trace = 0;
+        for (int i = 0; i < n; i++) {
+            trace += covariance[i][i];
+        }
+        // Stop forgetting when the covariance is already large, otherwise it grows without bound without excitation
+        double lambda = trace > kMaxCovarianceTrace ? 1 : forgettingFactor;
+        denominator += lambda;
+        for (int i = 0; i < n; i++) {
+            theta[i] += gain[i] / denominator * error;
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = i; j < n; j++) {
+                double value = (covariance[i][j] - gain[i] * gain[j] / denominator) / lambda;
+                covariance[i][j] = value;
+                covariance[j][i] = value;
+            }
+        }
+        // Noise variance from the normalized prediction error, weighted the same as the fit
+        weight = lambda * weight + 1;
+        noiseVariance += (error * error * lambda / denominator - noiseVariance) / weight;
+        samples++;
+        publish();
+        return true;
+    }
+
+    /**
+     * @param gain The gain to get
+     * @return The current estimate of the gain
+     */
+    public double getEstimate(Gain gain) {
+        return theta[indexOf(gain)];
+    }
+
+    /**
+     * @param gain The gain to get
+     * @return Half the width of the gain's 95% confidence interval, the true gain is likely within this of the estimate
+     */
+    public double getBound(Gain gain) {
+        int i = indexOf(gain);
+        return kBoundStandardDeviations * Math.sqrt(Math.max(0, noiseVariance * covariance[i][i]));
+    }
+
+    /**
+     * @return The standard deviation of the voltage the fit doesn't explain
+     */
+    public double getResidualStandardDeviation() {
+        return Math.sqrt(noiseVariance);
+    }
+
+    /**
+     * @return How many samples have been used
+     */
+    public long getSampleCount() {
+        return samples;
+    }
+
+    /**
+     * Forgets every sample.
+     */
+    public void reset() {
+        for (int i = 0; i < n; i++) {
+            theta[i] = 0;
+            for (int j = 0; j < n; j++) {
+                covariance[i][j] = i == j ? kInitialCovariance : 0;
+            }
+        }
+        noiseVariance = 0;
+        weight = 0;
+        samples = 0;
+    }
+
+    private int indexOf(Gain gain) {
+        int i = gain.ordinal();
+        if (i >= n) throw new IllegalArgumentException(gain.label + " isn't estimated for " + mechanism);
+        return i;
+    }
+
+    private void publish() {
+        if (table == null) return;
+        for (int i = 0; i < n; i++) {
+            estimatePublishers[i].set(theta[i]);
+            boundPublishers[i].set(kBoundStandardDeviations * Math.sqrt(Math.max(0, noiseVariance * covariance[i][i])));
+        }
+        samplePublisher.set(samples);
+    }
+
+}
@@ -1,17 +1,24 @@
 package frc.robot.lib.motion;
 
+import java.util.List;
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 
 import edu.wpi.first.math.controller.LTVUnicycleController;
 import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.kinematics.DifferentialDriveKinematics;
 import edu.wpi.first.math.kinematics.DifferentialDriveWheelSpeeds;
 import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.math.trajectory.TrajectoryConfig;
+import edu.wpi.first.math.trajectory.TrajectoryGenerator;
 import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.Subsystem;
+import frc.robot.lib.util.JitWarmup;
 
 
 /**
@@ -38,9 +45,71 @@ public class FollowTrajectory {
         Timer timer = new Timer();
         return driveSubsystem.runOnce(timer::restart)
         .andThen(driveSubsystem.run(() -> {
-            DifferentialDriveWheelSpeeds speeds = diffKinematics.toWheelSpeeds(controller.calculate(pose.get(), trajectory.sample(timer.get())));
+            DifferentialDriveWheelSpeeds speeds = calculateWheelSpeeds(controller, diffKinematics, trajectory, pose.get(), timer.get());
             velocity.accept(speeds.leftMetersPerSecond, speeds.rightMetersPerSecond);
         }).until(() -> timer.hasElapsed(trajectory.getTotalTimeSeconds())));
     }
 
+    /**
+     * Creates a command to follow a given trajectory using a LTVUnicycleController, with the wheel velocities run by the
+     * talons' own velocity closed loop. The wheel accelerations of the trajectory are sent along as feedforward.
+     * The talons are stopped when the command ends or is interrupted.
+     * @param trajectory The Trajectory to follow
+     * @param pose The supplier of the robot pose
+     * @param output The talons to send the wheel velocities and accelerations to
+     * @param diffKinematics The kinematics of the drivetrain
+     * @param driveSubsystem The subsystem to require during the command
+     * @return A command to follow a given trajectory using a LTVUnicycleController
+     */
+    public static Command LTVControllerCommand(Trajectory trajectory, Supplier<Pose2d> pose, TalonFXDriveOutput output,
+            DifferentialDriveKinematics diffKinematics, Subsystem driveSubsystem) {
+        LTVUnicycleController controller = new LTVUnicycleController(TimedRobot.kDefaultPeriod);
+        Timer timer = new Timer();
+        return driveSubsystem.runOnce(timer::restart)
+        .andThen(driveSubsystem.run(() -> {
+            double time = timer.get();
+            DifferentialDriveWheelSpeeds speeds = calculateWheelSpeeds(controller, diffKinematics, trajectory, pose.get(), time);
+            // The change in the trajectory's wheel speeds over the next loop, which includes the change in curvature
+            DifferentialDriveWheelSpeeds now = referenceWheelSpeeds(diffKinematics, trajectory.sample(time));
+            DifferentialDriveWheelSpeeds next = referenceWheelSpeeds(diffKinematics, trajectory.sample(time + TimedRobot.kDefaultPeriod));
+            output.set(speeds.leftMetersPerSecond, speeds.rightMetersPerSecond,
+                (next.leftMetersPerSecond - now.leftMetersPerSecond) / TimedRobot.kDefaultPeriod,
+                (next.rightMetersPerSecond - now.rightMetersPerSecond) / TimedRobot.kDefaultPeriod);
+        }).until(() -> timer.hasElapsed(trajectory.getTotalTimeSeconds())))
+        // The talons keep running the last request on their own, so they have to be stopped
+        .finallyDo(output::stop);
+    }
+
+    /**
+     * Registers the trajectory following math with a warm-up so it's compiled before autonomous. Follows a made up
+     * S-curve with a pose that's slightly off of it, nothing is sent to the drivetrain.
+     * @param warmup The warm-up to add the task to
+     * @param diffKinematics The kinematics of the drivetrain
+     */
+    public static void addWarmupTask(JitWarmup warmup, DifferentialDriveKinematics diffKinematics) {
+        Trajectory trajectory = TrajectoryGenerator.generateTrajectory(
+            Pose2d.kZero, List.of(new Translation2d(1.5, 0.5), new Translation2d(3, -0.5)), new Pose2d(4.5, 0, Rotation2d.kZero),
+            new TrajectoryConfig(3, 2).setKinematics(diffKinematics));
+        LTVUnicycleController controller = new LTVUnicycleController(TimedRobot.kDefaultPeriod);
+        double totalTime = trajectory.getTotalTimeSeconds();
+        warmup.add("FollowTrajectory", i -> {
+            double time = (i * TimedRobot.kDefaultPeriod) % totalTime;
+            Pose2d reference = trajectory.sample(time).poseMeters;
+            Pose2d pose = new Pose2d(reference.getX() + 0.05 * JitWarmup.syntheticInput(i),
+                reference.getY() + 0.05 * JitWarmup.syntheticInput(i + 1), reference.getRotation());
+            DifferentialDriveWheelSpeeds speeds = calculateWheelSpeeds(controller, diffKinematics, trajectory, pose, time);
+            return speeds.leftMetersPerSecond + speeds.rightMetersPerSecond;
+        });
+    }
+
+    static DifferentialDriveWheelSpeeds calculateWheelSpeeds(LTVUnicycleController controller,
+            DifferentialDriveKinematics diffKinematics, Trajectory trajectory, Pose2d pose, double time) {
+        return diffKinematics.toWheelSpeeds(controller.calculate(pose, trajectory.sample(time)));
+    }
+
+    static DifferentialDriveWheelSpeeds referenceWheelSpeeds(DifferentialDriveKinematics diffKinematics, Trajectory.State state) {
+        return diffKinematics.toWheelSpeeds(new ChassisSpeeds(state.velocityMetersPerSecond, 0,
+            state.velocityMetersPerSecond * state.curvatureRadPerMeter));
+    }
+
 }
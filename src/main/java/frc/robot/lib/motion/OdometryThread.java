@@ -0,0 +1,233 @@
+package frc.robot.lib.motion;
+
+import static edu.wpi.first.units.Units.Radians;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.StatusSignal;
+import com.ctre.phoenix6.Utils;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.units.measure.Angle;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Threads;
+import frc.robot.lib.util.PeriodicScheduler;
+
+/**
+ * Differential drive odometry that runs on its own thread at a high rate instead of once per robot loop, so the pose
+ * stays accurate at speed. Each sample uses the timestamps of the CAN frames it came from instead of the time it was
+ * read.
+ * <p>
+ * Poses are kept in a {@link PoseHistory} so the pose at any recent time can be looked up, like when a vision
+ * measurement arrives late. Reads never block the odometry thread.
+ */
+public class OdometryThread implements AutoCloseable {
+
+    private final StatusSignal<Angle> leftPosition;
+    private final StatusSignal<Angle> rightPosition;
+    private final StatusSignal<Angle> yaw;
+    private final BaseStatusSignal[] signals;
+    private final double metersPerRotation;
+    private final double frequency;
+    private final boolean canivore;
+    private final Thread thread;
+    private volatile boolean running = true;
+    // A reset requested from another thread, applied by the odometry thread before its next sample
+    private final AtomicReference<Pose2d> pendingReset = new AtomicReference<>();
+
+    private final PoseHistory history;
+
+    // Only touched by the odometry thread
+    private double lastLeft;
+    private double lastRight;
+    private boolean hasLastSample;
+    private final double[] pose = new double[3];
+    private double yawOffset;
+    private volatile long samples;
+    private volatile long failedSamples;
+
+    /**
+     * Creates and starts a new odometry thread.
+     * @param leftPosition The position of the left wheels in rotations
+     * @param rightPosition The position of the right wheels in rotations
+     * @param yaw The yaw of the gyro, counterclockwise positive
+     * @param metersPerRotation How far the wheels travel per rotation of the position signals
+     * @param frequency How many times per second to sample, 250 is a good rate on a CANivore
+     * @param canivore If the devices are on a CANivore, in which case the thread waits for new frames instead of sleeping
+     * @param historySeconds How far back the pose history goes
+     */
+    public OdometryThread(StatusSignal<Angle> leftPosition, StatusSignal<Angle> rightPosition, StatusSignal<Angle> yaw,
+            double metersPerRotation, double frequency, boolean canivore, double historySeconds) {
+        if (!(frequency > 0)) throw new IllegalArgumentException("Frequency must be positive, got: " + frequency);
+        if (!(historySeconds > 0)) throw new IllegalArgumentException("History must be positive, got: " + historySeconds);
+        this.leftPosition = leftPosition;
+        this.rightPosition = rightPosition;
+        this.yaw = yaw;
+        this.metersPerRotation = metersPerRotation;
+        this.frequency = frequency;
+        this.canivore = canivore;
+        signals = new BaseStatusSignal[] {leftPosition, rightPosition, yaw};
+        history = new PoseHistory((int) Math.ceil(historySeconds * frequency) + 1);
+        BaseStatusSignal.setUpdateFrequencyForAll(frequency, signals);
+        thread = new Thread(this::run, "OdometryThread");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Creates and starts a new odometry thread that samples at 250 Hz and keeps 1.5 seconds of history.
+     * @param leftPosition The position of the left wheels in rotations
+     * @param rightPosition The position of the right wheels in rotations
+     * @param yaw The yaw of the gyro, counterclockwise positive
+     * @param metersPerRotation How far the wheels travel per rotation of the position signals
+     * @param canivore If the devices are on a CANivore
+     */
+    public OdometryThread(StatusSignal<Angle> leftPosition, StatusSignal<Angle> rightPosition, StatusSignal<Angle> yaw,
+            double metersPerRotation, boolean canivore) {
+        this(leftPosition, rightPosition, yaw, metersPerRotation, 250, canivore, 1.5);
+    }
+
+    /**
+     * @return The latest pose, the origin if there are no samples yet. The same object is returned until there's a new sample.
+     */
+    public Pose2d getLatestPose() {
+        return history.getLatestPose(Pose2d.kZero);
+    }
+
+    /**
+     * @return A supplier of the latest pose for {@link FollowTrajectory}
+     */
+    public Supplier<Pose2d> poseSupplier() {
+        return this::getLatestPose;
+    }
+
+    /**
+     * Looks up the pose at a time in the past, interpolating between samples.
+     * @param timestampSeconds The time on the FPGA clock, like {@code Timer.getFPGATimestamp()}
+     * @return The pose at that time, empty if the time is older than the history or there are no samples yet.
+     * Times newer than the latest sample return the latest pose.
+     */
+    public Optional<Pose2d> getPoseAt(double timestampSeconds) {
+        return history.getAt(timestampSeconds);
+    }
+
+    /**
+     * Resets the pose, applied before the next sample.
+     * @param pose The new pose
+     */
+    public void resetPose(Pose2d pose) {
+        pendingReset.set(pose);
+    }
+
+    /**
+     * @return How many samples have been integrated
+     */
+    public long getSampleCount() {
+        return samples;
+    }
+
+    /**
+     * @return How many times the signals couldn't be read
+     */
+    public long getFailedSampleCount() {
+        return failedSamples;
+    }
+
+    /**
+     * Stops the thread.
+     */
+    @Override
+    public void close() {
+        running = false;
+        thread.interrupt();
+    }
+
+    private void run() {
+        if (!Threads.setCurrentThreadPriority(true, PeriodicScheduler.kControlRealTimePriority)) {
+            DriverStation.reportWarning("Couldn't make OdometryThread real-time, running at normal priority", false);
+        }
+        long periodNanos = (long) (1e9 / frequency);
+        while (running) {
+            var status = canivore ? BaseStatusSignal.waitForAll(2 / frequency, signals) : sleepAndRefresh(periodNanos);
+            if (!running) return;
+            if (!status.isOK()) {
+                failedSamples++;
+                continue;
+            }
+            double timestamp = 0;
+            for (BaseStatusSignal signal : signals) {
+                timestamp += signal.getTimestamp().getTime();
+            }
+            timestamp = Utils.currentTimeToFPGATime(timestamp / signals.length);
+            update(timestamp, leftPosition.getValueAsDouble() * metersPerRotation, rightPosition.getValueAsDouble() * metersPerRotation,
+                yaw.getValue().in(Radians));
+        }
+    }
+
+    private StatusCode sleepAndRefresh(long periodNanos) {
+        // Frames on a non-FD bus don't wake waitForAll, so sample on a fixed period instead
+        try {
+            Thread.sleep(periodNanos / 1_000_000, (int) (periodNanos % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return BaseStatusSignal.refreshAll(signals);
+    }
+
+    /**
+     * Integrates one sample and adds it to the history.
+     */
+    private void update(double timestamp, double left, double right, double yawRadians) {
+        Pose2d reset = pendingReset.getAndSet(null);
+        if (reset != null) {
+            history.clear();
+            pose[0] = reset.getX();
+            pose[1] = reset.getY();
+            pose[2] = reset.getRotation().getRadians();
+            hasLastSample = false;
+        }
+        if (hasLastSample) {
+            integrate(pose, ((left - lastLeft) + (right - lastRight)) / 2, yawRadians + yawOffset);
+        } else {
+            // The gyro is relative to wherever the pose was last reset
+            yawOffset = pose[2] - yawRadians;
+            hasLastSample = true;
+        }
+        lastLeft = left;
+        lastRight = right;
+        history.add(timestamp, pose[0], pose[1], pose[2]);
+        samples++;
+    }
+
+    /**
+     * Moves a pose forward along an arc, the same as {@link Pose2d#exp} with no sideways motion.
+     * @param pose The x, y and heading of the pose, updated in place
+     * @param distance How far the robot drove
+     * @param newTheta The heading at the end of the arc
+     */
+    static void integrate(double[] pose, double distance, double newTheta) {
+        double theta = pose[2];
+        double dTheta = newTheta - theta;
+        double s;
+        double c;
+        if (Math.abs(dTheta) < 1e-9) {
+            s = 1 - dTheta * dTheta / 6;
+            c = dTheta / 2;
+        } else {
+            s = Math.sin(dTheta) / dTheta;
+            c = (1 - Math.cos(dTheta)) / dTheta;
+        }
+        double forward = distance * s;
+        double sideways = distance * c;
+        double cos = Math.cos(theta);
+        double sin = Math.sin(theta);
+        pose[0] += forward * cos - sideways * sin;
+        pose[1] += forward * sin + sideways * cos;
+        pose[2] = newTheta;
+    }
+
+}
@@ -0,0 +1,225 @@
+package frc.robot.lib.motion;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Optional;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+
+/**
+ * A fixed size history of timestamped poses that one thread writes to and any thread can read from. The poses are kept
+ * in primitive arrays so adding one never allocates, the oldest pose is overwritten once the history is full.
+ * <p>
+ * Reads never block the writer and never lock. The writer bumps a sequence number before and after each change and a
+ * reader retries until it reads the same even sequence number on both sides of its read.
+ */
+public class PoseHistory {
+
+    private static final VarHandle kSequence;
+
+    static {
+        try {
+            kSequence = MethodHandles.lookup().findVarHandle(PoseHistory.class, "sequence", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * The latest pose as a {@link Pose2d}, kept with the sequence number it was read at so it can be reused.
+     */
+    private record CachedPose(long sequence, Pose2d pose) {}
+
+    private final double[] time;
+    private final double[] x;
+    private final double[] y;
+    private final double[] theta;
+    // Odd while the writer is changing the history
+    private long sequence;
+    private int newest = -1;
+    private int count;
+    private volatile CachedPose cachedLatest = new CachedPose(-1, null);
+
+    /**
+     * Creates a new empty history.
+     * @param capacity The number of poses to keep
+     */
+    public PoseHistory(int capacity) {
+        if (capacity < 2) throw new IllegalArgumentException("Capacity must be at least 2, got: " + capacity);
+        time = new double[capacity];
+        x = new double[capacity];
+        y = new double[capacity];
+        theta = new double[capacity];
+    }
+
+    /**
+     * Adds a pose, should only be called from one thread. Timestamps must be increasing.
+     * @param timestamp The time of the pose in seconds
+     * @param xMeters The x position
+     * @param yMeters The y position
+     * @param thetaRadians The heading
+     */
+    public void add(double timestamp, double xMeters, double yMeters, double thetaRadians) {
+        long start = beginWrite();
+        int index = (newest + 1) % time.length;
+        time[index] = timestamp;
+        x[index] = xMeters;
+        y[index] = yMeters;
+        theta[index] = thetaRadians;
+        newest = index;
+        if (count < time.length) count++;
+        endWrite(start);
+    }
+
+    /**
+     * Removes every pose, should only be called from the thread that adds poses.
+     */
+    public void clear() {
+        long start = beginWrite();
+        newest = -1;
+        count = 0;
+        endWrite(start);
+    }
+
+    /**
+     * @return The newest pose, empty if there are none
+     */
+    public Optional<Pose2d> getLatest() {
+        return getAt(Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Reads the newest pose without allocating.
+     * @param pose An array of at least 3 to put the x, y and heading of the pose in, it's left alone if there are no poses
+     * @return If there was a pose
+     */
+    public boolean getLatest(double[] pose) {
+        while (true) {
+            long start = beginRead();
+            int head = newest;
+            if (head < 0) {
+                if (validate(start)) return false;
+                continue;
+            }
+            double latestX = x[head];
+            double latestY = y[head];
+            double latestTheta = theta[head];
+            if (validate(start)) {
+                pose[0] = latestX;
+                pose[1] = latestY;
+                pose[2] = latestTheta;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the newest pose as a {@link Pose2d}. The same object is returned until a pose is added, so calling this
+     * several times a loop, like from a {@code Supplier<Pose2d>}, only allocates when there's a new pose.
+     * @param defaultPose The pose to return if there are none
+     * @return The newest pose
+     */
+    public Pose2d getLatestPose(Pose2d defaultPose) {
+        CachedPose cached = cachedLatest;
+        long current = (long) kSequence.getAcquire(this);
+        if (cached.sequence() == current) return cached.pose() == null ? defaultPose : cached.pose();
+        while (true) {
+            long start = beginRead();
+            int head = newest;
+            Pose2d pose = head < 0 ? null : new Pose2d(x[head], y[head], new Rotation2d(theta[head]));
+            if (validate(start)) {
+                cachedLatest = new CachedPose(start, pose);
+                return pose == null ? defaultPose : pose;
+            }
+        }
+    }
+
+    /**
+     * Looks up the pose at a time, interpolating between the poses before and after it.
+     * @param timestamp The time in seconds
+     * @return The pose at that time, empty if it's older than the history or there are no poses.
+     * Times newer than the newest pose return the newest pose.
+     */
+    public Optional<Pose2d> getAt(double timestamp) {
+        while (true) {
+            long start = beginRead();
+            Pose2d pose = interpolate(timestamp);
+            if (validate(start)) return Optional.ofNullable(pose);
+        }
+    }
+
+    /**
+     * @return The number of poses in the history
+     */
+    public int size() {
+        while (true) {
+            long start = beginRead();
+            int size = count;
+            if (validate(start)) return size;
+        }
+    }
+
+    private long beginWrite() {
+        long start = sequence;
+        kSequence.setOpaque(this, start + 1);
+        // The odd sequence number has to be visible before any of the poses change
+        VarHandle.storeStoreFence();
+        return start;
+    }
+
+    private void endWrite(long start) {
+        kSequence.setRelease(this, start + 2);
+    }
+
+    /**
+     * Waits for the writer to finish, it only ever holds the history for a few stores.
+     * @return The even sequence number the read started at
+     */
+    private long beginRead() {
+        long start;
+        while (((start = (long) kSequence.getAcquire(this)) & 1) != 0) {
+            Thread.onSpinWait();
+        }
+        return start;
+    }
+
+    /**
+     * @return If nothing was written since the read started, if not the read has to be retried
+     */
+    private boolean validate(long start) {
+        // The reads of the poses can't move after the sequence is read again
+        VarHandle.loadLoadFence();
+        return (long) kSequence.getOpaque(this) == start;
+    }
+
+    /**
+     * Must be called between {@link #beginRead()} and {@link #validate(long)}, every index is kept in bounds so a read
+     * that overlaps a write returns garbage instead of throwing, and is then thrown away.
+     */
+    private Pose2d interpolate(double timestamp) {
+        int size = count;
+        int head = newest;
+        if (size == 0 || head < 0) return null;
+        int capacity = time.length;
+        if (timestamp >= time[head]) return new Pose2d(x[head], y[head], new Rotation2d(theta[head]));
+        int oldest = Math.floorMod(head - size + 1, capacity);
+        if (timestamp < time[oldest]) return null;
+        // Binary search for the last pose at or before the timestamp, counting from the oldest
+        int low = 0;
+        int high = size - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (time[(oldest + mid) % capacity] <= timestamp) low = mid;
+            else high = mid - 1;
+        }
+        int before = (oldest + low) % capacity;
+        int after = (before + 1) % capacity;
+        double span = time[after] - time[before];
+        double t = span > 0 ? MathUtil.clamp((timestamp - time[before]) / span, 0, 1) : 0;
+        return new Pose2d(MathUtil.interpolate(x[before], x[after], t), MathUtil.interpolate(y[before], y[after], t),
+            new Rotation2d(theta[before] + MathUtil.angleModulus(theta[after] - theta[before]) * t));
+    }
+
+}
@@ -0,0 +1,141 @@
+package frc.robot.lib.motion;
+
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.controls.VelocityTorqueCurrentFOC;
+import com.ctre.phoenix6.controls.VelocityVoltage;
+import com.ctre.phoenix6.hardware.TalonFX;
+
+/**
+ * Sends drivetrain wheel speeds straight to the velocity closed loop on a pair of TalonFXs, so the inner loop runs on
+ * the motor controllers at 1 kHz instead of on the roboRIO every robot loop. Use it with the
+ * {@link FollowTrajectory} overload that takes a drive output.
+ * <p>
+ * The wheel accelerations from the trajectory are added as an arbitrary feedforward, so leave kA in the talons' slot
+ * configs at zero. The velocity gains (kS, kV, kP) still come from the slot configs. Both sides are always sent in the
+ * same call, and with timesync enabled they're applied at the same moment.
+ * <p>
+ * The control requests are reused, so sending doesn't allocate.
+ */
+public class TalonFXDriveOutput {
+
+    /**
+     * Which closed loop the talons run.
+     */
+    public enum Mode {
+        /**
+         * {@link VelocityVoltage}, the feedforward gain is in volts per m/s^2.
+         */
+        VOLTAGE,
+        /**
+         * {@link VelocityTorqueCurrentFOC}, needs Phoenix Pro. The feedforward gain is in amps per m/s^2.
+         */
+        TORQUE_CURRENT_FOC
+    }
+
+    private final TalonFX left;
+    private final TalonFX right;
+    private final double metersPerRotation;
+    private final Mode mode;
+    private final double kA;
+    private final VelocityVoltage leftVoltage = new VelocityVoltage(0);
+    private final VelocityVoltage rightVoltage = new VelocityVoltage(0);
+    private final VelocityTorqueCurrentFOC leftCurrent = new VelocityTorqueCurrentFOC(0);
+    private final VelocityTorqueCurrentFOC rightCurrent = new VelocityTorqueCurrentFOC(0);
+
+    /**
+     * Creates a new drive output. Followers on each side should already be following these talons.
+     * @param left The leader of the left side
+     * @param right The leader of the right side
+     * @param metersPerRotation How far the wheels travel per rotation of the talons' velocity, with SensorToMechanismRatio applied
+     * @param mode Which closed loop to run
+     * @param kA The feedforward per m/s^2 of wheel acceleration, in volts or amps depending on the mode
+     */
+    public TalonFXDriveOutput(TalonFX left, TalonFX right, double metersPerRotation, Mode mode, double kA) {
+        if (!(metersPerRotation > 0)) throw new IllegalArgumentException("Meters per rotation must be positive, got: " + metersPerRotation);
+        this.left = left;
+        this.right = right;
+        this.metersPerRotation = metersPerRotation;
+        this.mode = mode;
+        this.kA = kA;
+    }
+
+    /**
+     * Chooses which slot of gains the talons use.
+     * @param slot The slot, from 0 to 2
+     * @return This output for chaining
+     */
+    public TalonFXDriveOutput withSlot(int slot) {
+        leftVoltage.withSlot(slot);
+        rightVoltage.withSlot(slot);
+        leftCurrent.withSlot(slot);
+        rightCurrent.withSlot(slot);
+        return this;
+    }
+
+    /**
+     * Applies both sides at the same moment using the CANivore's synchronized time, instead of whenever each frame
+     * arrives. Needs a CANivore and Phoenix Pro.
+     * @param useTimesync If timesync should be used
+     * @return This output for chaining
+     */
+    public TalonFXDriveOutput withUseTimesync(boolean useTimesync) {
+        leftVoltage.withUseTimesync(useTimesync);
+        rightVoltage.withUseTimesync(useTimesync);
+        leftCurrent.withUseTimesync(useTimesync);
+        rightCurrent.withUseTimesync(useTimesync);
+        return this;
+    }
+
+    /**
+     * Uses FOC commutation in voltage mode, which needs Phoenix Pro.
+     * @param enableFOC If FOC should be used
+     * @return This output for chaining
+     */
+    public TalonFXDriveOutput withEnableFOC(boolean enableFOC) {
+        leftVoltage.withEnableFOC(enableFOC);
+        rightVoltage.withEnableFOC(enableFOC);
+        return this;
+    }
+
+    /**
+     * Sends new setpoints to both sides.
+     * @param leftVelocity The velocity of the left wheels in meters/second
+     * @param rightVelocity The velocity of the right wheels in meters/second
+     * @param leftAcceleration The acceleration of the left wheels in meters/second^2
+     * @param rightAcceleration The acceleration of the right wheels in meters/second^2
+     * @return The left side's status if it failed, otherwise the right side's
+     */
+    public StatusCode set(double leftVelocity, double rightVelocity, double leftAcceleration, double rightAcceleration) {
+        double leftRotations = leftVelocity / metersPerRotation;
+        double rightRotations = rightVelocity / metersPerRotation;
+        StatusCode leftStatus;
+        StatusCode rightStatus;
+        if (mode == Mode.VOLTAGE) {
+            leftStatus = left.setControl(leftVoltage.withVelocity(leftRotations).withFeedForward(kA * leftAcceleration));
+            rightStatus = right.setControl(rightVoltage.withVelocity(rightRotations).withFeedForward(kA * rightAcceleration));
+        } else {
+            leftStatus = left.setControl(leftCurrent.withVelocity(leftRotations).withFeedForward(kA * leftAcceleration));
+            rightStatus = right.setControl(rightCurrent.withVelocity(rightRotations).withFeedForward(kA * rightAcceleration));
+        }
+        return leftStatus.isOK() ? rightStatus : leftStatus;
+    }
+
+    /**
+     * Sends new velocity setpoints with no acceleration feedforward.
+     * @param leftVelocity The velocity of the left wheels in meters/second
+     * @param rightVelocity The velocity of the right wheels in meters/second
+     * @return The left side's status if it failed, otherwise the right side's
+     */
+    public StatusCode set(double leftVelocity, double rightVelocity) {
+        return set(leftVelocity, rightVelocity, 0, 0);
+    }
+
+    /**
+     * Stops both sides, using their neutral modes.
+     */
+    public void stop() {
+        left.stopMotor();
+        right.stopMotor();
+    }
+
+}
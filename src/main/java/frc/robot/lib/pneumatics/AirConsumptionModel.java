@@ -0,0 +1,124 @@
+package frc.robot.lib.pneumatics;
+
+import static edu.wpi.first.units.Units.Meters;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import edu.wpi.first.units.measure.Distance;
+
+/**
+ * Estimates how much air the robot's pistons use from how many times they've moved and how big they are.
+ * Assumes the air is isothermal (Boyle's law) and every cylinder fills to the working pressure on each stroke.
+ * Pressures are gauge pressures in PSI and volumes are in liters.
+ */
+public class AirConsumptionModel {
+
+    public static final double kAtmosphericPressurePSI = 14.696;
+    private static final double kLitersPerCubicMeter = 1000;
+
+    private record Cylinder(LongSupplier extensions, LongSupplier retractions, double extendLiters, double retractLiters) {}
+
+    private final List<Cylinder> cylinders = new ArrayList<>();
+    private final double storageLiters;
+    private final double workingPressurePSI;
+
+    /**
+     * Creates a new model.
+     * @param storageLiters The total volume of the robot's tanks and high pressure tubing
+     * @param workingPressurePSI The regulated pressure the cylinders are filled to
+     */
+    public AirConsumptionModel(double storageLiters, double workingPressurePSI) {
+        if (!(storageLiters > 0)) throw new IllegalArgumentException("Storage volume must be positive, got: " + storageLiters);
+        this.storageLiters = storageLiters;
+        this.workingPressurePSI = workingPressurePSI;
+    }
+
+    /**
+     * Adds a piston to the model, its actuation counts are read whenever the model is.
+     * @param piston The piston
+     * @param bore The inside diameter of the cylinder
+     * @param rodDiameter The diameter of the rod, which takes up space on the retract side
+     * @param stroke How far the piston travels
+     */
+    public void addPiston(Piston piston, Distance bore, Distance rodDiameter, Distance stroke) {
+        addCylinder(piston::getExtendCount, piston::getRetractCount, bore, rodDiameter, stroke);
+    }
+
+    /**
+     * Adds any cylinder to the model.
+     * @param extensions The number of times the cylinder has extended
+     * @param retractions The number of times the cylinder has retracted
+     * @param bore The inside diameter of the cylinder
+     * @param rodDiameter The diameter of the rod, which takes up space on the retract side
+     * @param stroke How far the piston travels
+     */
+    public void addCylinder(LongSupplier extensions, LongSupplier retractions, Distance bore, Distance rodDiameter, Distance stroke) {
+        double boreArea = circleArea(bore.in(Meters));
+        double rodArea = circleArea(rodDiameter.in(Meters));
+        if (rodArea >= boreArea) throw new IllegalArgumentException("Rod diameter must be smaller than the bore");
+        double length = stroke.in(Meters);
+        cylinders.add(new Cylinder(extensions, retractions, boreArea * length * kLitersPerCubicMeter, (boreArea - rodArea) * length * kLitersPerCubicMeter));
+    }
+
+    /**
+     * @return The volume of air that's been used, measured at atmospheric pressure
+     */
+    public double getConsumedFreeAirLiters() {
+        double total = 0;
+        for (Cylinder cylinder : cylinders) {
+            total += cylinder.extensions().getAsLong() * cylinder.extendLiters() + cylinder.retractions().getAsLong() * cylinder.retractLiters();
+        }
+        return toFreeAir(total);
+    }
+
+    /**
+     * @return The average volume of air used by one stroke of any cylinder, measured at atmospheric pressure
+     */
+    public double getAverageStrokeFreeAirLiters() {
+        if (cylinders.isEmpty()) return 0;
+        double total = 0;
+        for (Cylinder cylinder : cylinders) {
+            total += cylinder.extendLiters() + cylinder.retractLiters();
+        }
+        return toFreeAir(total / (2 * cylinders.size()));
+    }
+
+    /**
+     * @return How much the stored pressure drops for an average stroke of any cylinder
+     */
+    public double getPressureDropPerStrokePSI() {
+        return freeAirToPressureDrop(getAverageStrokeFreeAirLiters());
+    }
+
+    /**
+     * Estimates how many more strokes the stored air can supply before it falls below a pressure.
+     * @param pressurePSI The current stored pressure
+     * @param floorPSI The pressure that shouldn't be gone below, at least the working pressure
+     * @return The number of average strokes left
+     */
+    public double getStrokesRemaining(double pressurePSI, double floorPSI) {
+        double drop = getPressureDropPerStrokePSI();
+        if (drop <= 0) return Double.POSITIVE_INFINITY;
+        return Math.max(0, (pressurePSI - Math.max(floorPSI, workingPressurePSI)) / drop);
+    }
+
+    /**
+     * Converts a volume of air at atmospheric pressure into how much it lowers the stored pressure.
+     * @param freeAirLiters The volume of air at atmospheric pressure
+     * @return The pressure drop in PSI
+     */
+    public double freeAirToPressureDrop(double freeAirLiters) {
+        return freeAirLiters * kAtmosphericPressurePSI / storageLiters;
+    }
+
+    private double toFreeAir(double cylinderLiters) {
+        return cylinderLiters * (workingPressurePSI + kAtmosphericPressurePSI) / kAtmosphericPressurePSI;
+    }
+
+    private static double circleArea(double diameter) {
+        return Math.PI * diameter * diameter / 4;
+    }
+
+}
@@ -0,0 +1,193 @@
+package frc.robot.lib.pneumatics;
+
+import java.util.function.DoubleSupplier;
+
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.StringLogEntry;
+import edu.wpi.first.util.function.BooleanConsumer;
+import edu.wpi.first.wpilibj.PneumaticHub;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.TimedRobot;
+
+/**
+ * Decides when the compressor should run so it doesn't add to brownouts. While the battery is sagging the compressor
+ * is turned off, as long as there's enough stored air for a few more piston strokes, and while it isn't the compressor
+ * tops the tanks off. The pressure is never allowed to fall below a floor.
+ * <p>
+ * The pressure, battery voltage and compressor are all passed in so the scheduler can be run against a simulated tank.
+ */
+public class CompressorScheduler {
+
+    /**
+     * What the scheduler decided to do and why.
+     */
+    public enum Decision {
+        /**
+         * Running because the pressure is below the floor, regardless of load.
+         */
+        RUN_BELOW_FLOOR(true),
+        /**
+         * Running during high load because there isn't enough air left for the reserve strokes.
+         */
+        RUN_RESERVE(true),
+        /**
+         * Off because the robot is under high load and there's enough air.
+         */
+        DEFER_HIGH_LOAD(false),
+        /**
+         * Running to fill the tanks while the robot isn't under much load.
+         */
+        PREFILL(true),
+        /**
+         * Off because the tanks are full.
+         */
+        FULL(false);
+
+        public final boolean run;
+
+        Decision(boolean run) {
+            this.run = run;
+        }
+    }
+
+    private final AirConsumptionModel model;
+    private final double floorPSI;
+    private final double maxPSI;
+    private final double refillPSI;
+    private final double reserveStrokes;
+    private final double highLoadVoltage;
+    private final double recoveredVoltage;
+    private final DoubleSupplier pressure;
+    private final DoubleSupplier batteryVoltage;
+    private final BooleanConsumer compressor;
+    private StringLogEntry log;
+    private boolean highLoad;
+    private Decision decision;
+
+    /**
+     * Creates a new scheduler.
+     * @param model The air consumption model of the robot
+     * @param floorPSI The pressure the tanks should never fall below
+     * @param maxPSI The pressure to stop filling at
+     * @param refillPSI How far below max the pressure has to fall before topping off again
+     * @param reserveStrokes How many piston strokes worth of air above the floor to keep before deferring the compressor
+     * @param highLoadVoltage The battery voltage below which the robot is under high load
+     * @param recoveredVoltage The battery voltage above which the robot is no longer under high load, should be higher
+     * than {@code highLoadVoltage}
+     * @param pressure The stored pressure in PSI
+     * @param batteryVoltage The battery voltage
+     * @param compressor Turns the compressor on or off, only called when the decision changes
+     */
+    public CompressorScheduler(AirConsumptionModel model, double floorPSI, double maxPSI, double refillPSI, double reserveStrokes,
+            double highLoadVoltage, double recoveredVoltage, DoubleSupplier pressure, DoubleSupplier batteryVoltage, BooleanConsumer compressor) {
+        if (floorPSI >= maxPSI) throw new IllegalArgumentException("Floor: " + floorPSI + " must be less than max: " + maxPSI);
+        if (highLoadVoltage > recoveredVoltage) throw new IllegalArgumentException("High load voltage: " + highLoadVoltage
+            + " can't be greater than recovered voltage: " + recoveredVoltage);
+        this.model = model;
+        this.floorPSI = floorPSI;
+        this.maxPSI = maxPSI;
+        this.refillPSI = refillPSI;
+        this.reserveStrokes = reserveStrokes;
+        this.highLoadVoltage = highLoadVoltage;
+        this.recoveredVoltage = recoveredVoltage;
+        this.pressure = pressure;
+        this.batteryVoltage = batteryVoltage;
+        this.compressor = compressor;
+    }
+
+    /**
+     * Creates a scheduler that controls a pneumatic hub's compressor with its analog pressure sensor.
+     * The floor is 60 PSI, max is 120 PSI, and high load is below 10 V until the battery recovers above 11 V.
+     * @param hub The pneumatic hub
+     * @param sensorChannel The analog channel of the pressure sensor
+     * @param model The air consumption model of the robot
+     * @param reserveStrokes How many piston strokes worth of air above the floor to keep before deferring the compressor
+     * @return A new scheduler
+     */
+    public static CompressorScheduler forPneumaticHub(PneumaticHub hub, int sensorChannel, AirConsumptionModel model, double reserveStrokes) {
+        double floor = 60;
+        double max = 120;
+        return new CompressorScheduler(model, floor, max, 10, reserveStrokes, 10, 11,
+            () -> hub.getPressure(sensorChannel), RobotController::getBatteryVoltage, run -> {
+                if (run) {
+                    // In analog mode the hub only starts the compressor below the minimum pressure, so a minimum just
+                    // under max is what makes it run whenever the scheduler asks, like when pre-filling above the floor
+                    hub.enableCompressorAnalog(max - 1, max);
+                } else {
+                    hub.disableCompressor();
+                }
+            });
+    }
+
+    /**
+     * Logs every decision change to a DataLog.
+     * @param dataLog The log to write to
+     * @return This scheduler for chaining
+     */
+    public CompressorScheduler logTo(DataLog dataLog) {
+        log = new StringLogEntry(dataLog, "/Compressor Scheduler");
+        return this;
+    }
+
+    /**
+     * Runs the scheduler every loop.
+     * @param robot The robot to add the callback to
+     */
+    public void updatePeriodically(TimedRobot robot) {
+        robot.addPeriodic(this::update, TimedRobot.kDefaultPeriod);
+    }
+
+    /**
+     * Reads the pressure and battery voltage and turns the compressor on or off if the decision changed.
+     * @return The decision
+     */
+    public Decision update() {
+        double currentPressure = pressure.getAsDouble();
+        double voltage = batteryVoltage.getAsDouble();
+        Decision next = decide(currentPressure, voltage);
+        if (next != decision) {
+            if (decision == null || next.run != decision.run) {
+                compressor.accept(next.run);
+            }
+            if (log != null) {
+                log.append(next + " at " + Math.round(currentPressure) + " PSI, " + Math.round(voltage * 10) / 10.0 + " V");
+            }
+            decision = next;
+        }
+        return decision;
+    }
+
+    /**
+     * @return The last decision, null if the scheduler hasn't been updated yet
+     */
+    public Decision getDecision() {
+        return decision;
+    }
+
+    /**
+     * @return The pressure the scheduler tries to stay above while deferring, the floor plus the reserve strokes
+     */
+    public double getReservePressurePSI() {
+        return Math.min(maxPSI, floorPSI + reserveStrokes * model.getPressureDropPerStrokePSI());
+    }
+
+    private Decision decide(double currentPressure, double voltage) {
+        if (voltage < highLoadVoltage) {
+            highLoad = true;
+        } else if (voltage > recoveredVoltage) {
+            highLoad = false;
+        }
+        if (currentPressure < floorPSI) return Decision.RUN_BELOW_FLOOR;
+        if (highLoad) {
+            double reserve = getReservePressurePSI();
+            // Keep running a little past the reserve line once started so it doesn't chatter on and off
+            boolean reserving = decision == Decision.RUN_RESERVE;
+            if (currentPressure < reserve || (reserving && currentPressure < reserve + refillPSI)) return Decision.RUN_RESERVE;
+            return Decision.DEFER_HIGH_LOAD;
+        }
+        boolean filling = decision != null && decision.run;
+        if (currentPressure < maxPSI - refillPSI || (filling && currentPressure < maxPSI)) return Decision.PREFILL;
+        return Decision.FULL;
+    }
+
+}
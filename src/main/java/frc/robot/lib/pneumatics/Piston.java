@@ -4,11 +4,19 @@ import edu.wpi.first.wpilibj.Solenoid;
 
 /**
  * Convenience class for controlling a piston with two single solenoids.
+ * Pistons can either own their solenoids or be a view into a {@link PistonBank}, which batches writes.
  */
 public class Piston {
 
     private final Solenoid extend;
     private final Solenoid retract;
+    private final PistonBank bank;
+    private final int extendMask;
+    private final int retractMask;
+    private boolean extended;
+    private boolean retracted;
+    private long extensions;
+    private long retractions;
 
     /**
      * Creates a new piston.
@@ -18,12 +26,33 @@ public class Piston {
     public Piston(Solenoid extendSolenoid, Solenoid retractSolenoid) {
         extend = extendSolenoid;
         retract = retractSolenoid;
+        bank = null;
+        extendMask = 0;
+        retractMask = 0;
+    }
+
+    /**
+     * Creates a new piston controlled by a bank, use {@link PistonBank#createPiston(int, int)}.
+     */
+    Piston(PistonBank bank, int extendChannel, int retractChannel) {
+        extend = null;
+        retract = null;
+        this.bank = bank;
+        extendMask = 1 << extendChannel;
+        retractMask = 1 << retractChannel;
     }
 
     /**
      * Extends the piston.
      */
     public void extend() {
+        if (!extended) extensions++;
+        extended = true;
+        retracted = false;
+        if (bank != null) {
+            bank.set(extendMask | retractMask, extendMask);
+            return;
+        }
         extend.set(true);
         retract.set(false);
     }
@@ -32,6 +61,13 @@ public class Piston {
      * Retracts the piston.
      */
     public void retract() {
+        if (!retracted) retractions++;
+        extended = false;
+        retracted = true;
+        if (bank != null) {
+            bank.set(extendMask | retractMask, retractMask);
+            return;
+        }
         extend.set(false);
         retract.set(true);
     }
@@ -40,16 +76,49 @@ public class Piston {
      * Turns off all solenoids.
      */
     public void disable() {
+        extended = false;
+        retracted = false;
+        if (bank != null) {
+            bank.set(extendMask | retractMask, 0);
+            return;
+        }
         extend.set(false);
         retract.set(false);
     }
 
     /**
-     * Returns if the piston is currently extended.
+     * Returns if the piston is currently extended. For pistons in a bank this is the state that will be sent on the next flush.
      * @return True if the piston is extended or false if it isn't.
      */
     public boolean isExtended() {
+        if (bank != null) {
+            return bank.matches(extendMask | retractMask, extendMask);
+        }
         return extend.get() && !retract.get();
     }
 
+    /**
+     * Returns how many times the piston has been told to extend while it wasn't already extending.
+     * Each of these uses a cylinder's worth of air.
+     * @return The number of extensions
+     */
+    public long getExtendCount() {
+        return extensions;
+    }
+
+    /**
+     * Returns how many times the piston has been told to retract while it wasn't already retracting.
+     * @return The number of retractions
+     */
+    public long getRetractCount() {
+        return retractions;
+    }
+
+    /**
+     * @return The total number of extensions and retractions
+     */
+    public long getActuationCount() {
+        return extensions + retractions;
+    }
+
 }
@@ -0,0 +1,157 @@
+package frc.robot.lib.pneumatics;
+
+import edu.wpi.first.hal.util.AllocationException;
+import edu.wpi.first.wpilibj.PneumaticsBase;
+import edu.wpi.first.wpilibj.PneumaticsModuleType;
+import edu.wpi.first.wpilibj.TimedRobot;
+
+/**
+ * A group of pistons on one pneumatics module that are written together. Pistons only update the bank's desired state,
+ * and once per loop {@link #flush()} sends every solenoid in a single write, and only if something changed.
+ * Without a bank every piston change is two separate writes to the module, even if the state didn't change.
+ */
+public class PistonBank implements AutoCloseable {
+
+    /**
+     * Sends solenoid states to the module.
+     */
+    interface SolenoidWriter {
+        /**
+         * Sets the channels in {@code mask} to the matching bits of {@code values}.
+         */
+        void setSolenoids(int mask, int values);
+    }
+
+    private final PneumaticsBase module;
+    private final SolenoidWriter writer;
+    private int channelMask;
+    private int desired;
+    private int written;
+    private boolean hasWritten;
+    private long requestedWrites;
+    private long writes;
+
+    /**
+     * Creates a new bank.
+     * @param module The CAN ID of the pneumatics module
+     * @param moduleType The type of pneumatics module
+     */
+    public PistonBank(int module, PneumaticsModuleType moduleType) {
+        this(PneumaticsBase.getForType(module, moduleType));
+    }
+
+    private PistonBank(PneumaticsBase module) {
+        this(module, module::setSolenoids);
+    }
+
+    /**
+     * Creates a new bank that sends its writes somewhere other than the module, for tests.
+     * @param module The module to reserve channels on
+     * @param writer Where to send the writes
+     */
+    PistonBank(PneumaticsBase module, SolenoidWriter writer) {
+        this.module = module;
+        this.writer = writer;
+    }
+
+    /**
+     * Creates a new bank on the default pneumatics module.
+     * @param moduleType The type of pneumatics module
+     */
+    public PistonBank(PneumaticsModuleType moduleType) {
+        this(PneumaticsBase.getDefaultForType(moduleType), moduleType);
+    }
+
+    /**
+     * Creates a piston that's controlled by this bank.
+     * @param extendChannel The channel of the solenoid that causes the piston to extend.
+     * @param retractChannel The channel of the solenoid that causes the piston to retract.
+     * @return The new piston
+     */
+    public Piston createPiston(int extendChannel, int retractChannel) {
+        if (extendChannel == retractChannel) throw new IllegalArgumentException("Extend and retract channels must be different, got: " + extendChannel);
+        if (!module.checkSolenoidChannel(extendChannel)) throw new IllegalArgumentException("Invalid extend channel: " + extendChannel);
+        if (!module.checkSolenoidChannel(retractChannel)) throw new IllegalArgumentException("Invalid retract channel: " + retractChannel);
+        int mask = (1 << extendChannel) | (1 << retractChannel);
+        int allocated = module.checkAndReserveSolenoids(mask);
+        if (allocated != 0) {
+            throw new AllocationException("Solenoid channel(s) already allocated: " + Integer.toBinaryString(allocated));
+        }
+        channelMask |= mask;
+        return new Piston(this, extendChannel, retractChannel);
+    }
+
+    /**
+     * Sends the desired state of every piston in one write, if it's changed since the last write. Only the channels that
+     * changed are written.
+     */
+    public void flush() {
+        if (hasWritten && desired == written) return;
+        writer.setSolenoids(hasWritten ? desired ^ written : channelMask, desired);
+        written = desired;
+        hasWritten = true;
+        writes++;
+    }
+
+    /**
+     * Flushes the bank every loop.
+     * @param robot The robot to add the callback to
+     */
+    public void flushPeriodically(TimedRobot robot) {
+        robot.addPeriodic(this::flush, TimedRobot.kDefaultPeriod);
+    }
+
+    /**
+     * @return The number of individual solenoid writes the pistons would have made without the bank
+     */
+    public long getRequestedWrites() {
+        return requestedWrites;
+    }
+
+    /**
+     * @return The number of writes actually sent to the module
+     */
+    public long getWrites() {
+        return writes;
+    }
+
+    /**
+     * @return The number of writes the bank didn't have to send
+     */
+    public long getWritesSaved() {
+        return requestedWrites - writes;
+    }
+
+    /**
+     * @return The solenoids the bank will set on the next flush, bit n is channel n
+     */
+    public int getDesiredState() {
+        return desired;
+    }
+
+    /**
+     * Frees every channel used by the bank's pistons.
+     */
+    @Override
+    public void close() {
+        module.unreserveSolenoids(channelMask);
+        channelMask = 0;
+        module.close();
+    }
+
+    /**
+     * Sets the channels in {@code mask} to the matching bits of {@code values}.
+     */
+    void set(int mask, int values) {
+        requestedWrites += Integer.bitCount(mask);
+        desired = (desired & ~mask) | (values & mask);
+    }
+
+    /**
+     * @return If every channel in {@code mask} is set to the matching bit of {@code values}
+     */
+    boolean matches(int mask, int values) {
+        return (desired & mask) == (values & mask);
+    }
+
+}
@@ -0,0 +1,198 @@
+package frc.robot.lib.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.hardware.ParentDevice;
+import com.ctre.phoenix6.hardware.TalonFX;
+import com.ctre.phoenix6.signals.NeutralModeValue;
+
+import edu.wpi.first.wpilibj.TimedRobot;
+
+/**
+ * Sends blocking config changes like neutral mode off of the main thread so toggling them never causes a loop overrun.
+ * <p>
+ * Changes are queued by device and setting, and only sent when {@link #flush()} is called, usually once per loop with
+ * {@link #flushPeriodically(TimedRobot)}. If the same setting is changed more than once before it's sent only the last
+ * change is sent, so brake followed by coast in the same loop only sends coast.
+ */
+public class AsyncConfigDispatcher implements AutoCloseable {
+
+    private record Key(Object device, String setting) {}
+
+    private static class Pending {
+        private Supplier<StatusCode> action;
+        private final List<CompletableFuture<StatusCode>> futures = new ArrayList<>(1);
+    }
+
+    private final ConcurrentHashMap<Key, Pending> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final ExecutorService executor;
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    /**
+     * Creates a new dispatcher with its own background thread.
+     */
+    public AsyncConfigDispatcher() {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "AsyncConfigDispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a change to a device's setting. If the setting already has a change waiting to be sent it's replaced by this one.
+     * @param device The device to change
+     * @param setting The name of the setting, changes with the same device and name replace each other
+     * @param action The blocking call that makes the change
+     * @return A future that completes with the status of the call that was actually sent, which is a later change's
+     * if this one was replaced
+     */
+    public CompletableFuture<StatusCode> submit(ParentDevice device, String setting, Supplier<StatusCode> action) {
+        return enqueue(device, setting, action);
+    }
+
+    /**
+     * Queues a change to any object's setting, so changes can be queued without a device.
+     */
+    CompletableFuture<StatusCode> enqueue(Object device, String setting, Supplier<StatusCode> action) {
+        Objects.requireNonNull(action);
+        CompletableFuture<StatusCode> future = new CompletableFuture<>();
+        submitted.incrementAndGet();
+        pending.compute(new Key(Objects.requireNonNull(device), Objects.requireNonNull(setting)), (key, existing) -> {
+            if (existing == null) {
+                existing = new Pending();
+            } else {
+                coalesced.incrementAndGet();
+            }
+            existing.action = action;
+            existing.futures.add(future);
+            return existing;
+        });
+        return future;
+    }
+
+    /**
+     * Queues a neutral mode change.
+     * @param talon The talon to change
+     * @param mode The neutral mode
+     * @return A future that completes with the status of the neutral mode that was actually sent
+     */
+    public CompletableFuture<StatusCode> setNeutralMode(TalonFX talon, NeutralModeValue mode) {
+        return submit(talon, "NeutralMode", () -> talon.setNeutralMode(mode));
+    }
+
+    /**
+     * Queues putting every talon in brake mode, the non-blocking version of {@link Util#brakeMode(TalonFX...)}.
+     * @param talons The talons to change
+     * @return A future that completes once every talon's change has been sent
+     */
+    public CompletableFuture<Void> brakeMode(TalonFX... talons) {
+        return setNeutralMode(NeutralModeValue.Brake, talons);
+    }
+
+    /**
+     * Queues putting every talon in coast mode, the non-blocking version of {@link Util#coastMode(TalonFX...)}.
+     * @param talons The talons to change
+     * @return A future that completes once every talon's change has been sent
+     */
+    public CompletableFuture<Void> coastMode(TalonFX... talons) {
+        return setNeutralMode(NeutralModeValue.Coast, talons);
+    }
+
+    private CompletableFuture<Void> setNeutralMode(NeutralModeValue mode, TalonFX... talons) {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[talons.length];
+        for (int i = 0; i < talons.length; i++) {
+            futures[i] = setNeutralMode(talons[i], mode);
+        }
+        return CompletableFuture.allOf(futures);
+    }
+
+    /**
+     * Sends every queued change on the background thread. Doesn't block.
+     */
+    public void flush() {
+        if (!pending.isEmpty() && drainScheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    /**
+     * Flushes the dispatcher every loop.
+     * @param robot The robot to add the callback to
+     */
+    public void flushPeriodically(TimedRobot robot) {
+        robot.addPeriodic(this::flush, TimedRobot.kDefaultPeriod);
+    }
+
+    /**
+     * @return The number of changes that have been queued
+     */
+    public long getSubmittedCount() {
+        return submitted.get();
+    }
+
+    /**
+     * @return The number of changes that were replaced by a later change before being sent
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    /**
+     * @return The number of changes that have been sent to devices
+     */
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    /**
+     * @return The number of sent changes that returned an error or threw
+     */
+    public long getFailureCount() {
+        return failures.get();
+    }
+
+    /**
+     * Stops the background thread, changes that have already been flushed are still sent.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        for (Key key : pending.keySet()) {
+            Pending change = pending.remove(key);
+            if (change == null) continue;
+            sent.incrementAndGet();
+            try {
+                StatusCode code = change.action.get();
+                if (code.isError()) failures.incrementAndGet();
+                for (var future : change.futures) {
+                    future.complete(code);
+                }
+            } catch (RuntimeException e) {
+                failures.incrementAndGet();
+                for (var future : change.futures) {
+                    future.completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+}
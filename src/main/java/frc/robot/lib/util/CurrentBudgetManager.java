@@ -0,0 +1,337 @@
+package frc.robot.lib.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
+
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.configs.CurrentLimitsConfigs;
+import com.ctre.phoenix6.hardware.TalonFX;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import edu.wpi.first.util.datalog.StringLogEntry;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.TimedRobot;
+
+/**
+ * Shares a robot-wide supply current budget between TalonFXs by priority, so mechanisms spiking together can't pull the
+ * battery into a brownout. Every update the budget is worked out from a model of the battery, then split up as new
+ * supply current limits.
+ * <p>
+ * The battery is modeled as an open circuit voltage behind a fixed resistance. The open circuit voltage is estimated
+ * from the bus voltage and the total current, and the budget is the current that would sag the bus to the minimum
+ * voltage, less a reserve for everything that isn't managed.
+ * <p>
+ * Every device is guaranteed its minimum limit. Critical devices are then given their maximum limit whatever they're
+ * drawing, so they never wait on a limit increase. What's left is handed out to the other priorities in order up to what
+ * each device is drawing plus some headroom, and anything left after that is spread over every device towards its
+ * maximum limit so idle devices can start moving. When there's enough for everyone every device gets its maximum. Decreases are written right away, increases at most every few loops so the limits don't
+ * chatter, and changes smaller than an amp aren't written at all.
+ * <p>
+ * The currents, voltages and limit writes are all passed in so the manager can be run against a simulated battery.
+ */
+public class CurrentBudgetManager {
+
+    /**
+     * How important a device's current is, higher priorities are given current first.
+     */
+    public enum Priority {
+        /**
+         * Never limited below its maximum unless the budget can't cover it, like the drivetrain.
+         */
+        CRITICAL,
+        /**
+         * Mechanisms that need to be fast, like a shooter.
+         */
+        HIGH,
+        /**
+         * Everything else.
+         */
+        NORMAL,
+        /**
+         * Mechanisms that can be slow, like a climber during a match.
+         */
+        LOW
+    }
+
+    /**
+     * How much more than its draw a device is given before lower priorities get current.
+     */
+    private static final double kDemandHeadroom = 1.25;
+    /**
+     * Amps given to each device on top of its scaled draw, so a device starting to move isn't starved.
+     */
+    private static final double kDemandMarginAmps = 10;
+    /**
+     * Limit changes smaller than this aren't written.
+     */
+    private static final double kMinChangeAmps = 1;
+    /**
+     * The fewest loops between increases of a device's limit.
+     */
+    private static final int kIncreaseIntervalLoops = 5;
+    /**
+     * How much each update counts towards the open circuit voltage estimate.
+     */
+    private static final double kOpenCircuitGain = 0.05;
+
+    private static final class Device {
+        private final String name;
+        private final Priority priority;
+        private final double minAmps;
+        private final double maxAmps;
+        private final DoubleSupplier supplyCurrent;
+        private final DoubleSupplier supplyVoltage;
+        private final DoubleConsumer setLimit;
+        private double current;
+        private double allocated;
+        private double applied;
+        private long lastIncrease = Long.MIN_VALUE / 2;
+
+        private Device(String name, Priority priority, double minAmps, double maxAmps, DoubleSupplier supplyCurrent,
+                DoubleSupplier supplyVoltage, DoubleConsumer setLimit) {
+            this.name = name;
+            this.priority = priority;
+            this.minAmps = minAmps;
+            this.maxAmps = maxAmps;
+            this.supplyCurrent = supplyCurrent;
+            this.supplyVoltage = supplyVoltage;
+            this.setLimit = setLimit;
+            applied = maxAmps;
+        }
+    }
+
+    private final double batteryResistance;
+    private final double minVoltage;
+    private final DoubleSupplier batteryVoltage;
+    private final List<Device> devices = new ArrayList<>();
+    private double reservedAmps;
+    private double openCircuitVoltage = Double.NaN;
+    private double budget = Double.POSITIVE_INFINITY;
+    private long loops;
+    private long writes;
+    private StringLogEntry log;
+    private DoubleLogEntry budgetLog;
+
+    /**
+     * Creates a new manager with no devices.
+     * @param batteryResistance The resistance of the battery and main wiring in ohms, usually around 0.02
+     * @param minVoltage The lowest the bus voltage should sag to, keep this above the brownout voltage
+     * @param batteryVoltage The bus voltage
+     */
+    public CurrentBudgetManager(double batteryResistance, double minVoltage, DoubleSupplier batteryVoltage) {
+        if (!(batteryResistance > 0)) throw new IllegalArgumentException("Battery resistance must be positive, got: " + batteryResistance);
+        if (!(minVoltage > 0)) throw new IllegalArgumentException("Minimum voltage must be positive, got: " + minVoltage);
+        this.batteryResistance = batteryResistance;
+        this.minVoltage = minVoltage;
+        this.batteryVoltage = batteryVoltage;
+    }
+
+    /**
+     * Creates a new manager that reads the battery voltage from the roboRIO and keeps the bus above 7.5 V.
+     * @param batteryResistance The resistance of the battery and main wiring in ohms, usually around 0.02
+     */
+    public CurrentBudgetManager(double batteryResistance) {
+        this(batteryResistance, 7.5, RobotController::getBatteryVoltage);
+    }
+
+    /**
+     * Sets aside current for loads that aren't managed, like the roboRIO, radio and other motor controllers.
+     * @param amps The current to set aside
+     * @return This manager for chaining
+     */
+    public CurrentBudgetManager setReservedCurrent(double amps) {
+        if (amps < 0) throw new IllegalArgumentException("Reserved current must be non-negative, got: " + amps);
+        reservedAmps = amps;
+        return this;
+    }
+
+    /**
+     * Logs every limit change and the budget to a DataLog.
+     * @param dataLog The log to write to
+     * @return This manager for chaining
+     */
+    public CurrentBudgetManager logTo(DataLog dataLog) {
+        log = new StringLogEntry(dataLog, "/Current Budget/Changes");
+        budgetLog = new DoubleLogEntry(dataLog, "/Current Budget/Budget (A)");
+        return this;
+    }
+
+    /**
+     * Manages a talon's supply current limit. Its supply current and voltage are read from the cached signals, so they
+     * must be refreshed elsewhere like with {@code TalonFXLogger.refreshAllLoggedTalonFX}. Limits are written through
+     * the dispatcher so they don't block, and only the talon's supply limit is changed.
+     * @param talon The talon to manage
+     * @param priority How important the talon's current is
+     * @param minAmps The lowest supply current limit the talon can be given
+     * @param maxAmps The supply current limit the talon is given when there's enough current
+     * @param dispatcher The dispatcher to send limit changes through, it must be flushed every loop
+     * @return This manager for chaining
+     */
+    public CurrentBudgetManager addTalon(TalonFX talon, Priority priority, double minAmps, double maxAmps, AsyncConfigDispatcher dispatcher) {
+        return addDevice("TalonFX " + talon.getDeviceID(), priority, minAmps, maxAmps,
+            () -> talon.getSupplyCurrent(false).getValueAsDouble(), () -> talon.getSupplyVoltage(false).getValueAsDouble(),
+            limit -> dispatcher.submit(talon, "SupplyCurrentLimit", () -> applySupplyLimit(talon, limit)));
+    }
+
+    /**
+     * Manages a device's supply current limit.
+     * @param name The name of the device, used in the log
+     * @param priority How important the device's current is
+     * @param minAmps The lowest supply current limit the device can be given
+     * @param maxAmps The supply current limit the device is given when there's enough current, assumed to be its
+     * current limit to begin with
+     * @param supplyCurrent The supply current the device is drawing
+     * @param supplyVoltage The voltage at the device, NaN if it isn't known
+     * @param setLimit Sets the device's supply current limit, only called when the limit changes
+     * @return This manager for chaining
+     */
+    public CurrentBudgetManager addDevice(String name, Priority priority, double minAmps, double maxAmps, DoubleSupplier supplyCurrent,
+            DoubleSupplier supplyVoltage, DoubleConsumer setLimit) {
+        if (!(minAmps > 0)) throw new IllegalArgumentException("Minimum current must be positive, got: " + minAmps);
+        if (maxAmps < minAmps) throw new IllegalArgumentException("Max current: " + maxAmps + " can't be less than min current: " + minAmps);
+        devices.add(new Device(name, priority, minAmps, maxAmps, supplyCurrent, supplyVoltage, setLimit));
+        return this;
+    }
+
+    /**
+     * Runs the manager every loop.
+     * @param robot The robot to add the callback to
+     */
+    public void updatePeriodically(TimedRobot robot) {
+        robot.addPeriodic(this::update, TimedRobot.kDefaultPeriod);
+    }
+
+    /**
+     * Reads the currents and voltages, splits up the budget and writes any limits that changed.
+     */
+    public void update() {
+        loops++;
+        double totalCurrent = 0;
+        // The lowest voltage anywhere on the bus, wiring to a device can sag more than the battery
+        double busVoltage = batteryVoltage.getAsDouble();
+        for (Device device : devices) {
+            device.current = Math.max(0, device.supplyCurrent.getAsDouble());
+            totalCurrent += device.current;
+            double voltage = device.supplyVoltage.getAsDouble();
+            if (voltage > 0 && voltage < busVoltage) busVoltage = voltage;
+        }
+        double estimate = busVoltage + (totalCurrent + reservedAmps) * batteryResistance;
+        openCircuitVoltage = Double.isNaN(openCircuitVoltage) ? estimate : openCircuitVoltage + (estimate - openCircuitVoltage) * kOpenCircuitGain;
+        budget = Math.max(0, (openCircuitVoltage - minVoltage) / batteryResistance - reservedAmps);
+        if (budgetLog != null) budgetLog.append(budget);
+        allocate(budget);
+        for (Device device : devices) {
+            write(device);
+        }
+    }
+
+    /**
+     * @return The current shared between the devices in the latest update
+     */
+    public double getBudget() {
+        return budget;
+    }
+
+    /**
+     * @return The estimated voltage of the battery with no load
+     */
+    public double getOpenCircuitVoltage() {
+        return openCircuitVoltage;
+    }
+
+    /**
+     * @param name The name of the device
+     * @return The limit the device was last given
+     */
+    public double getLimit(String name) {
+        return getDevice(name).applied;
+    }
+
+    /**
+     * @return How many limit changes have been written
+     */
+    public long getWriteCount() {
+        return writes;
+    }
+
+    /**
+     * Splits the budget, every device gets its minimum, then critical devices their maximum, then the others their demand
+     * in priority order, then a share of what's left.
+     */
+    private void allocate(double budget) {
+        double remaining = budget;
+        for (Device device : devices) {
+            device.allocated = device.minAmps;
+            remaining -= device.minAmps;
+        }
+        for (Priority priority : Priority.values()) {
+            remaining = allocateUpTo(priority, remaining, priority != Priority.CRITICAL);
+        }
+        allocateUpTo(null, remaining, false);
+    }
+
+    /**
+     * Raises the limits of a priority's devices towards their demand or maximum, sharing in proportion to what each
+     * device still wants if there isn't enough for all of them.
+     * @param priority The priority of the devices to raise, null for every device
+     * @return The budget that's left
+     */
+    private double allocateUpTo(Priority priority, double remaining, boolean demand) {
+        if (remaining <= 0) return 0;
+        double wanted = 0;
+        for (Device device : devices) {
+            if (priority == null || device.priority == priority) wanted += target(device, demand) - device.allocated;
+        }
+        if (wanted <= 0) return remaining;
+        double fraction = Math.min(1, remaining / wanted);
+        for (Device device : devices) {
+            if (priority == null || device.priority == priority) device.allocated += (target(device, demand) - device.allocated) * fraction;
+        }
+        return remaining - wanted * fraction;
+    }
+
+    private static double target(Device device, boolean demand) {
+        if (!demand) return device.maxAmps;
+        return MathUtil.clamp(device.current * kDemandHeadroom + kDemandMarginAmps, device.allocated, device.maxAmps);
+    }
+
+    private void write(Device device) {
+        double limit = device.allocated;
+        double change = limit - device.applied;
+        // Small changes are still written when they return the device to its maximum
+        if (change == 0 || (Math.abs(change) < kMinChangeAmps && limit != device.maxAmps)) return;
+        if (change > 0) {
+            if (loops - device.lastIncrease < kIncreaseIntervalLoops) return;
+            device.lastIncrease = loops;
+        }
+        if (log != null) {
+            log.append(device.name + ": " + Math.round(device.applied * 10) / 10.0 + " -> " + Math.round(limit * 10) / 10.0
+                + " A, budget " + Math.round(budget) + " A");
+        }
+        device.applied = limit;
+        device.setLimit.accept(limit);
+        writes++;
+    }
+
+    private Device getDevice(String name) {
+        for (Device device : devices) {
+            if (device.name.equals(name)) return device;
+        }
+        throw new IllegalArgumentException("No device named " + name);
+    }
+
+    /**
+     * Changes only the supply current limit of a talon, leaving its other current limits alone.
+     */
+    private static StatusCode applySupplyLimit(TalonFX talon, double limit) {
+        CurrentLimitsConfigs configs = new CurrentLimitsConfigs();
+        StatusCode code = talon.getConfigurator().refresh(configs);
+        if (!code.isOK()) return code;
+        return talon.getConfigurator().apply(configs.withSupplyCurrentLimit(limit).withSupplyCurrentLimitEnable(true));
+    }
+
+}
@@ -0,0 +1,68 @@
+package frc.robot.lib.util;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A fixed size, lock-free queue of doubles for passing values from exactly one producer thread to exactly one consumer
+ * thread, like samples from a sensor thread to the main loop. Never allocates after construction and never blocks,
+ * {@link #offer(double)} returns false when the queue is full.
+ * <p>
+ * Using it from more than one producer or more than one consumer thread will lose or duplicate values.
+ */
+public class DoubleSpscQueue extends SpscRing {
+
+    private final double[] buffer;
+
+    /**
+     * Creates a new queue.
+     * @param capacity The maximum number of values the queue can hold, must be a power of two
+     */
+    public DoubleSpscQueue(int capacity) {
+        super(capacity);
+        buffer = new double[capacity];
+    }
+
+    /**
+     * Producer only. Adds a value to the queue if there's room.
+     * @param value The value to add
+     * @return If the value was added, false if the queue is full
+     */
+    public boolean offer(double value) {
+        long position = claim();
+        if (position < 0) return false;
+        buffer[(int) position & mask] = value;
+        commit(position);
+        return true;
+    }
+
+    /**
+     * Consumer only. Removes the oldest value from the queue, check {@link #isEmpty()} first.
+     * @return The oldest value
+     * @throws NoSuchElementException If the queue is empty
+     */
+    public double poll() {
+        if (available() == 0) throw new NoSuchElementException("Queue is empty");
+        long position = readPosition();
+        double value = buffer[(int) position & mask];
+        release(position + 1);
+        return value;
+    }
+
+    /**
+     * Consumer only. Removes as many values as are available and fit in the destination, oldest first.
+     * @param destination The array to copy the values into
+     * @return The number of values removed
+     */
+    public int drainTo(double[] destination) {
+        int count = Math.min(available(), destination.length);
+        if (count == 0) return 0;
+        long position = readPosition();
+        int start = (int) position & mask;
+        int first = Math.min(count, capacity - start);
+        System.arraycopy(buffer, start, destination, 0, first);
+        System.arraycopy(buffer, 0, destination, first, count - first);
+        release(position + count);
+        return count;
+    }
+
+}
@@ -58,7 +58,18 @@ public class DynamicSlewRateLimiter {
     * @return The filtered value, which will not change faster than the slew rate.
     */
     public double calculate(double input) {
-        double currentTime = MathSharedStore.getTimestamp();
+        return calculate(input, MathSharedStore.getTimestamp());
+    }
+
+    /**
+    * Filters the input to limit its slew rate using a timestamp the caller already has, so several limiters
+    * updated in the same loop don't each have to read the clock.
+    *
+    * @param input The input value whose slew rate is to be limited.
+    * @param currentTime The current time in seconds, on the same clock as {@link MathSharedStore#getTimestamp()}.
+    * @return The filtered value, which will not change faster than the slew rate.
+    */
+    public double calculate(double input, double currentTime) {
         double elapsedTime = currentTime - prevTime;
         double sign = Math.signum(prevVal);
 
@@ -0,0 +1,62 @@
+package frc.robot.lib.util;
+
+/**
+ * An exponential moving average, {@code y = y + alpha * (x - y)}. O(1) with no history at all.
+ */
+public class ExponentialMovingAverage {
+
+    private final double alpha;
+    private double value;
+    private boolean initialized;
+
+    /**
+     * Creates a new exponential moving average.
+     * @param alpha How much of each new input to use, in the range (0, 1]. 1 means no filtering.
+     */
+    public ExponentialMovingAverage(double alpha) {
+        if (!(alpha > 0 && alpha <= 1)) throw new IllegalArgumentException("Alpha must be in the range (0, 1], got: " + alpha);
+        this.alpha = alpha;
+    }
+
+    /**
+     * Creates a new exponential moving average from a time constant, matching
+     * {@link edu.wpi.first.math.filter.LinearFilter#singlePoleIIR(double, double)}.
+     * @param timeConstant The time constant in seconds
+     * @param period The period in seconds between inputs
+     * @return A new exponential moving average
+     */
+    public static ExponentialMovingAverage fromTimeConstant(double timeConstant, double period) {
+        return new ExponentialMovingAverage(1 - Math.exp(-period / timeConstant));
+    }
+
+    /**
+     * Adds an input and returns the new average. The first input is used as-is so the average doesn't start at zero.
+     * @param input The new input
+     * @return The average
+     */
+    public double calculate(double input) {
+        if (!initialized) {
+            value = input;
+            initialized = true;
+        } else {
+            value += alpha * (input - value);
+        }
+        return value;
+    }
+
+    /**
+     * @return The last average calculated
+     */
+    public double lastValue() {
+        return value;
+    }
+
+    /**
+     * Resets the average so the next input is used as-is.
+     */
+    public void reset() {
+        value = 0;
+        initialized = false;
+    }
+
+}
@@ -0,0 +1,243 @@
+package frc.robot.lib.util;
+
+import java.util.Arrays;
+
+/**
+ * A lookup table that maps an input onto one or more outputs by interpolating between breakpoints.
+ * Useful for things like mapping distance to shooter RPM and hood angle with a single lookup.
+ * <p>
+ * All data is stored in primitive arrays and everything that doesn't depend on the input, segment slopes and
+ * cubic tangents, is computed once when the table is built. Lookups are O(1) when the breakpoints are uniformly
+ * spaced and O(log n) otherwise, and never allocate.
+ */
+public class InterpolatingTable {
+
+    /**
+     * How values between breakpoints are calculated.
+     */
+    public enum Mode {
+        /**
+         * Straight lines between breakpoints.
+         */
+        LINEAR,
+        /**
+         * Monotone cubic Hermite spline (Fritsch-Carlson), smooth between breakpoints and never overshoots the data.
+         */
+        MONOTONE_CUBIC
+    }
+
+    private static final double kUniformTolerance = 1e-9;
+
+    private final Mode mode;
+    private final boolean clamp;
+    private final int outputs;
+    private final double[] x;
+    // Row-major, y[i * outputs + j] is output j at breakpoint i
+    private final double[] y;
+    // slope[i * outputs + j] is the slope of output j on segment [i, i + 1]
+    private final double[] slope;
+    // tangent[i * outputs + j] is the cubic tangent of output j at breakpoint i, only used for MONOTONE_CUBIC
+    private final double[] tangent;
+    private final boolean uniform;
+    private final double inverseStep;
+
+    /**
+     * Creates a new table.
+     * @param mode How to interpolate between breakpoints
+     * @param clamp Whether inputs outside of the table should be clamped to the first or last breakpoint,
+     * if false the first or last segment is extended linearly
+     * @param x The breakpoints, must be strictly increasing and have at least two values
+     * @param y The outputs at each breakpoint, {@code y[i]} holds every output for breakpoint {@code x[i]} and all rows
+     * must be the same length
+     */
+    public InterpolatingTable(Mode mode, boolean clamp, double[] x, double[]... y) {
+        if (x.length < 2) throw new IllegalArgumentException("Table needs at least two breakpoints, got: " + x.length);
+        if (y.length != x.length) throw new IllegalArgumentException("Number of rows: " + y.length + " != number of breakpoints: " + x.length);
+        this.mode = mode;
+        this.clamp = clamp;
+        this.outputs = y[0].length;
+        if (outputs == 0) throw new IllegalArgumentException("Rows must have at least one output");
+        this.x = Arrays.copyOf(x, x.length);
+        this.y = new double[x.length * outputs];
+        for (int i = 0; i < x.length; i++) {
+            if (y[i].length != outputs) throw new IllegalArgumentException("Row " + i + " has " + y[i].length + " outputs, expected " + outputs);
+            if (i > 0 && !(x[i] > x[i - 1])) throw new IllegalArgumentException("Breakpoints must be strictly increasing, x[" + i + "] = " + x[i]);
+            System.arraycopy(y[i], 0, this.y, i * outputs, outputs);
+        }
+
+        int segments = x.length - 1;
+        slope = new double[segments * outputs];
+        for (int i = 0; i < segments; i++) {
+            double dx = x[i + 1] - x[i];
+            for (int j = 0; j < outputs; j++) {
+                slope[i * outputs + j] = (this.y[(i + 1) * outputs + j] - this.y[i * outputs + j]) / dx;
+            }
+        }
+        tangent = mode == Mode.MONOTONE_CUBIC ? computeTangents() : null;
+
+        double step = (x[segments] - x[0]) / segments;
+        boolean evenlySpaced = true;
+        for (int i = 0; i < segments; i++) {
+            if (Math.abs((x[i + 1] - x[i]) - step) > kUniformTolerance * Math.max(1, Math.abs(step))) {
+                evenlySpaced = false;
+                break;
+            }
+        }
+        uniform = evenlySpaced;
+        inverseStep = 1 / step;
+    }
+
+    /**
+     * Creates a new piecewise linear table with a single output.
+     * @param clamp Whether inputs outside of the table should be clamped to the first or last breakpoint
+     * @param x The breakpoints, must be strictly increasing
+     * @param y The output at each breakpoint
+     */
+    public InterpolatingTable(boolean clamp, double[] x, double[] y) {
+        this(Mode.LINEAR, clamp, x, toRows(y));
+    }
+
+    /**
+     * @return The number of outputs in every row
+     */
+    public int getOutputCount() {
+        return outputs;
+    }
+
+    /**
+     * @return The number of breakpoints in the table
+     */
+    public int size() {
+        return x.length;
+    }
+
+    /**
+     * @return The interpolation mode of the table
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Looks up the first output of the table.
+     * @param input The value to look up
+     * @return The interpolated first output
+     */
+    public double calculate(double input) {
+        return calculate(input, 0);
+    }
+
+    /**
+     * Looks up a single output of the table.
+     * @param input The value to look up
+     * @param output Which output to return
+     * @return The interpolated output
+     */
+    public double calculate(double input, int output) {
+        if (output < 0 || output >= outputs) throw new IndexOutOfBoundsException("Output " + output + " out of range for " + outputs + " outputs");
+        if (clamp) input = Math.max(x[0], Math.min(input, x[x.length - 1]));
+        return evaluate(segment(input), input, output);
+    }
+
+    /**
+     * Looks up every output of the table at once, the segment search is only done once.
+     * @param input The value to look up
+     * @param result The array to write the outputs to, must have a length of at least {@link #getOutputCount()}
+     * @return {@code result} for convenience
+     */
+    public double[] calculate(double input, double[] result) {
+        if (result.length < outputs) throw new IllegalArgumentException("Result array length: " + result.length + " < outputs: " + outputs);
+        if (clamp) input = Math.max(x[0], Math.min(input, x[x.length - 1]));
+        int i = segment(input);
+        for (int j = 0; j < outputs; j++) {
+            result[j] = evaluate(i, input, j);
+        }
+        return result;
+    }
+
+    /**
+     * Finds the segment [x[i], x[i + 1]] that the input falls in, inputs outside of the table use the first or last segment.
+     */
+    private int segment(double input) {
+        int last = x.length - 2;
+        if (input <= x[0]) return 0;
+        if (input >= x[last + 1]) return last;
+        if (uniform) {
+            int i = (int) ((input - x[0]) * inverseStep);
+            // Guard against floating point error putting us one segment off
+            if (i > last) i = last;
+            if (input < x[i]) i--;
+            else if (input >= x[i + 1] && i < last) i++;
+            return i;
+        }
+        int low = 0;
+        int high = last;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (x[mid] <= input) low = mid;
+            else high = mid - 1;
+        }
+        return low;
+    }
+
+    private double evaluate(int i, double input, int j) {
+        int index = i * outputs + j;
+        double t = input - x[i];
+        if (mode == Mode.LINEAR || input < x[0] || input > x[x.length - 1]) {
+            // Extrapolation is always linear so a cubic can't run away outside of the data
+            return y[index] + slope[index] * t;
+        }
+        double h = x[i + 1] - x[i];
+        double s = t / h;
+        double s2 = s * s;
+        double s3 = s2 * s;
+        double h00 = 2 * s3 - 3 * s2 + 1;
+        double h10 = s3 - 2 * s2 + s;
+        double h01 = -2 * s3 + 3 * s2;
+        double h11 = s3 - s2;
+        return h00 * y[index] + h10 * h * tangent[index] + h01 * y[index + outputs] + h11 * h * tangent[index + outputs];
+    }
+
+    /**
+     * Fritsch-Carlson tangents, limited so every segment stays monotone.
+     */
+    private double[] computeTangents() {
+        int n = x.length;
+        double[] m = new double[n * outputs];
+        for (int j = 0; j < outputs; j++) {
+            m[j] = slope[j];
+            m[(n - 1) * outputs + j] = slope[(n - 2) * outputs + j];
+            for (int i = 1; i < n - 1; i++) {
+                double before = slope[(i - 1) * outputs + j];
+                double after = slope[i * outputs + j];
+                m[i * outputs + j] = before * after <= 0 ? 0 : (before + after) / 2;
+            }
+            for (int i = 0; i < n - 1; i++) {
+                double delta = slope[i * outputs + j];
+                if (delta == 0) {
+                    m[i * outputs + j] = 0;
+                    m[(i + 1) * outputs + j] = 0;
+                    continue;
+                }
+                double alpha = m[i * outputs + j] / delta;
+                double beta = m[(i + 1) * outputs + j] / delta;
+                double magnitude = alpha * alpha + beta * beta;
+                if (magnitude > 9) {
+                    double tau = 3 / Math.sqrt(magnitude);
+                    m[i * outputs + j] = tau * alpha * delta;
+                    m[(i + 1) * outputs + j] = tau * beta * delta;
+                }
+            }
+        }
+        return m;
+    }
+
+    private static double[][] toRows(double[] y) {
+        double[][] rows = new double[y.length][];
+        for (int i = 0; i < y.length; i++) {
+            rows[i] = new double[] {y[i]};
+        }
+        return rows;
+    }
+
+}
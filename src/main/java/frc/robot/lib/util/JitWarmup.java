@@ -0,0 +1,269 @@
+package frc.robot.lib.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntToDoubleFunction;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.StringLogEntry;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.TimedRobot;
+
+/**
+ * Runs hot code paths with synthetic data while the robot is disabled so the JIT has compiled them before the match
+ * starts. Without this the first loops of autonomous run interpreted code and overrun.
+ * <p>
+ * Tasks are run round-robin for a limited amount of time each loop until every task has run its target number of
+ * iterations. Tasks must not have side effects on hardware, they should only do math on data they make up. Each
+ * iteration returns a double which is kept so the JIT can't optimize the work away.
+ * <p>
+ * When every task is done the report is sent to the driver station once, and to the DataLog if {@link #logTo(DataLog)}
+ * was called.
+ */
+public class JitWarmup {
+
+    /**
+     * Roughly how many calls it takes for HotSpot to compile a method with C2.
+     */
+    public static final int kDefaultIterations = 20_000;
+
+    private static class Task {
+        private final String name;
+        private final int iterations;
+        private final IntToDoubleFunction body;
+        private int completed;
+        private long nanos;
+
+        private Task(String name, int iterations, IntToDoubleFunction body) {
+            this.name = name;
+            this.iterations = iterations;
+            this.body = body;
+        }
+    }
+
+    private final List<Task> tasks = new ArrayList<>();
+    private final long budgetNanos;
+    private int next;
+    private int loops;
+    private boolean complete;
+    private double sink;
+    private StringLogEntry log;
+
+    /**
+     * Creates a new warm-up with nothing registered.
+     * @param budgetSeconds The longest to spend warming up each loop, keep this well under the loop period
+     */
+    public JitWarmup(double budgetSeconds) {
+        if (!(budgetSeconds > 0)) throw new IllegalArgumentException("Budget must be positive, got: " + budgetSeconds);
+        budgetNanos = (long) (budgetSeconds * 1e9);
+    }
+
+    /**
+     * Creates a new warm-up with a 5 ms budget per loop.
+     */
+    public JitWarmup() {
+        this(0.005);
+    }
+
+    /**
+     * Logs the report to a DataLog when warm-up is complete.
+     * @param dataLog The log to write to
+     * @return This warm-up for chaining
+     */
+    public JitWarmup logTo(DataLog dataLog) {
+        log = new StringLogEntry(dataLog, "/JIT Warmup");
+        return this;
+    }
+
+    /**
+     * Registers a code path to warm up.
+     * @param name The name of the task, used in the report
+     * @param iterations How many times to run the task
+     * @param body The code to run, it's passed the iteration number to vary its inputs with and should return a value
+     * computed from its work
+     * @return This warm-up for chaining
+     */
+    public JitWarmup add(String name, int iterations, IntToDoubleFunction body) {
+        if (iterations < 1) throw new IllegalArgumentException("Iterations must be positive, got: " + iterations);
+        tasks.add(new Task(name, iterations, body));
+        complete = false;
+        return this;
+    }
+
+    /**
+     * Registers a code path to warm up {@link #kDefaultIterations} times.
+     * @param name The name of the task, used in the report
+     * @param body The code to run, it's passed the iteration number to vary its inputs with and should return a value
+     * computed from its work
+     * @return This warm-up for chaining
+     */
+    public JitWarmup add(String name, IntToDoubleFunction body) {
+        return add(name, kDefaultIterations, body);
+    }
+
+    /**
+     * Registers the math in {@link Util}, {@link DriveUtil}, {@link Encoder} and the filters.
+     * @return This warm-up for chaining
+     */
+    public JitWarmup addUtilTasks() {
+        InterpolatingTable table = new InterpolatingTable(InterpolatingTable.Mode.MONOTONE_CUBIC, true,
+            new double[] {1, 2, 3, 4, 5}, new double[] {2000, 25}, new double[] {2600, 28}, new double[] {3100, 31},
+            new double[] {3500, 33}, new double[] {3800, 34});
+        RangeTransformer transformer = new RangeTransformer(-1, 1, 0, 1, true);
+        SlewRateLimiterBank bank = new SlewRateLimiterBank(3, 3, 6).setVectorChannels(0, 1);
+        double[] bankInputs = new double[3];
+        double[] tableResult = new double[2];
+        ExponentialMovingAverage ema = new ExponentialMovingAverage(0.2);
+        RunningMean mean = new RunningMean(10);
+        add("Util", i -> {
+            double x = syntheticInput(i);
+            double angle = x * 4 * Math.PI;
+            return Util.deadband(x, 0.1) + Util.clamp(x * 2, 1) + Util.decay(x, 0.05) + Util.lerp(-1, 1, x)
+                + Util.boundedAngle(angle) + Util.boundedAngleDegrees(Math.toDegrees(angle)) + Util.boundedAnglePositive(angle)
+                + Util.boundedAngle(Rotation2d.fromRadians(angle)).getRadians() + (Util.epsilonEquals(x, 0.5, 1e-3) ? 1 : 0)
+                + (Util.inRange(x, 0.5) ? 1 : 0);
+        });
+        add("DriveUtil", i -> {
+            double speed = syntheticInput(i);
+            double turn = syntheticInput(i + 7);
+            var normalized = DriveUtil.normalizeValues(speed + turn, speed - turn);
+            return DriveUtil.processDeadband(speed, 0.1, 1.2) + DriveUtil.squareKeepSign(turn) + DriveUtil.powKeepSign(speed, 2.5)
+                + DriveUtil.constantCurvature(speed, turn, 0.02) + normalized.getFirst() + normalized.getSecond();
+        });
+        add("Encoder", i -> {
+            double x = syntheticInput(i) * 100;
+            return Encoder.toDistance(x, 6.75, 0.1) + Encoder.fromDistance(x, 6.75, 0.1) + Encoder.toVelocity(x, 6.75, 0.1)
+                + Encoder.fromVelocity(x, 6.75, 0.1) + Encoder.toRPM(x, 6.75) + Encoder.fromRPM(x, 6.75);
+        });
+        add("Filters", i -> {
+            double x = syntheticInput(i);
+            bankInputs[0] = x;
+            bankInputs[1] = syntheticInput(i + 3);
+            bankInputs[2] = syntheticInput(i + 5);
+            double[] limited = bank.calculate(bankInputs, i * TimedRobot.kDefaultPeriod);
+            table.calculate(3 + 2 * x, tableResult);
+            return limited[0] + limited[2] + tableResult[0] + tableResult[1] + transformer.calculate(x) + ema.calculate(x)
+                + mean.calculate(x);
+        });
+        return this;
+    }
+
+    /**
+     * Warms up for the budget while the robot is disabled, call this in disabledPeriodic. Does nothing once complete.
+     * The report is published once, on the loop warm-up completes.
+     * @return If warm-up is complete
+     */
+    public boolean run() {
+        if (complete) return true;
+        if (tasks.isEmpty()) {
+            finish();
+            return true;
+        }
+        loops++;
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos;
+        long now = start;
+        int remaining = tasks.size();
+        while (now < deadline && remaining > 0) {
+            Task task = tasks.get(next);
+            next = (next + 1) % tasks.size();
+            if (task.completed >= task.iterations) {
+                remaining--;
+                continue;
+            }
+            remaining = tasks.size();
+            sink += task.body.applyAsDouble(task.completed++);
+            long after = System.nanoTime();
+            task.nanos += after - now;
+            now = after;
+        }
+        if (remaining == 0 || allTasksComplete()) {
+            finish();
+        }
+        return complete;
+    }
+
+    /**
+     * Runs the warm-up every loop while the robot is disabled, so it doesn't need to be added to disabledPeriodic.
+     * @param robot The robot to add the callback to
+     */
+    public void runWhileDisabled(TimedRobot robot) {
+        robot.addPeriodic(() -> {
+            if (DriverStation.isDisabled()) run();
+        }, TimedRobot.kDefaultPeriod);
+    }
+
+    /**
+     * @return If every task has run its target number of iterations
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * @return The fraction of all iterations that have been run, from 0 to 1
+     */
+    public double getProgress() {
+        long total = 0;
+        long done = 0;
+        for (Task task : tasks) {
+            total += task.iterations;
+            done += task.completed;
+        }
+        return total == 0 ? 1 : (double) done / total;
+    }
+
+    /**
+     * @return How many loops have been spent warming up
+     */
+    public int getLoops() {
+        return loops;
+    }
+
+    /**
+     * @return A summary of every task, its progress and the total time spent running it
+     */
+    public String getReport() {
+        StringBuilder report = new StringBuilder("JIT warm-up ")
+            .append(complete ? "complete" : Math.round(getProgress() * 100) + "% done")
+            .append(" after ").append(loops).append(" loops");
+        for (Task task : tasks) {
+            report.append("\n  ").append(task.name).append(": ").append(task.completed).append('/').append(task.iterations)
+                .append(" iterations, ").append(Math.round(task.nanos / 1e4) / 100.0).append(" ms");
+        }
+        return report.toString();
+    }
+
+    /**
+     * Returns the sum of every task's results so far. Only exists so the work can't be optimized away.
+     * @return The sum of the results
+     */
+    public double getSink() {
+        return sink;
+    }
+
+    private void finish() {
+        complete = true;
+        String report = getReport();
+        DriverStation.reportWarning(report, false);
+        if (log != null) log.append(report);
+    }
+
+    private boolean allTasksComplete() {
+        for (Task task : tasks) {
+            if (task.completed < task.iterations) return false;
+        }
+        return true;
+    }
+
+    /**
+     * A deterministic input in the range [-1, 1] that jumps around enough to hit every branch.
+     * @param i The iteration number
+     * @return The input
+     */
+    public static double syntheticInput(int i) {
+        return Math.sin(i * 0.7853) * Math.cos(i * 0.1307);
+    }
+
+}
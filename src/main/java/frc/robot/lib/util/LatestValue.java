@@ -0,0 +1,71 @@
+package frc.robot.lib.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Holds the most recent value written by one thread so any number of other threads can read it. Writes and reads
+ * never wait and never allocate, so values should be immutable objects that are already built.
+ * <p>
+ * Readers can tell if there's been a new value since they last looked with {@link #getVersion()}. The version is
+ * updated after the value, so a value read after the version is always at least as new as that version.
+ * @param <T> The type of the value
+ */
+public class LatestValue<T> {
+
+    private static final VarHandle kValue;
+    private static final VarHandle kVersion;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            kValue = lookup.findVarHandle(LatestValue.class, "value", Object.class);
+            kVersion = lookup.findVarHandle(LatestValue.class, "version", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private Object value;
+    private long version;
+
+    /**
+     * Creates a new cell holding a value at version 0.
+     * @param initialValue The value before anything is written, can be null
+     */
+    public LatestValue(T initialValue) {
+        value = initialValue;
+    }
+
+    /**
+     * Creates a new cell holding null at version 0.
+     */
+    public LatestValue() {
+        this(null);
+    }
+
+    /**
+     * Replaces the value. Should only be called from one thread, if several threads write the version may be wrong.
+     * @param newValue The new value
+     */
+    public void set(T newValue) {
+        kValue.setRelease(this, newValue);
+        kVersion.setRelease(this, version + 1);
+    }
+
+    /**
+     * @return The latest value
+     */
+    @SuppressWarnings("unchecked")
+    public T get() {
+        return (T) kValue.getAcquire(this);
+    }
+
+    /**
+     * @return How many times the value has been set
+     */
+    public long getVersion() {
+        return (long) kVersion.getAcquire(this);
+    }
+
+}
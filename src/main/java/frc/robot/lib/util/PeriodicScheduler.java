@@ -0,0 +1,272 @@
+package frc.robot.lib.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Threads;
+
+/**
+ * Runs periodic tasks on their own threads instead of the main robot thread, so slow telemetry can't delay the control loop.
+ * <p>
+ * Every {@link Priority} gets one thread that's started when its first task is scheduled. Tasks of the same priority
+ * run one after another on that thread in order of when they're due, like {@code TimedRobot.addPeriodic}. On the
+ * roboRIO the control thread runs with real-time priority and every thread can be pinned to specific cores.
+ * <p>
+ * Tasks run on a different thread than the one that scheduled them, so anything they share with robot code must be
+ * thread safe. Results can be handed back without locking with {@link #scheduleWithResult(String, Priority, double, Supplier)}.
+ */
+public class PeriodicScheduler implements AutoCloseable {
+
+    /**
+     * What class of work a task is, which decides which thread it runs on and how that thread is prioritized.
+     */
+    public enum Priority {
+        /**
+         * Control loops and sensor reads that must run on time. Runs with real-time priority {@link PeriodicScheduler#kControlRealTimePriority}.
+         */
+        CONTROL(kControlRealTimePriority, Thread.MAX_PRIORITY),
+        /**
+         * Logging and NetworkTables publishing. Runs with normal priority so it's always preempted by control work.
+         */
+        TELEMETRY(0, Thread.NORM_PRIORITY),
+        /**
+         * Anything that can be late, like file IO and diagnostics.
+         */
+        BACKGROUND(0, Thread.MIN_PRIORITY);
+
+        // 0 if the thread isn't real-time
+        private final int realTimePriority;
+        private final int threadPriority;
+
+        Priority(int realTimePriority, int threadPriority) {
+            this.realTimePriority = realTimePriority;
+            this.threadPriority = threadPriority;
+        }
+    }
+
+    /**
+     * The real-time priority of the control thread, above the main robot thread but below the HAL's notifier thread.
+     */
+    public static final int kControlRealTimePriority = 20;
+
+    private static final class Task {
+        private final String name;
+        private final long periodNanos;
+        private final Runnable body;
+        private long nextNanos;
+        private volatile long overruns;
+        private volatile long lastDurationNanos;
+        private volatile long maxDurationNanos;
+
+        private Task(String name, long periodNanos, Runnable body) {
+            this.name = name;
+            this.periodNanos = periodNanos;
+            this.body = body;
+        }
+    }
+
+    private final class Worker implements Runnable {
+        private final Priority priority;
+        private final int[] cpus;
+        private final PriorityQueue<Task> queue = new PriorityQueue<>(Comparator.comparingLong((Task task) -> task.nextNanos));
+        // Tasks are handed to the worker through here so scheduling never blocks on a running task
+        private final ConcurrentLinkedQueue<Task> added = new ConcurrentLinkedQueue<>();
+        private final Thread thread;
+
+        private Worker(Priority priority, int[] cpus) {
+            this.priority = priority;
+            this.cpus = cpus;
+            thread = new Thread(this, "PeriodicScheduler-" + priority);
+            thread.setDaemon(true);
+            thread.setPriority(priority.threadPriority);
+        }
+
+        @Override
+        public void run() {
+            if (priority.realTimePriority > 0 && !Threads.setCurrentThreadPriority(true, priority.realTimePriority)) {
+                DriverStation.reportWarning("Couldn't make " + thread.getName() + " real-time, running at normal priority", false);
+            }
+            if (cpus != null) setCurrentThreadAffinity(cpus);
+            while (!closed) {
+                Task task;
+                while ((task = added.poll()) != null) {
+                    queue.add(task);
+                }
+                task = queue.peek();
+                if (task == null) {
+                    LockSupport.park(this);
+                    continue;
+                }
+                long now = System.nanoTime();
+                if (task.nextNanos > now) {
+                    LockSupport.parkNanos(this, task.nextNanos - now);
+                    continue;
+                }
+                queue.poll();
+                runTask(task, now);
+                queue.add(task);
+            }
+        }
+
+        private void runTask(Task task, long now) {
+            try {
+                task.body.run();
+            } catch (RuntimeException e) {
+                DriverStation.reportError("Periodic task " + task.name + " threw " + e, e.getStackTrace());
+            }
+            long end = System.nanoTime();
+            long duration = end - now;
+            task.lastDurationNanos = duration;
+            if (duration > task.maxDurationNanos) task.maxDurationNanos = duration;
+            task.nextNanos += task.periodNanos;
+            if (task.nextNanos <= end) {
+                // Skip the missed periods instead of running back to back to catch up
+                task.overruns++;
+                long missed = (end - task.nextNanos) / task.periodNanos + 1;
+                task.nextNanos += missed * task.periodNanos;
+            }
+        }
+    }
+
+    private static final PeriodicScheduler defaultInstance = new PeriodicScheduler();
+
+    private final Map<Priority, Worker> workers = new EnumMap<>(Priority.class);
+    private final Map<Priority, int[]> affinities = new EnumMap<>(Priority.class);
+    private final Map<String, Task> tasks = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    /**
+     * @return The scheduler shared by the library and robot code
+     */
+    public static PeriodicScheduler getDefault() {
+        return defaultInstance;
+    }
+
+    /**
+     * Pins a priority's thread to specific cores, only works on Linux. Must be called before the priority's first task is scheduled.
+     * The roboRIO 2 has cores 0 and 1, pinning control to one and everything else to the other keeps them from competing.
+     * @param priority The priority to pin
+     * @param cpus The cores the thread is allowed to run on
+     * @return This scheduler for chaining
+     */
+    public synchronized PeriodicScheduler setAffinity(Priority priority, int... cpus) {
+        if (workers.containsKey(priority)) throw new IllegalStateException(priority + " thread has already been started");
+        if (cpus.length == 0) throw new IllegalArgumentException("Need at least one CPU");
+        affinities.put(priority, Arrays.copyOf(cpus, cpus.length));
+        return this;
+    }
+
+    /**
+     * Runs a task periodically on the thread of its priority. The first run is one period from now.
+     * @param name The name of the task, must be unique
+     * @param priority The priority class of the task
+     * @param periodSeconds How often to run the task
+     * @param task The task to run
+     */
+    public synchronized void schedule(String name, Priority priority, double periodSeconds, Runnable task) {
+        if (closed) throw new IllegalStateException("Scheduler has been closed");
+        if (!(periodSeconds > 0)) throw new IllegalArgumentException("Period must be positive, got: " + periodSeconds);
+        Objects.requireNonNull(task);
+        Task newTask = new Task(name, (long) (periodSeconds * 1e9), task);
+        if (tasks.putIfAbsent(name, newTask) != null) throw new IllegalArgumentException("A task named " + name + " is already scheduled");
+        newTask.nextNanos = System.nanoTime() + newTask.periodNanos;
+        Worker worker = workers.computeIfAbsent(priority, key -> {
+            Worker created = new Worker(key, affinities.get(key));
+            created.thread.start();
+            return created;
+        });
+        worker.added.add(newTask);
+        LockSupport.unpark(worker.thread);
+    }
+
+    /**
+     * Runs a task that produces a result periodically on the thread of its priority. The latest result can be read
+     * from any thread without locking or waiting on the task.
+     * @param <T> The type of the result, should be immutable
+     * @param name The name of the task, must be unique
+     * @param priority The priority class of the task
+     * @param periodSeconds How often to run the task
+     * @param task The task to run
+     * @return A supplier of the latest result, null until the task has run once
+     */
+    public <T> Supplier<T> scheduleWithResult(String name, Priority priority, double periodSeconds, Supplier<T> task) {
+        LatestValue<T> latest = new LatestValue<>();
+        schedule(name, priority, periodSeconds, () -> latest.set(task.get()));
+        return latest::get;
+    }
+
+    /**
+     * @param name The name of the task
+     * @return How many times the task took longer than its period and had to skip runs
+     */
+    public long getOverrunCount(String name) {
+        return getTask(name).overruns;
+    }
+
+    /**
+     * @param name The name of the task
+     * @return How long the last run of the task took in seconds
+     */
+    public double getLastDuration(String name) {
+        return getTask(name).lastDurationNanos / 1e9;
+    }
+
+    /**
+     * @param name The name of the task
+     * @return The longest run of the task in seconds
+     */
+    public double getMaxDuration(String name) {
+        return getTask(name).maxDurationNanos / 1e9;
+    }
+
+    /**
+     * Stops every thread after their current task finishes.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        for (Worker worker : workers.values()) {
+            LockSupport.unpark(worker.thread);
+        }
+    }
+
+    private Task getTask(String name) {
+        Task task = tasks.get(name);
+        if (task == null) throw new IllegalArgumentException("No task named " + name);
+        return task;
+    }
+
+    /**
+     * Pins the calling thread to the given cores with taskset, since Java has no way to set affinity. Best effort,
+     * a warning is reported if it doesn't work.
+     */
+    private static void setCurrentThreadAffinity(int[] cpus) {
+        try {
+            // Resolves to <pid>/task/<tid>
+            String threadId = Files.readSymbolicLink(Path.of("/proc/thread-self")).getFileName().toString();
+            String cpuList = String.join(",", Arrays.stream(cpus).mapToObj(Integer::toString).toArray(String[]::new));
+            Process process = new ProcessBuilder("taskset", "-p", "-c", cpuList, threadId).redirectErrorStream(true).start();
+            if (!process.waitFor(1, TimeUnit.SECONDS) || process.exitValue() != 0) {
+                DriverStation.reportWarning("Couldn't set affinity of " + Thread.currentThread().getName() + " to " + cpuList, false);
+            }
+        } catch (IOException | UnsupportedOperationException e) {
+            DriverStation.reportWarning("Couldn't set affinity of " + Thread.currentThread().getName() + ": " + e.getMessage(), false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -4,6 +4,7 @@ import edu.wpi.first.math.MathUtil;
 
 /**
  * Helper class for mapping the range [a,b] onto the range [c,d]
+ * This is the single segment case of {@link InterpolatingTable}, use that for mapping more than two points.
  */
 public class RangeTransformer {
 
@@ -12,6 +13,9 @@ public class RangeTransformer {
     public final double c;
     public final double d;
     public final boolean clamp;
+    private final double slope;
+    private final double min;
+    private final double max;
         
         public RangeTransformer(double a, double b, double c, double d, boolean clamp) {
         if (a == b) throw new IllegalArgumentException("A != B");
@@ -20,6 +24,9 @@ public class RangeTransformer {
         this.c = c;
         this.d = d;
         this.clamp = clamp;
+        slope = (d - c) / (b - a);
+        min = Math.min(c, d);
+        max = Math.max(c, d);
     }
 
     /**
@@ -28,9 +35,18 @@ public class RangeTransformer {
      * @return number in the range [c,d]
      */
     public double calculate(double x) {
-        double result = (c + ((d - c)/(b - a)) * (x - a));
-        if (clamp) return MathUtil.clamp(result, Math.min(c, d), Math.max(c, d));
+        double result = c + slope * (x - a);
+        if (clamp) return MathUtil.clamp(result, min, max);
         return result;
     }
 
+    /**
+     * Creates an equivalent linear {@link InterpolatingTable} with the two points (a, c) and (b, d).
+     * @return A table that maps the same way as this transformer
+     */
+    public InterpolatingTable toTable() {
+        if (a < b) return new InterpolatingTable(clamp, new double[] {a, b}, new double[] {c, d});
+        return new InterpolatingTable(clamp, new double[] {b, a}, new double[] {d, c});
+    }
+
 }
@@ -0,0 +1,73 @@
+package frc.robot.lib.util;
+
+/**
+ * A moving average over the last {@code window} inputs. Each update is O(1) and doesn't allocate,
+ * unlike {@link edu.wpi.first.math.filter.LinearFilter#movingAverage(int)} which is O(window) per sample.
+ */
+public class RunningMean {
+
+    private final double[] buffer;
+    private int head;
+    private int count;
+    private double sum;
+    private int updatesSinceResum;
+
+    /**
+     * Creates a new running mean.
+     * @param window The number of inputs to average, must be positive
+     */
+    public RunningMean(int window) {
+        if (window < 1) throw new IllegalArgumentException("Window must be positive, got: " + window);
+        buffer = new double[window];
+    }
+
+    /**
+     * Adds an input and returns the mean of the last {@code window} inputs, or of every input if there are fewer.
+     * @param input The new input
+     * @return The mean
+     */
+    public double calculate(double input) {
+        if (count == buffer.length) {
+            sum -= buffer[head];
+        } else {
+            count++;
+        }
+        buffer[head] = input;
+        sum += input;
+        head = (head + 1) % buffer.length;
+        // Adding and removing accumulates floating point error, so every so often recompute the sum from scratch
+        if (++updatesSinceResum >= 1024 && updatesSinceResum >= buffer.length) {
+            updatesSinceResum = 0;
+            sum = 0;
+            for (int i = 0; i < count; i++) {
+                sum += buffer[i];
+            }
+        }
+        return lastValue();
+    }
+
+    /**
+     * @return The last mean calculated, or 0 if there aren't any inputs
+     */
+    public double lastValue() {
+        return count == 0 ? 0 : sum / count;
+    }
+
+    /**
+     * @return The number of inputs currently in the window
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Removes every input.
+     */
+    public void reset() {
+        head = 0;
+        count = 0;
+        sum = 0;
+        updatesSinceResum = 0;
+    }
+
+}
@@ -0,0 +1,87 @@
+package frc.robot.lib.util;
+
+/**
+ * The mean and variance of the last {@code window} inputs, updated in O(1) without allocating.
+ * Uses a sliding version of Welford's algorithm so it stays accurate with large values.
+ */
+public class RunningVariance {
+
+    private final double[] buffer;
+    private int head;
+    private int count;
+    private double mean;
+    // Sum of squared differences from the mean
+    private double m2;
+
+    /**
+     * Creates a new running variance.
+     * @param window The number of inputs to use, must be positive
+     */
+    public RunningVariance(int window) {
+        if (window < 1) throw new IllegalArgumentException("Window must be positive, got: " + window);
+        buffer = new double[window];
+    }
+
+    /**
+     * Adds an input and returns the sample variance of the last {@code window} inputs.
+     * @param input The new input
+     * @return The sample variance, 0 if there are fewer than two inputs
+     */
+    public double calculate(double input) {
+        if (count < buffer.length) {
+            count++;
+            double delta = input - mean;
+            mean += delta / count;
+            m2 += delta * (input - mean);
+        } else {
+            double old = buffer[head];
+            double oldMean = mean;
+            mean += (input - old) / count;
+            m2 += (input - old) * (input - mean + old - oldMean);
+            // Rounding can push this slightly negative when every input is the same
+            if (m2 < 0) m2 = 0;
+        }
+        buffer[head] = input;
+        head = (head + 1) % buffer.length;
+        return getVariance();
+    }
+
+    /**
+     * @return The sample variance of the inputs in the window, 0 if there are fewer than two inputs
+     */
+    public double getVariance() {
+        return count < 2 ? 0 : m2 / (count - 1);
+    }
+
+    /**
+     * @return The sample standard deviation of the inputs in the window
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * @return The mean of the inputs in the window
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * @return The number of inputs currently in the window
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Removes every input.
+     */
+    public void reset() {
+        head = 0;
+        count = 0;
+        mean = 0;
+        m2 = 0;
+    }
+
+}
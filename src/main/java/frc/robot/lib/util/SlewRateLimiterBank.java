@@ -0,0 +1,278 @@
+package frc.robot.lib.util;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.DoubleSupplier;
+
+import edu.wpi.first.math.MathSharedStore;
+import edu.wpi.first.math.MathUtil;
+
+/**
+ * A group of {@link DynamicSlewRateLimiter}s that are updated together, like the x, y and omega inputs of a swerve drive.
+ * The clock is only read once per update and all state is kept in primitive arrays.
+ * <p>
+ * Two channels can be paired as a vector, in which case the magnitude of their change is limited instead of each
+ * channel on its own, so the output always moves straight towards the input and the drive direction isn't distorted.
+ * Channels can also have a jerk limit, which limits how fast the rate of change itself can change (S-curve).
+ * <p>
+ * The first update after creating or resetting the bank only records the time, the outputs start moving on the next one.
+ */
+public class SlewRateLimiterBank {
+
+    private static final int kNoPartner = -1;
+
+    private final int channels;
+    private final double[] increasing;
+    private final double[] decreasing;
+    private final DoubleSupplier[] increasingSuppliers;
+    private final DoubleSupplier[] decreasingSuppliers;
+    private final double[] jerk;
+    private final int[] partner;
+    private final double[] values;
+    private final double[] rates;
+    private double prevTime;
+
+    /**
+     * Creates a new bank where every channel has the same increasing and decreasing rate limits.
+     * Increasing is how fast the input can get farther from zero, Decreasing is how fast the input can get closer to zero.
+     * @param channels The number of channels in the bank
+     * @param increasingRateLimit The rate-of-change limit when the input is increasing, in units per second. Must be positive.
+     * @param decreasingRateLimit The rate-of-change limit when the input is decreasing, in units per second. Must be positive.
+     */
+    public SlewRateLimiterBank(int channels, double increasingRateLimit, double decreasingRateLimit) {
+        if (channels < 1) throw new IllegalArgumentException("Bank needs at least one channel, got: " + channels);
+        this.channels = channels;
+        increasing = new double[channels];
+        decreasing = new double[channels];
+        increasingSuppliers = new DoubleSupplier[channels];
+        decreasingSuppliers = new DoubleSupplier[channels];
+        jerk = new double[channels];
+        partner = new int[channels];
+        values = new double[channels];
+        rates = new double[channels];
+        Arrays.fill(jerk, Double.POSITIVE_INFINITY);
+        Arrays.fill(partner, kNoPartner);
+        for (int i = 0; i < channels; i++) {
+            setRateLimits(i, increasingRateLimit, decreasingRateLimit);
+        }
+        prevTime = Double.NaN;
+    }
+
+    /**
+     * Sets constant rate limits for a channel.
+     * @param channel The channel to set
+     * @param increasingRateLimit How quickly the input can get farther from zero in units per second. Must be positive.
+     * @param decreasingRateLimit How quickly the input can get closer to zero in units per second. Must be positive.
+     * @return This bank for chaining
+     */
+    public SlewRateLimiterBank setRateLimits(int channel, double increasingRateLimit, double decreasingRateLimit) {
+        checkRateLimits(increasingRateLimit, decreasingRateLimit);
+        increasing[channel] = increasingRateLimit;
+        decreasing[channel] = decreasingRateLimit;
+        increasingSuppliers[channel] = null;
+        decreasingSuppliers[channel] = null;
+        return this;
+    }
+
+    /**
+     * Sets changing rate limits for a channel. The suppliers are polled once per update and are only validated when
+     * their value changes.
+     * @param channel The channel to set
+     * @param increasingRateLimit How quickly the input can get farther from zero in units per second. Must be positive.
+     * @param decreasingRateLimit How quickly the input can get closer to zero in units per second. Must be positive.
+     * @return This bank for chaining
+     */
+    public SlewRateLimiterBank setRateLimits(int channel, DoubleSupplier increasingRateLimit, DoubleSupplier decreasingRateLimit) {
+        double inc = increasingRateLimit.getAsDouble();
+        double dec = decreasingRateLimit.getAsDouble();
+        setRateLimits(channel, inc, dec);
+        increasingSuppliers[channel] = increasingRateLimit;
+        decreasingSuppliers[channel] = decreasingRateLimit;
+        return this;
+    }
+
+    /**
+     * Limits how fast the rate of change of a channel can change, giving an S-curve instead of a trapezoid.
+     * If the channel is part of a vector pair the jerk limit applies to the whole vector.
+     * @param channel The channel to set
+     * @param jerkLimit The maximum change in rate in units per second squared, {@link Double#POSITIVE_INFINITY} to disable
+     * @return This bank for chaining
+     */
+    public SlewRateLimiterBank setJerkLimit(int channel, double jerkLimit) {
+        if (!(jerkLimit > 0)) throw new IllegalArgumentException("Jerk limit must be positive! Jerk: " + jerkLimit);
+        jerk[channel] = jerkLimit;
+        if (partner[channel] != kNoPartner) jerk[partner[channel]] = jerkLimit;
+        return this;
+    }
+
+    /**
+     * Limits two channels together as a vector. The rate limits and jerk limit of {@code xChannel} are used for the pair
+     * and increasing/decreasing refers to the magnitude of the vector.
+     * @param xChannel The first channel of the vector
+     * @param yChannel The second channel of the vector
+     * @return This bank for chaining
+     */
+    public SlewRateLimiterBank setVectorChannels(int xChannel, int yChannel) {
+        Objects.checkIndex(xChannel, channels);
+        Objects.checkIndex(yChannel, channels);
+        if (xChannel == yChannel || partner[xChannel] != kNoPartner || partner[yChannel] != kNoPartner) {
+            throw new IllegalArgumentException("Channels " + xChannel + " and " + yChannel + " can't be paired");
+        }
+        partner[xChannel] = yChannel;
+        partner[yChannel] = xChannel;
+        jerk[yChannel] = jerk[xChannel];
+        return this;
+    }
+
+    /**
+     * Filters every channel to limit its slew rate, reading the clock once.
+     * @param inputs The input for each channel
+     * @return The filtered values, this array is reused between calls
+     */
+    public double[] calculate(double[] inputs) {
+        return calculate(inputs, MathSharedStore.getTimestamp());
+    }
+
+    /**
+     * Filters every channel to limit its slew rate.
+     * @param inputs The input for each channel
+     * @param currentTime The current time in seconds, on the same clock as {@link MathSharedStore#getTimestamp()}
+     * @return The filtered values, this array is reused between calls
+     */
+    public double[] calculate(double[] inputs, double currentTime) {
+        if (inputs.length != channels) throw new IllegalArgumentException("Expected " + channels + " inputs, got: " + inputs.length);
+        double elapsedTime = currentTime - prevTime;
+        prevTime = currentTime;
+        for (int i = 0; i < channels; i++) {
+            pollRateLimits(i);
+        }
+        if (!(elapsedTime > 0)) return values;
+        for (int i = 0; i < channels; i++) {
+            int other = partner[i];
+            if (other == kNoPartner) {
+                calculateScalar(i, inputs[i], elapsedTime);
+            }
+            else if (i < other) {
+                calculateVector(i, other, inputs[i], inputs[other], elapsedTime);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Returns the value last calculated for a channel.
+     * @param channel The channel
+     * @return The last value.
+     */
+    public double lastValue(int channel) {
+        return values[channel];
+    }
+
+    /**
+     * Resets every channel to the specified values; ignores the rate limit when doing so.
+     * @param values The value for each channel
+     */
+    public void reset(double... values) {
+        if (values.length != channels) throw new IllegalArgumentException("Expected " + channels + " values, got: " + values.length);
+        System.arraycopy(values, 0, this.values, 0, channels);
+        Arrays.fill(rates, 0);
+        prevTime = Double.NaN;
+    }
+
+    private void pollRateLimits(int channel) {
+        if (increasingSuppliers[channel] == null) return;
+        double inc = increasingSuppliers[channel].getAsDouble();
+        double dec = decreasingSuppliers[channel].getAsDouble();
+        if (inc != increasing[channel] || dec != decreasing[channel]) {
+            checkRateLimits(inc, dec);
+            increasing[channel] = inc;
+            decreasing[channel] = dec;
+        }
+    }
+
+    private void calculateScalar(int i, double input, double elapsedTime) {
+        double prevVal = values[i];
+        double positiveRateLimit = increasing[i];
+        double negativeRateLimit = decreasing[i];
+        // Flip the limits so that decreasing still means towards zero, starting from zero always counts as increasing.
+        double sign = prevVal != 0 ? Math.signum(prevVal) : Math.signum(input);
+        if (sign < 0) {
+            positiveRateLimit = decreasing[i];
+            negativeRateLimit = increasing[i];
+        }
+        double error = input - prevVal;
+        if (jerk[i] == Double.POSITIVE_INFINITY) {
+            values[i] = prevVal + MathUtil.clamp(error, -negativeRateLimit * elapsedTime, positiveRateLimit * elapsedTime);
+            rates[i] = (values[i] - prevVal) / elapsedTime;
+            return;
+        }
+        double rateLimit = error > 0 ? positiveRateLimit : negativeRateLimit;
+        double desiredRate = Math.copySign(desiredSpeed(Math.abs(error), rateLimit, jerk[i], elapsedTime), error);
+        double maxRateChange = jerk[i] * elapsedTime;
+        rates[i] += MathUtil.clamp(desiredRate - rates[i], -maxRateChange, maxRateChange);
+        values[i] = prevVal + rates[i] * elapsedTime;
+    }
+
+    private void calculateVector(int x, int y, double inputX, double inputY, double elapsedTime) {
+        double prevX = values[x];
+        double prevY = values[y];
+        double errorX = inputX - prevX;
+        double errorY = inputY - prevY;
+        double error = Math.hypot(errorX, errorY);
+        if (error < Util.kEpsilon && rates[x] == 0 && rates[y] == 0) {
+            values[x] = inputX;
+            values[y] = inputY;
+            return;
+        }
+        boolean increasingMagnitude = Math.hypot(inputX, inputY) > Math.hypot(prevX, prevY);
+        double rateLimit = increasingMagnitude ? increasing[x] : decreasing[x];
+        if (jerk[x] == Double.POSITIVE_INFINITY) {
+            if (error < Util.kEpsilon) {
+                values[x] = inputX;
+                values[y] = inputY;
+                rates[x] = 0;
+                rates[y] = 0;
+                return;
+            }
+            double step = Math.min(error, rateLimit * elapsedTime);
+            values[x] = prevX + errorX / error * step;
+            values[y] = prevY + errorY / error * step;
+            rates[x] = (values[x] - prevX) / elapsedTime;
+            rates[y] = (values[y] - prevY) / elapsedTime;
+            return;
+        }
+        double speed = error < Util.kEpsilon ? 0 : desiredSpeed(error, rateLimit, jerk[x], elapsedTime);
+        double desiredRateX = error < Util.kEpsilon ? 0 : errorX / error * speed;
+        double desiredRateY = error < Util.kEpsilon ? 0 : errorY / error * speed;
+        double changeX = desiredRateX - rates[x];
+        double changeY = desiredRateY - rates[y];
+        double change = Math.hypot(changeX, changeY);
+        double maxRateChange = jerk[x] * elapsedTime;
+        if (change > maxRateChange) {
+            changeX *= maxRateChange / change;
+            changeY *= maxRateChange / change;
+        }
+        rates[x] += changeX;
+        rates[y] += changeY;
+        values[x] = prevX + rates[x] * elapsedTime;
+        values[y] = prevY + rates[y] * elapsedTime;
+    }
+
+    /**
+     * The fastest we can move towards the input while still being able to slow down in time with the jerk limit.
+     * Slowing down from speed v one step at a time covers v^2 / 2j + v * dt / 2, solving that for v gives the limit.
+     */
+    private static double desiredSpeed(double distance, double rateLimit, double jerkLimit, double elapsedTime) {
+        double halfStep = elapsedTime / 2;
+        double brakingSpeed = jerkLimit * (Math.sqrt(halfStep * halfStep + 2 * distance / jerkLimit) - halfStep);
+        return Math.min(Math.min(rateLimit, brakingSpeed), distance / elapsedTime);
+    }
+
+    private static void checkRateLimits(double increasing, double decreasing) {
+        if (increasing < 0 || decreasing < 0) {
+            throw new IllegalArgumentException("Rate limits can't be negative! Increasing: "
+            + increasing + ", Decreasing: " + decreasing);
+        }
+    }
+
+}
@@ -0,0 +1,151 @@
+package frc.robot.lib.util;
+
+/**
+ * The median of the last {@code window} inputs. Unlike {@link edu.wpi.first.math.filter.MedianFilter}, which sorts
+ * on every sample, this keeps the window split across a max-heap of the lower half and a min-heap of the upper half,
+ * so each update is O(log window) and doesn't allocate.
+ */
+public class SlidingMedian {
+
+    private final int window;
+    private final double[] values;
+    // Heaps hold slots of the value ring
+    private final int[] low;
+    private final int[] high;
+    // Where each slot is in its heap, and which heap it's in
+    private final int[] position;
+    private final boolean[] inLow;
+    private int lowSize;
+    private int highSize;
+    private int head;
+    private int count;
+
+    /**
+     * Creates a new sliding median.
+     * @param window The number of inputs to use, must be positive
+     */
+    public SlidingMedian(int window) {
+        if (window < 1) throw new IllegalArgumentException("Window must be positive, got: " + window);
+        this.window = window;
+        values = new double[window];
+        low = new int[window];
+        high = new int[window];
+        position = new int[window];
+        inLow = new boolean[window];
+    }
+
+    /**
+     * Adds an input and returns the median of the last {@code window} inputs.
+     * @param input The new input
+     * @return The median, the mean of the two middle values if there's an even number of inputs
+     */
+    public double calculate(double input) {
+        int slot = head;
+        head = (head + 1) % window;
+        if (count == window) {
+            remove(slot);
+        } else {
+            count++;
+        }
+        values[slot] = input;
+        if (lowSize == 0 || input <= values[low[0]]) {
+            push(slot, true);
+        } else {
+            push(slot, false);
+        }
+        // Keep the low half the same size as the high half or one larger
+        if (lowSize > highSize + 1) {
+            int moved = low[0];
+            removeAt(0, true);
+            push(moved, false);
+        } else if (highSize > lowSize) {
+            int moved = high[0];
+            removeAt(0, false);
+            push(moved, true);
+        }
+        return lastValue();
+    }
+
+    /**
+     * @return The last median calculated, 0 if there aren't any inputs
+     */
+    public double lastValue() {
+        if (lowSize == 0) return 0;
+        if (lowSize > highSize) return values[low[0]];
+        return (values[low[0]] + values[high[0]]) / 2;
+    }
+
+    /**
+     * Removes every input.
+     */
+    public void reset() {
+        lowSize = 0;
+        highSize = 0;
+        head = 0;
+        count = 0;
+    }
+
+    private void remove(int slot) {
+        removeAt(position[slot], inLow[slot]);
+    }
+
+    private void push(int slot, boolean toLow) {
+        int[] heap = toLow ? low : high;
+        int index = toLow ? lowSize++ : highSize++;
+        heap[index] = slot;
+        position[slot] = index;
+        inLow[slot] = toLow;
+        siftUp(index, toLow);
+    }
+
+    private void removeAt(int index, boolean fromLow) {
+        int[] heap = fromLow ? low : high;
+        int last = fromLow ? --lowSize : --highSize;
+        if (index == last) return;
+        int moved = heap[last];
+        heap[index] = moved;
+        position[moved] = index;
+        siftUp(index, fromLow);
+        siftDown(position[moved], fromLow);
+    }
+
+    /**
+     * Whether slot a belongs above slot b in the heap. The low half is a max-heap and the high half is a min-heap.
+     */
+    private boolean before(int a, int b, boolean isLow) {
+        return isLow ? values[a] > values[b] : values[a] < values[b];
+    }
+
+    private void siftUp(int index, boolean isLow) {
+        int[] heap = isLow ? low : high;
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (!before(heap[index], heap[parent], isLow)) break;
+            swap(heap, index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index, boolean isLow) {
+        int[] heap = isLow ? low : high;
+        int size = isLow ? lowSize : highSize;
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) break;
+            int child = left;
+            if (left + 1 < size && before(heap[left + 1], heap[left], isLow)) child = left + 1;
+            if (!before(heap[child], heap[index], isLow)) break;
+            swap(heap, index, child);
+            index = child;
+        }
+    }
+
+    private void swap(int[] heap, int a, int b) {
+        int temp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = temp;
+        position[heap[a]] = a;
+        position[heap[b]] = b;
+    }
+
+}
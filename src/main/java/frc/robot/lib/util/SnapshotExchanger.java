@@ -0,0 +1,108 @@
+package frc.robot.lib.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands fixed size records of doubles, like a pose and its timestamp, from one producer thread to one consumer thread
+ * with a triple buffer. The producer always has a buffer to write into and the consumer always reads a complete record,
+ * neither ever waits for the other and nothing is allocated after construction. Records that are published while the
+ * consumer isn't looking are skipped, the consumer only ever sees the latest one.
+ * <p>
+ * Usage on the producer thread:
+ * <pre>
+ * double[] record = exchanger.getWriteBuffer();
+ * record[0] = x;
+ * record[1] = y;
+ * exchanger.publish();
+ * </pre>
+ * And on the consumer thread:
+ * <pre>
+ * double[] record = exchanger.read();
+ * </pre>
+ */
+public class SnapshotExchanger {
+
+    // The low two bits of the state are the index of the middle buffer, the next bit is set when it has a new record
+    private static final int kIndexMask = 0b011;
+    private static final int kNewRecord = 0b100;
+
+    private final double[][] buffers;
+    private final AtomicInteger state = new AtomicInteger(1);
+    // Only touched by the producer
+    private int writeIndex = 0;
+    private long published;
+    // Only touched by the consumer
+    private int readIndex = 2;
+
+    /**
+     * Creates a new exchanger, the consumer reads all zeros until the first record is published.
+     * @param recordLength The number of doubles in each record
+     */
+    public SnapshotExchanger(int recordLength) {
+        if (recordLength < 1) throw new IllegalArgumentException("Record length must be positive, got: " + recordLength);
+        buffers = new double[3][recordLength];
+    }
+
+    /**
+     * Producer only. The buffer to write the next record into, its contents are left over from an old record.
+     * @return The buffer to write into, only valid until {@link #publish()} is called
+     */
+    public double[] getWriteBuffer() {
+        return buffers[writeIndex];
+    }
+
+    /**
+     * Producer only. Makes the record in the write buffer the latest one.
+     */
+    public void publish() {
+        writeIndex = state.getAndSet(writeIndex | kNewRecord) & kIndexMask;
+        published++;
+    }
+
+    /**
+     * Producer only. Copies a record into the write buffer and publishes it.
+     * @param values The record, must be the same length as the records of this exchanger
+     */
+    public void publish(double... values) {
+        double[] buffer = getWriteBuffer();
+        if (values.length != buffer.length) throw new IllegalArgumentException("Expected " + buffer.length + " values, got: " + values.length);
+        System.arraycopy(values, 0, buffer, 0, values.length);
+        publish();
+    }
+
+    /**
+     * Producer only.
+     * @return How many records have been published
+     */
+    public long getPublishedCount() {
+        return published;
+    }
+
+    /**
+     * Consumer only. Switches to the latest record if one has been published since the last update.
+     * @return If there was a new record
+     */
+    public boolean update() {
+        if ((state.get() & kNewRecord) == 0) return false;
+        readIndex = state.getAndSet(readIndex) & kIndexMask;
+        return true;
+    }
+
+    /**
+     * Consumer only. The record from the last {@link #update()}, it won't change until the next update.
+     * @return The record, don't modify it
+     */
+    public double[] getReadBuffer() {
+        return buffers[readIndex];
+    }
+
+    /**
+     * Consumer only. Updates and returns the latest record.
+     * @return The latest record, don't modify it
+     */
+    public double[] read() {
+        update();
+        return getReadBuffer();
+    }
+
+}
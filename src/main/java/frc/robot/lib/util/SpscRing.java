@@ -0,0 +1,136 @@
+package frc.robot.lib.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * The index bookkeeping shared by the single-producer single-consumer queues. The producer only writes {@code tail}
+ * and the consumer only writes {@code head}, each publishes with a release store and reads the other's with an
+ * acquire load, so no locks or compare-and-swaps are needed. Each side caches the other's index and only rereads it
+ * when the queue looks full or empty, so most of the time each thread only touches its own fields.
+ * <p>
+ * The consumer's fields and the producer's fields are padded onto cache lines of their own, so a write by one thread
+ * doesn't invalidate the line the other is reading. The JVM only keeps a superclass's fields ahead of a subclass's,
+ * so the padding is a chain of superclasses.
+ */
+abstract class SpscRing extends SpscRingPadding2 {
+
+    private static final VarHandle kHead;
+    private static final VarHandle kTail;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            kHead = lookup.findVarHandle(SpscRingConsumer.class, "head", long.class);
+            kTail = lookup.findVarHandle(SpscRingProducer.class, "tail", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    protected final int capacity;
+    protected final int mask;
+
+    protected SpscRing(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a positive power of two, got: " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Producer only. Returns the position to write the next element to, or -1 if the queue is full.
+     */
+    protected final long claim() {
+        long t = tail;
+        if (t - cachedHead >= capacity) {
+            cachedHead = (long) kHead.getAcquire(this);
+            if (t - cachedHead >= capacity) return -1;
+        }
+        return t;
+    }
+
+    /**
+     * Producer only. Makes the element written at the claimed position visible to the consumer.
+     */
+    protected final void commit(long position) {
+        kTail.setRelease(this, position + 1);
+    }
+
+    /**
+     * Consumer only. Returns how many elements are ready to be read starting at {@link #readPosition()}.
+     */
+    protected final int available() {
+        long h = head;
+        if (h >= cachedTail) {
+            cachedTail = (long) kTail.getAcquire(this);
+        }
+        return (int) (cachedTail - h);
+    }
+
+    /**
+     * Consumer only.
+     */
+    protected final long readPosition() {
+        return head;
+    }
+
+    /**
+     * Consumer only. Frees the slots of the elements that have been read so the producer can reuse them.
+     */
+    protected final void release(long newHead) {
+        kHead.setRelease(this, newHead);
+    }
+
+    /**
+     * @return The maximum number of elements the queue can hold
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Safe to call from any thread, but the answer may be out of date by the time it's used.
+     * @return The number of elements in the queue
+     */
+    public int size() {
+        long h = (long) kHead.getAcquire(this);
+        long t = (long) kTail.getAcquire(this);
+        return (int) Math.max(0, Math.min(capacity, t - h));
+    }
+
+    /**
+     * Consumer only.
+     * @return If there's nothing to read
+     */
+    public boolean isEmpty() {
+        return available() == 0;
+    }
+
+}
+
+// 128 bytes of padding, since the adjacent line prefetcher pulls in 64 byte lines in pairs
+abstract class SpscRingPadding0 {
+    long p00, p01, p02, p03, p04, p05, p06, p07, p08, p09, p10, p11, p12, p13, p14, p15;
+}
+
+abstract class SpscRingConsumer extends SpscRingPadding0 {
+    // Written by the consumer
+    long head;
+    long cachedTail;
+}
+
+abstract class SpscRingPadding1 extends SpscRingConsumer {
+    long p20, p21, p22, p23, p24, p25, p26, p27, p28, p29, p30, p31, p32, p33, p34, p35;
+}
+
+abstract class SpscRingProducer extends SpscRingPadding1 {
+    // Written by the producer
+    long tail;
+    long cachedHead;
+}
+
+abstract class SpscRingPadding2 extends SpscRingProducer {
+    long p40, p41, p42, p43, p44, p45, p46, p47, p48, p49, p50, p51, p52, p53, p54, p55;
+}
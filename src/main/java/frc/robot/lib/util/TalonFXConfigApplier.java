@@ -0,0 +1,237 @@
+package frc.robot.lib.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.configs.TalonFXConfiguration;
+import com.ctre.phoenix6.hardware.TalonFX;
+
+import edu.wpi.first.wpilibj.DriverStation;
+
+/**
+ * Applies configs to many TalonFXs at once on a small pool of background threads instead of one blocking
+ * CAN transaction after another. Each device's current config is read first and the device is skipped if it already
+ * matches, so rebooting a robot that's already configured is nearly instant. Failed transactions are retried.
+ * <p>
+ * Matching compares the serialized configs, with numbers allowed to differ by a small relative tolerance. Use
+ * {@link #withSkipMatching(boolean)} to always write the config instead.
+ */
+public class TalonFXConfigApplier implements AutoCloseable {
+
+    /**
+     * What happened to a device.
+     */
+    public enum Status {
+        /**
+         * The device already had the config so nothing was written.
+         */
+        ALREADY_MATCHED,
+        /**
+         * The config was written to the device.
+         */
+        APPLIED,
+        /**
+         * The config couldn't be written after every attempt.
+         */
+        FAILED
+    }
+
+    /**
+     * The result of configuring one device.
+     * @param talon The device
+     * @param status What happened to it
+     * @param code The status code of the last CAN transaction
+     * @param attempts How many times the config was read or written
+     * @param seconds How long it took to configure the device
+     */
+    public record Result(TalonFX talon, Status status, StatusCode code, int attempts, double seconds) {
+        @Override
+        public String toString() {
+            return "TalonFX " + talon.getDeviceID() + ": " + status + " (" + code + ", " + attempts + " attempts, "
+                + Math.round(seconds * 1000) + " ms)";
+        }
+    }
+
+    // Numbers inside a serialized config, compared with a tolerance since devices store some values with less precision
+    private static final Pattern kNumber = Pattern.compile("[-+]?(\\d+\\.?\\d*|\\.\\d+)([eE][-+]?\\d+)?");
+
+    private final ExecutorService executor;
+    private final int maxAttempts;
+    private final double timeoutSeconds;
+    private final double tolerance;
+    private volatile boolean skipMatching = true;
+
+    /**
+     * Creates a new config applier.
+     * @param threads The maximum number of devices to configure at the same time
+     * @param maxAttempts How many times to try reading and writing each device before giving up
+     * @param timeoutSeconds The timeout of each CAN transaction
+     * @param tolerance The relative difference allowed between numbers in the device's config and the desired config
+     */
+    public TalonFXConfigApplier(int threads, int maxAttempts, double timeoutSeconds, double tolerance) {
+        if (threads < 1) throw new IllegalArgumentException("Threads must be positive, got: " + threads);
+        if (maxAttempts < 1) throw new IllegalArgumentException("Max attempts must be positive, got: " + maxAttempts);
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "TalonFXConfigApplier-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.maxAttempts = maxAttempts;
+        this.timeoutSeconds = timeoutSeconds;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Creates a new config applier with 4 threads, 3 attempts per device, a 100 ms timeout and a 0.1% tolerance.
+     */
+    public TalonFXConfigApplier() {
+        this(4, 3, 0.1, 1e-3);
+    }
+
+    /**
+     * Chooses whether devices that already have the config are skipped, they are by default.
+     * @param skipMatching If devices that already match should be skipped, false to always write the config
+     * @return This applier for chaining
+     */
+    public TalonFXConfigApplier withSkipMatching(boolean skipMatching) {
+        this.skipMatching = skipMatching;
+        return this;
+    }
+
+    /**
+     * Applies the same config to every device in the background.
+     * @param config The config to apply
+     * @param talons The devices to configure
+     * @return A future that completes with the result of every device, in the same order as {@code talons}
+     */
+    public CompletableFuture<List<Result>> applyAsync(TalonFXConfiguration config, TalonFX... talons) {
+        Objects.requireNonNull(config);
+        Map<TalonFX, TalonFXConfiguration> configs = new LinkedHashMap<>();
+        for (TalonFX talon : talons) {
+            configs.put(Objects.requireNonNull(talon), config);
+        }
+        return applyAsync(configs);
+    }
+
+    /**
+     * Applies a different config to each device in the background.
+     * @param configs The config for each device
+     * @return A future that completes with the result of every device, in the map's iteration order
+     */
+    public CompletableFuture<List<Result>> applyAsync(Map<TalonFX, TalonFXConfiguration> configs) {
+        List<CompletableFuture<Result>> futures = new ArrayList<>(configs.size());
+        for (var entry : configs.entrySet()) {
+            // Serialize on the caller's thread in case the config object is modified after this returns
+            String desired = entry.getValue().serialize();
+            TalonFX talon = entry.getKey();
+            futures.add(CompletableFuture.supplyAsync(() -> configure(talon, desired), executor));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(unused -> {
+            List<Result> results = new ArrayList<>(futures.size());
+            for (var future : futures) {
+                results.add(future.join());
+            }
+            return results;
+        });
+    }
+
+    /**
+     * Applies the same config to every device, blocking until they're all done. Failures are reported to the driver station.
+     * @param config The config to apply
+     * @param talons The devices to configure
+     * @return The result of every device, in the same order as {@code talons}
+     */
+    public List<Result> apply(TalonFXConfiguration config, TalonFX... talons) {
+        List<Result> results = applyAsync(config, talons).join();
+        reportFailures(results);
+        return results;
+    }
+
+    /**
+     * Reports every device that failed to be configured as a driver station warning.
+     * @param results The results to check
+     * @return If every device was configured successfully
+     */
+    public static boolean reportFailures(List<Result> results) {
+        List<Result> failures = new ArrayList<>();
+        for (Result result : results) {
+            if (result.status() == Status.FAILED) failures.add(result);
+        }
+        if (failures.isEmpty()) return true;
+        DriverStation.reportWarning("Failed to configure " + failures.size() + " TalonFX(s): " + Util.joinStrings(", ", failures), false);
+        return false;
+    }
+
+    /**
+     * Stops the background threads, anything still being configured is allowed to finish.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private Result configure(TalonFX talon, String desired) {
+        long start = System.nanoTime();
+        var configurator = talon.getConfigurator();
+        TalonFXConfiguration current = new TalonFXConfiguration();
+        StatusCode code = StatusCode.OK;
+        int attempts = 0;
+        if (skipMatching) {
+            while (attempts < maxAttempts) {
+                attempts++;
+                code = configurator.refresh(current, timeoutSeconds);
+                if (code.isOK()) break;
+            }
+            if (code.isOK() && configsMatch(desired, current.serialize(), tolerance)) {
+                return new Result(talon, Status.ALREADY_MATCHED, code, attempts, elapsedSeconds(start));
+            }
+        }
+        TalonFXConfiguration config = new TalonFXConfiguration();
+        config.deserialize(desired);
+        int writes = 0;
+        while (writes < maxAttempts) {
+            writes++;
+            code = configurator.apply(config, timeoutSeconds);
+            if (code.isOK()) break;
+        }
+        Status status = code.isOK() ? Status.APPLIED : Status.FAILED;
+        return new Result(talon, status, code, attempts + writes, elapsedSeconds(start));
+    }
+
+    /**
+     * Compares two serialized configs, every number must be within a relative tolerance and everything else must be identical.
+     */
+    static boolean configsMatch(String desired, String actual, double tolerance) {
+        Matcher desiredNumbers = kNumber.matcher(desired);
+        Matcher actualNumbers = kNumber.matcher(actual);
+        int desiredEnd = 0;
+        int actualEnd = 0;
+        while (desiredNumbers.find()) {
+            if (!actualNumbers.find()) return false;
+            if (!desired.substring(desiredEnd, desiredNumbers.start()).equals(actual.substring(actualEnd, actualNumbers.start()))) return false;
+            double a = Double.parseDouble(desiredNumbers.group());
+            double b = Double.parseDouble(actualNumbers.group());
+            if (Math.abs(a - b) > tolerance * Math.max(Math.abs(a), Math.abs(b)) + Util.kEpsilon) return false;
+            desiredEnd = desiredNumbers.end();
+            actualEnd = actualNumbers.end();
+        }
+        if (actualNumbers.find()) return false;
+        return desired.substring(desiredEnd).equals(actual.substring(actualEnd));
+    }
+
+    private static double elapsedSeconds(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1e9;
+    }
+
+}
@@ -1,14 +1,27 @@
 package frc.robot.lib.util;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
 
 import com.ctre.phoenix6.Orchestra;
+import com.ctre.phoenix6.StatusCode;
 import com.ctre.phoenix6.configs.AudioConfigs;
 import com.ctre.phoenix6.hardware.TalonFX;
 
+import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.Filesystem;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.Commands;
@@ -25,6 +38,16 @@ public class TalonMusic {
     private static final AudioConfigs audioConfigs = new AudioConfigs().withAllowMusicDurDisable(true);
     private static final List<Subsystem> subsystems = new ArrayList<>();
     private static final String startupSong = "PacmanMelody.chrp";
+    private static final String songExtension = ".chrp";
+    // Every song file that's been found, by file name
+    private static final Map<String, Path> songs = new ConcurrentHashMap<>();
+    // Loading a song blocks on the file and the CAN bus, so it's done here one song at a time
+    private static final ExecutorService loader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "TalonMusic");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static volatile String loadedSong = null;
 
     /**
      * Adds talons to the class's internal orchestra, also modifies their audio configs to allow music when disabled.
@@ -64,23 +87,85 @@ public class TalonMusic {
         return playTune(startupSong);
     }
 
+    /**
+     * Finds every .chrp file in the deploy directory on a background thread, skipping any that are empty or can't be
+     * read, so playing a song doesn't have to search for it. Call this once at startup.
+     * @return A future that completes with the names of every song that was found
+     */
+    public static CompletableFuture<Set<String>> preloadSongs() {
+        Path deployDirectory = Filesystem.getDeployDirectory().toPath();
+        return CompletableFuture.supplyAsync(() -> {
+            try (Stream<Path> files = Files.list(deployDirectory)) {
+                files.filter(file -> file.getFileName().toString().endsWith(songExtension)).forEach(file -> {
+                    try {
+                        if (!Files.isReadable(file)) {
+                            DriverStation.reportWarning("Song " + file.getFileName() + " can't be read", false);
+                            return;
+                        }
+                        if (Files.size(file) == 0) {
+                            DriverStation.reportWarning("Song " + file.getFileName() + " is empty", false);
+                            return;
+                        }
+                        songs.put(file.getFileName().toString(), file);
+                    } catch (IOException e) {
+                        DriverStation.reportWarning("Couldn't read song " + file.getFileName() + ": " + e.getMessage(), false);
+                    }
+                });
+            } catch (IOException e) {
+                DriverStation.reportWarning("Couldn't scan " + deployDirectory + " for songs: " + e.getMessage(), false);
+            }
+            return Set.copyOf(songs.keySet());
+        });
+    }
+
     /**
      * Plays a .chrp file on the talonFXs that have been added to the orchestra.
+     * Building the command doesn't touch the orchestra, the song is loaded on a background thread when the command
+     * starts and is only reloaded if a different song was played since. The command waits for the load before playing.
      * @param fileName file to play, we assume it's in the deploy directory
      */
     public static Command playTune(String fileName) {
-        if (orchestra.isPlaying()) {
-            orchestra.stop();
-        }
-        orchestra.loadMusic(Filesystem.getDeployDirectory().getAbsolutePath() + File.separator + fileName);
         Subsystem[] requirements = subsystems.toArray(new Subsystem[subsystems.size()]);
+        AtomicReference<CompletableFuture<Boolean>> load = new AtomicReference<>();
         return Commands.sequence(
-            Commands.runOnce(orchestra::play, requirements),
+            Commands.runOnce(() -> load.set(CompletableFuture.supplyAsync(() -> loadSong(fileName), loader)
+                .exceptionally(e -> {
+                    DriverStation.reportWarning("Couldn't load song " + fileName + ": " + e.getMessage(), false);
+                    return false;
+                })), requirements),
+            Commands.waitUntil(() -> load.get().isDone()),
+            Commands.runOnce(() -> {
+                if (load.get().getNow(false)) {
+                    orchestra.play();
+                }
+            }),
             Commands.waitUntil(() -> !orchestra.isPlaying())
         ).finallyDo(TalonMusic::stopPlaying)
         .ignoringDisable(true);
     }
 
+    /**
+     * Loads a song into the orchestra if it isn't already loaded. Only called from the loader thread.
+     * @return If the song was loaded
+     */
+    private static boolean loadSong(String fileName) {
+        if (fileName.equals(loadedSong)) {
+            return true;
+        }
+        if (orchestra.isPlaying()) {
+            orchestra.stop();
+        }
+        Path file = songs.getOrDefault(fileName, Path.of(Filesystem.getDeployDirectory().getAbsolutePath() + File.separator + fileName));
+        StatusCode status = orchestra.loadMusic(file.toString());
+        if (!status.isOK()) {
+            DriverStation.reportWarning("Couldn't load song " + fileName + ": " + status, false);
+            loadedSong = null;
+            return false;
+        }
+        loadedSong = fileName;
+        return true;
+    }
+
     public static void stopPlaying() {
         orchestra.stop();
     }
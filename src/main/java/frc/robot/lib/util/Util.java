@@ -227,9 +227,14 @@ public class Util {
         return new Pair<Double,Double>(x, y);
     }
 
+    /**
+     * Resets every talon to its factory default config, configuring them in parallel. Every talon is written even if it
+     * already looks like it's at its defaults. Blocks until every talon is done.
+     * @param talons The talons to reset
+     */
     public static void factoryReset(TalonFX... talons) {
-        for (TalonFX talon : talons) {
-            talon.getConfigurator().apply(new TalonFXConfiguration());
+        try (var applier = new TalonFXConfigApplier().withSkipMatching(false)) {
+            applier.apply(new TalonFXConfiguration(), talons);
         }
     }
 
@@ -0,0 +1,99 @@
+package frc.robot.lib.util;
+
+/**
+ * The minimum and maximum of the last {@code window} inputs. Uses two monotonic deques so each update is
+ * amortized O(1) and doesn't allocate.
+ */
+public class WindowMinMax {
+
+    private final int window;
+    // Both deques hold input sequence numbers in a ring, values are looked up in the value ring
+    private final double[] values;
+    private final long[] minDeque;
+    private final long[] maxDeque;
+    private int minHead;
+    private int minSize;
+    private int maxHead;
+    private int maxSize;
+    private long sequence;
+
+    /**
+     * Creates a new window min/max.
+     * @param window The number of inputs to use, must be positive
+     */
+    public WindowMinMax(int window) {
+        if (window < 1) throw new IllegalArgumentException("Window must be positive, got: " + window);
+        this.window = window;
+        values = new double[window];
+        minDeque = new long[window];
+        maxDeque = new long[window];
+    }
+
+    /**
+     * Adds an input to the window.
+     * @param input The new input
+     */
+    public void add(double input) {
+        long oldest = sequence - window + 1;
+        values[(int) (sequence % window)] = input;
+
+        if (minSize > 0 && minDeque[minHead] < oldest) {
+            minHead = (minHead + 1) % window;
+            minSize--;
+        }
+        while (minSize > 0 && value(minDeque[(minHead + minSize - 1) % window]) >= input) {
+            minSize--;
+        }
+        minDeque[(minHead + minSize) % window] = sequence;
+        minSize++;
+
+        if (maxSize > 0 && maxDeque[maxHead] < oldest) {
+            maxHead = (maxHead + 1) % window;
+            maxSize--;
+        }
+        while (maxSize > 0 && value(maxDeque[(maxHead + maxSize - 1) % window]) <= input) {
+            maxSize--;
+        }
+        maxDeque[(maxHead + maxSize) % window] = sequence;
+        maxSize++;
+
+        sequence++;
+    }
+
+    /**
+     * @return The smallest input in the window, 0 if there aren't any inputs
+     */
+    public double getMin() {
+        return minSize == 0 ? 0 : value(minDeque[minHead]);
+    }
+
+    /**
+     * @return The largest input in the window, 0 if there aren't any inputs
+     */
+    public double getMax() {
+        return maxSize == 0 ? 0 : value(maxDeque[maxHead]);
+    }
+
+    /**
+     * @return The difference between the largest and smallest input in the window
+     */
+    public double getRange() {
+        return getMax() - getMin();
+    }
+
+    /**
+     * Removes every input.
+     */
+    public void reset() {
+        minHead = 0;
+        minSize = 0;
+        maxHead = 0;
+        maxSize = 0;
+        sequence = 0;
+    }
+
+    private double value(long index) {
+        return values[(int) (index % window)];
+    }
+
+}
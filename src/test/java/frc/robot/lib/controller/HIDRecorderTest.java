@@ -0,0 +1,75 @@
+package frc.robot.lib.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.simulation.GenericHIDSim;
+import frc.robot.lib.sim.SimHarness;
+
+public class HIDRecorderTest {
+
+    private static final int PORT = 3;
+    // Fewer than the recorder queues, so none are dropped however fast the loop runs
+    private static final int FRAMES = 250;
+    private static final int BUTTONS = 12;
+    private static final int AXES = 6;
+
+    private static String describe(HIDSnapshot snapshot) {
+        var frame = new StringBuilder();
+        frame.append(snapshot.getButtons()).append(' ').append(snapshot.getButtonCount()).append(' ').append(snapshot.getPOV());
+        for (int i = 0; i < snapshot.getAxisCount(); i++) {
+            frame.append(' ').append(snapshot.getAxis(i));
+        }
+        return frame.toString();
+    }
+
+    private static void refresh(HIDSnapshot snapshot) {
+        DriverStation.refreshData();
+        snapshot.refresh();
+    }
+
+    @Test
+    void testRecordThenReplay(@TempDir Path directory) throws Exception {
+        SimHarness.initialize();
+        Path file = directory.resolve("driver.hid");
+        var sim = new GenericHIDSim(PORT);
+        var snapshot = new HIDSnapshot(PORT, false);
+        List<String> recorded = new ArrayList<>();
+        try (var recorder = new HIDRecorder(snapshot, file)) {
+            for (int frame = 0; frame < FRAMES; frame++) {
+                sim.setButtonCount(BUTTONS);
+                for (int button = 1; button <= BUTTONS; button++) {
+                    sim.setRawButton(button, (frame + button) % (button + 1) == 0);
+                }
+                sim.setAxisCount(AXES);
+                for (int axis = 0; axis < AXES; axis++) {
+                    // Eighths are exact as floats, so the values come back unchanged
+                    sim.setRawAxis(axis, ((frame + axis * 3) % 17 - 8) / 8.0);
+                }
+                sim.setPOVCount(1);
+                sim.setPOV(frame % 9 == 8 ? -1 : frame % 9 * 45);
+                sim.notifyNewData();
+                refresh(snapshot);
+                recorder.record();
+                recorded.add(describe(snapshot));
+            }
+            assertEquals(FRAMES, recorder.getFrameCount());
+            assertEquals(0, recorder.getDroppedCount());
+        }
+        var replay = new HIDReplay(file);
+        assertEquals(FRAMES, replay.size());
+        for (int frame = 0; frame < FRAMES; frame++) {
+            replay.step();
+            refresh(snapshot);
+            assertEquals(recorded.get(frame), describe(snapshot), "Frame " + frame);
+        }
+    }
+
+}
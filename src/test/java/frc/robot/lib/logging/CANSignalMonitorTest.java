@@ -0,0 +1,68 @@
+package frc.robot.lib.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class CANSignalMonitorTest {
+
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    void testSteadySignalsAreHealthy() {
+        var monitor = new CANSignalMonitor();
+        monitor.addDevice("Drive", 2);
+        double[] periods = {0.01, 0.01};
+        double[] timestamps = new double[2];
+        for (int i = 0; i < 100; i++) {
+            double now = i * 0.01;
+            timestamps[0] = now - 0.002;
+            timestamps[1] = now - 0.004;
+            monitor.update(now, timestamps, periods);
+        }
+        assertEquals(0.002, monitor.getAge(0), EPSILON);
+        assertEquals(0.004, monitor.getMaxAge("Drive"), EPSILON);
+        assertEquals(0, monitor.getJitter(0), 1e-6);
+        assertEquals(0, monitor.getMissedUpdates("Drive"));
+        assertEquals(0, monitor.getStaleSignalCount("Drive"));
+        assertEquals(200, monitor.getAgeHistogram()[0]);
+    }
+
+    @Test
+    void testMissedAndStaleUpdates() {
+        var monitor = new CANSignalMonitor();
+        monitor.addDevice("Arm", 1);
+        double[] periods = {0.02};
+        double[] timestamps = {0};
+        monitor.update(0, timestamps, periods);
+        // Three frames are skipped
+        timestamps[0] = 0.08;
+        monitor.update(0.08, timestamps, periods);
+        assertEquals(3, monitor.getMissedUpdates(0));
+        assertTrue(monitor.getJitter(0) > 0);
+        // No new frame for 50 ms, more than twice the period
+        monitor.update(0.13, timestamps, periods);
+        assertTrue(monitor.isStale(0));
+        assertEquals(1, monitor.getStaleSignalCount("Arm"));
+        assertEquals(0.05, monitor.getMaxAge("Arm"), EPSILON);
+        timestamps[0] = 0.14;
+        monitor.update(0.14, timestamps, periods);
+        assertFalse(monitor.isStale(0));
+        assertEquals(5, monitor.getMissedUpdates("Arm"));
+    }
+
+    @Test
+    void testSignalsThatArentSentAreIgnored() {
+        var monitor = new CANSignalMonitor();
+        monitor.addDevice("Intake", 1);
+        double[] periods = {Double.POSITIVE_INFINITY};
+        double[] timestamps = {0};
+        monitor.update(10, timestamps, periods);
+        monitor.update(20, timestamps, periods);
+        assertFalse(monitor.isStale(0));
+        assertEquals(0, monitor.getMissedUpdates(0));
+    }
+
+}
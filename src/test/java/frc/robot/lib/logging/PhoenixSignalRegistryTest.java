@@ -0,0 +1,95 @@
+package frc.robot.lib.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ctre.phoenix6.CANBus;
+import com.ctre.phoenix6.hardware.CANcoder;
+import com.ctre.phoenix6.hardware.Pigeon2;
+import com.ctre.phoenix6.hardware.TalonFX;
+
+import edu.wpi.first.epilogue.logging.NullBackend;
+import edu.wpi.first.epilogue.logging.errors.ErrorHandler;
+import frc.robot.lib.sim.SimHarness;
+
+// The registry is shared by every test in the JVM, so each test uses its own buses and checks what it added
+public class PhoenixSignalRegistryTest {
+
+    @BeforeEach
+    void initialize() {
+        SimHarness.initialize();
+    }
+
+    @Test
+    void testGroupsSignalsByBus() {
+        int buses = PhoenixSignalRegistry.getBusCount();
+        int signals = PhoenixSignalRegistry.getSignalCount();
+        var first = new TalonFX(20, new CANBus("Registry A"));
+        var second = new TalonFX(21, new CANBus("Registry B"));
+        assertTrue(PhoenixSignalRegistry.register("TalonFX 20", first, first.getPosition(false), first.getVelocity(false)));
+        assertTrue(PhoenixSignalRegistry.register("TalonFX 21", second, second.getPosition(false)));
+        assertEquals(buses + 2, PhoenixSignalRegistry.getBusCount());
+        // Another device on a bus that's already there is refreshed in the same call
+        var third = new TalonFX(22, new CANBus("Registry A"));
+        assertTrue(PhoenixSignalRegistry.register("TalonFX 22", third, third.getPosition(false)));
+        assertEquals(buses + 2, PhoenixSignalRegistry.getBusCount());
+        assertEquals(signals + 4, PhoenixSignalRegistry.getSignalCount());
+        PhoenixSignalRegistry.refreshAll();
+    }
+
+    @Test
+    void testRegisteringTwiceIsIgnored() {
+        var talon = new TalonFX(23, new CANBus("Registry C"));
+        assertFalse(PhoenixSignalRegistry.isRegistered(talon));
+        assertTrue(PhoenixSignalRegistry.register("TalonFX 23", talon, talon.getPosition(false)));
+        int buses = PhoenixSignalRegistry.getBusCount();
+        int signals = PhoenixSignalRegistry.getSignalCount();
+        assertFalse(PhoenixSignalRegistry.register("TalonFX 23", talon, talon.getPosition(false), talon.getVelocity(false)));
+        assertTrue(PhoenixSignalRegistry.isRegistered(talon));
+        assertEquals(buses, PhoenixSignalRegistry.getBusCount());
+        assertEquals(signals, PhoenixSignalRegistry.getSignalCount());
+    }
+
+    @Test
+    void testFaultMonitorAddsFields() {
+        int buses = PhoenixSignalRegistry.getBusCount();
+        int signals = PhoenixSignalRegistry.getSignalCount();
+        var talon = new TalonFX(24, new CANBus("Registry D"));
+        var monitor = new TalonFXFaultMonitor().useSignalRegistry().addTalons(talon);
+        // Both fault fields, without registering the talon so its logger still can
+        assertEquals(buses + 1, PhoenixSignalRegistry.getBusCount());
+        assertEquals(signals + 2, PhoenixSignalRegistry.getSignalCount());
+        assertFalse(PhoenixSignalRegistry.isRegistered(talon));
+        PhoenixSignalRegistry.refreshAll();
+        monitor.update();
+        assertEquals(0, monitor.getActiveFaults(talon));
+    }
+
+    @Test
+    void testDeviceLoggersRegister() {
+        var bus = new CANBus("Registry E");
+        var cancoder = new CANcoder(25, bus);
+        var pigeon = new Pigeon2(26, bus);
+        int buses = PhoenixSignalRegistry.getBusCount();
+        int signals = PhoenixSignalRegistry.getSignalCount();
+        var cancoderLogger = new CANcoderLogger();
+        var pigeonLogger = new Pigeon2Logger();
+        cancoderLogger.tryUpdate(new NullBackend(), cancoder, ErrorHandler.crashOnError());
+        pigeonLogger.tryUpdate(new NullBackend(), pigeon, ErrorHandler.crashOnError());
+        assertTrue(PhoenixSignalRegistry.isRegistered(cancoder));
+        assertTrue(PhoenixSignalRegistry.isRegistered(pigeon));
+        // Different device types on one bus still share a refresh call
+        assertEquals(buses + 1, PhoenixSignalRegistry.getBusCount());
+        int registered = PhoenixSignalRegistry.getSignalCount();
+        assertTrue(registered > signals);
+        cancoderLogger.tryUpdate(new NullBackend(), cancoder, ErrorHandler.crashOnError());
+        pigeonLogger.tryUpdate(new NullBackend(), pigeon, ErrorHandler.crashOnError());
+        assertEquals(registered, PhoenixSignalRegistry.getSignalCount());
+        PhoenixSignalRegistry.refreshAll();
+    }
+
+}
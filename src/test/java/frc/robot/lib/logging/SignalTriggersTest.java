@@ -0,0 +1,118 @@
+package frc.robot.lib.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import frc.robot.lib.logging.SignalTriggers.Comparison;
+
+public class SignalTriggersTest {
+
+    @Test
+    void testThreshold() {
+        var triggers = new SignalTriggers();
+        int current = triggers.indexOf(null);
+        int above = triggers.addCondition(current, Comparison.ABOVE, 40, 0, 0);
+        int below = triggers.addCondition(current, Comparison.BELOW, 5, 0, 0);
+        assertFalse(triggers.isActive(above));
+        triggers.setValue(current, 41);
+        triggers.evaluate(0);
+        assertTrue(triggers.isActive(above));
+        assertFalse(triggers.isActive(below));
+        triggers.setValue(current, 2);
+        triggers.evaluate(0.02);
+        assertFalse(triggers.isActive(above));
+        assertTrue(triggers.isActive(below));
+        assertEquals(2, triggers.getEvaluationCount());
+    }
+
+    @Test
+    void testMagnitude() {
+        var triggers = new SignalTriggers();
+        int velocity = triggers.indexOf(null);
+        int moving = triggers.addCondition(velocity, Comparison.MAGNITUDE_ABOVE, 1, 0, 0);
+        int stopped = triggers.addCondition(velocity, Comparison.MAGNITUDE_BELOW, 0.1, 0, 0);
+        triggers.setValue(velocity, -3);
+        triggers.evaluate(0);
+        assertTrue(triggers.isActive(moving));
+        assertFalse(triggers.isActive(stopped));
+        triggers.setValue(velocity, -0.05);
+        triggers.evaluate(0.02);
+        assertFalse(triggers.isActive(moving));
+        assertTrue(triggers.isActive(stopped));
+    }
+
+    @Test
+    void testHysteresis() {
+        var triggers = new SignalTriggers();
+        int current = triggers.indexOf(null);
+        int stall = triggers.addCondition(current, Comparison.ABOVE, 40, 5, 0);
+        double[] inputs = {39, 41, 38, 36, 34, 39, 40.5};
+        boolean[] expected = {false, true, true, true, false, false, true};
+        for (int i = 0; i < inputs.length; i++) {
+            triggers.setValue(current, inputs[i]);
+            triggers.evaluate(i * 0.02);
+            assertEquals(expected[i], triggers.isActive(stall), "Input " + i);
+        }
+    }
+
+    @Test
+    void testDebounce() {
+        var triggers = new SignalTriggers();
+        int current = triggers.indexOf(null);
+        int stall = triggers.addCondition(current, Comparison.ABOVE, 40, 0, 0.1);
+        triggers.setValue(current, 50);
+        triggers.evaluate(0);
+        triggers.evaluate(0.08);
+        assertFalse(triggers.isActive(stall));
+        // A dip resets the debounce
+        triggers.setValue(current, 30);
+        triggers.evaluate(0.1);
+        triggers.setValue(current, 50);
+        triggers.evaluate(0.12);
+        triggers.evaluate(0.2);
+        assertFalse(triggers.isActive(stall));
+        triggers.evaluate(0.25);
+        assertTrue(triggers.isActive(stall));
+        // Turning off is debounced too
+        triggers.setValue(current, 30);
+        triggers.evaluate(0.26);
+        triggers.evaluate(0.3);
+        assertTrue(triggers.isActive(stall));
+        triggers.evaluate(0.4);
+        assertFalse(triggers.isActive(stall));
+    }
+
+    @Test
+    void testManyConditions() {
+        var triggers = new SignalTriggers();
+        int[] signals = new int[100];
+        int[] conditions = new int[100];
+        for (int i = 0; i < 100; i++) {
+            signals[i] = triggers.indexOf(null);
+            conditions[i] = triggers.addCondition(signals[i], Comparison.ABOVE, i, 0, 0);
+        }
+        for (int i = 0; i < 100; i++) {
+            triggers.setValue(signals[i], 50);
+        }
+        triggers.evaluate(0);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i < 50, triggers.isActive(conditions[i]));
+        }
+        assertEquals(100, triggers.getConditionCount());
+    }
+
+    @Test
+    void testInvalidConditions() {
+        var triggers = new SignalTriggers();
+        int signal = triggers.indexOf(null);
+        assertThrows(IllegalArgumentException.class, () -> triggers.addCondition(signal + 1, Comparison.ABOVE, 1, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> triggers.addCondition(signal, Comparison.ABOVE, Double.NaN, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> triggers.addCondition(signal, Comparison.ABOVE, 1, -1, 0));
+        assertThrows(IllegalArgumentException.class, () -> triggers.addCondition(signal, Comparison.ABOVE, 1, 0, -1));
+    }
+
+}
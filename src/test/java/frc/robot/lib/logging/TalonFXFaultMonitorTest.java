@@ -0,0 +1,129 @@
+package frc.robot.lib.logging;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntToLongFunction;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Devices are added without talons and fed raw field values, since reading real fault signals needs the Phoenix natives
+public class TalonFXFaultMonitorTest {
+
+    private static final long kUndervoltage = TalonFXFault.UNDERVOLTAGE.bit();
+    private static final long kBrownout = TalonFXFault.BRIDGE_BROWNOUT.bit();
+    private static final long kHardware = TalonFXFault.HARDWARE.bit();
+
+    private final TalonFXFaultMonitor monitor = new TalonFXFaultMonitor();
+    private final List<String> changes = new ArrayList<>();
+    private final double[] activeFields = new double[2];
+    private final double[] stickyFields = new double[2];
+    // What each device's individual fault signals decode to
+    private final long[] activeFaults = new long[2];
+    private final long[] stickyFaults = new long[2];
+    private int decodes;
+
+    private final IntToLongFunction decodeActive = device -> {
+        decodes++;
+        return activeFaults[device];
+    };
+    private final IntToLongFunction decodeSticky = device -> {
+        decodes++;
+        return stickyFaults[device];
+    };
+
+    @BeforeEach
+    void addDevices() {
+        monitor.addDevice("TalonFX 1");
+        monitor.addDevice("TalonFX 2");
+        monitor.logTo(changes::add);
+    }
+
+    private void update() {
+        monitor.update(activeFields, stickyFields, decodeActive, decodeSticky);
+    }
+
+    @Test
+    void testOnlyDecodesChangedFields() {
+        update();
+        assertEquals(0, decodes);
+        assertTrue(changes.isEmpty());
+        activeFields[0] = 8;
+        activeFaults[0] = kUndervoltage;
+        update();
+        assertEquals(1, decodes);
+        assertEquals(List.of("TalonFX 1 Active: +UNDERVOLTAGE"), changes);
+        // The same field isn't decoded again
+        update();
+        assertEquals(1, decodes);
+        activeFields[0] = 0;
+        activeFaults[0] = 0;
+        update();
+        // A cleared field doesn't need decoding
+        assertEquals(1, decodes);
+        assertEquals("TalonFX 1 Active: -UNDERVOLTAGE", changes.get(1));
+        assertEquals(0, monitor.getRobotActiveFaults());
+    }
+
+    @Test
+    void testRedecodesWhenSignalsLagTheField() {
+        activeFields[1] = 64;
+        update();
+        // The individual signals haven't caught up yet, so nothing decoded or logged
+        assertEquals(1, decodes);
+        assertEquals(0, monitor.getRobotActiveFaults());
+        assertTrue(changes.isEmpty());
+        activeFaults[1] = kBrownout;
+        update();
+        assertEquals(2, decodes);
+        assertEquals(kBrownout, monitor.getRobotActiveFaults());
+        assertEquals(List.of("TalonFX 2 Active: +BRIDGE_BROWNOUT"), changes);
+        update();
+        assertEquals(2, decodes);
+    }
+
+    @Test
+    void testFieldsWithTheTopBitSet() {
+        activeFields[0] = 0x8000_0000L;
+        activeFaults[0] = kHardware;
+        update();
+        assertEquals(1, decodes);
+        // Saturating to Integer.MAX_VALUE would make these two fields look the same
+        activeFields[0] = 0x8000_0001L;
+        activeFaults[0] = kHardware | kUndervoltage;
+        update();
+        assertEquals(2, decodes);
+        assertEquals(kHardware | kUndervoltage, monitor.getRobotActiveFaults());
+        activeFields[0] = 0xFFFF_FFFFL;
+        update();
+        assertEquals(3, decodes);
+    }
+
+    @Test
+    void testRobotQueries() {
+        activeFields[0] = 1;
+        activeFaults[0] = kUndervoltage;
+        activeFields[1] = 2;
+        activeFaults[1] = kUndervoltage | kBrownout;
+        stickyFields[1] = 4;
+        stickyFaults[1] = kHardware;
+        update();
+        assertEquals(kUndervoltage | kBrownout, monitor.getRobotActiveFaults());
+        assertEquals(kHardware, monitor.getRobotStickyFaults());
+        assertTrue(monitor.anyActive(TalonFXFault.mask(TalonFXFault.BRIDGE_BROWNOUT, TalonFXFault.HARDWARE)));
+        assertFalse(monitor.anyActive(kHardware));
+        assertTrue(monitor.anySticky(kHardware));
+        assertFalse(monitor.anySticky(kUndervoltage));
+        assertArrayEquals(new int[] {0, 1}, monitor.getDevicesWithActive(kUndervoltage));
+        assertArrayEquals(new int[] {1}, monitor.getDevicesWithActive(kBrownout));
+        assertArrayEquals(new int[0], monitor.getDevicesWithActive(kHardware));
+        assertEquals(List.of("TalonFX 1 Active: +UNDERVOLTAGE", "TalonFX 2 Active: +UNDERVOLTAGE +BRIDGE_BROWNOUT",
+            "TalonFX 2 Sticky: +HARDWARE"), changes);
+    }
+
+}
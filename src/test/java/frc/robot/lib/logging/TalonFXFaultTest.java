@@ -0,0 +1,45 @@
+package frc.robot.lib.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class TalonFXFaultTest {
+
+    @Test
+    void testEveryFaultFitsInALong() {
+        assertTrue(TalonFXFault.values().length <= Long.SIZE);
+    }
+
+    @Test
+    void testMask() {
+        long mask = TalonFXFault.mask(TalonFXFault.UNDERVOLTAGE, TalonFXFault.BRIDGE_BROWNOUT);
+        assertEquals(2, Long.bitCount(mask));
+        assertTrue(TalonFXFault.UNDERVOLTAGE.isIn(mask));
+        assertTrue(TalonFXFault.BRIDGE_BROWNOUT.isIn(mask));
+        assertFalse(TalonFXFault.HARDWARE.isIn(mask));
+        assertEquals(0, TalonFXFault.mask());
+    }
+
+    @Test
+    void testBitsAreUnique() {
+        long all = 0;
+        for (TalonFXFault fault : TalonFXFault.values()) {
+            assertEquals(0, all & fault.bit());
+            all |= fault.bit();
+        }
+        assertEquals(TalonFXFault.values().length, Long.bitCount(all));
+    }
+
+    @Test
+    void testDescribeChange() {
+        long before = TalonFXFault.mask(TalonFXFault.STATOR_CURR_LIMIT, TalonFXFault.DEVICE_TEMP);
+        long after = TalonFXFault.mask(TalonFXFault.UNDERVOLTAGE, TalonFXFault.DEVICE_TEMP);
+        assertEquals("+UNDERVOLTAGE -STATOR_CURR_LIMIT", TalonFXFault.describeChange(before, after));
+        assertEquals("", TalonFXFault.describeChange(after, after));
+        assertEquals("-DEVICE_TEMP -UNDERVOLTAGE", TalonFXFault.describeChange(after, 0));
+    }
+
+}
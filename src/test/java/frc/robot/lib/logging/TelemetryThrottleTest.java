@@ -0,0 +1,147 @@
+package frc.robot.lib.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.util.datalog.DataLog;
+import frc.robot.lib.logging.TelemetryThrottle.Priority;
+import frc.robot.lib.logging.TelemetryThrottle.Result;
+
+public class TelemetryThrottleTest {
+
+    private static final int VALUE_BYTES = 8;
+    private static final int MESSAGE_BYTES = VALUE_BYTES + TelemetryThrottle.kMessageOverheadBytes;
+
+    /**
+     * A topic that counts what it was sent instead of publishing.
+     */
+    private static class FakeTopic extends TelemetryThrottle.Topic {
+        private int published;
+
+        private FakeTopic(String name, Priority priority, double maxRateHz) {
+            super(name, priority, maxRateHz);
+        }
+
+        @Override
+        int size() {
+            return VALUE_BYTES;
+        }
+
+        @Override
+        void publish() {
+            published++;
+        }
+
+        @Override
+        void append(DataLog log) {}
+    }
+
+    private double time;
+
+    private TelemetryThrottle throttle(double bytesPerSecond) {
+        return new TelemetryThrottle(bytesPerSecond, () -> time);
+    }
+
+    @Test
+    void testRateLimit() {
+        var throttle = throttle(1e6);
+        var topic = throttle.add(new FakeTopic("Speed", Priority.NORMAL, 10));
+        assertEquals(Result.SENT, throttle.offer(topic));
+        time = 0.05;
+        assertEquals(Result.RATE_LIMITED, throttle.offer(topic));
+        // The held back value goes out once the interval has passed
+        time = 0.08;
+        throttle.update();
+        assertEquals(1, topic.published);
+        time = 0.1;
+        throttle.update();
+        assertEquals(2, topic.published);
+        throttle.update();
+        assertEquals(2, topic.published);
+        assertEquals(2, topic.getSentCount());
+        assertEquals(1, topic.getRateLimitedCount());
+    }
+
+    @Test
+    void testBudget() {
+        // Ten messages per second, with a burst of one
+        var throttle = throttle(MESSAGE_BYTES * 10);
+        var topic = throttle.add(new FakeTopic("Speed", Priority.NORMAL, 1000));
+        assertEquals(Result.SENT, throttle.offer(topic));
+        time = 0.001;
+        assertEquals(Result.DEFERRED, throttle.offer(topic));
+        int sent = 1;
+        for (int loop = 1; loop <= 100; loop++) {
+            time = loop * 0.02;
+            if (throttle.offer(topic) == Result.SENT) sent++;
+        }
+        // About two seconds at ten per second
+        assertTrue(sent >= 19 && sent <= 22, "Sent " + sent);
+        assertTrue(throttle.getBytesSent() <= MESSAGE_BYTES * 22);
+    }
+
+    @Test
+    void testPriorities() {
+        var throttle = throttle(MESSAGE_BYTES * 50);
+        var critical = throttle.add(new FakeTopic("Enabled", Priority.CRITICAL, 10000));
+        var normal = throttle.add(new FakeTopic("Pose", Priority.NORMAL, 1000));
+        var low = throttle.add(new FakeTopic("Temperature", Priority.LOW, 1000));
+        // Critical topics are sent even when they overdraw the budget
+        for (int i = 0; i < 20; i++) {
+            time = i * 1e-3;
+            assertEquals(Result.SENT, throttle.offer(critical));
+        }
+        assertTrue(throttle.getAvailableBytes() < 0);
+        assertEquals(Result.DEFERRED, throttle.offer(normal));
+        assertEquals(Result.LOGGED, throttle.offer(low));
+        // Once the budget recovers normal topics are sent before low priority ones
+        time = 0.14;
+        throttle.update();
+        assertEquals(1, normal.published);
+        assertEquals(0, low.published);
+        time = 0.25;
+        throttle.update();
+        assertEquals(1, low.published);
+        assertEquals(1, normal.getDeferredCount());
+        assertEquals(1, low.getLoggedCount());
+    }
+
+    @Test
+    void testLowPriorityLogged() {
+        var throttle = throttle(MESSAGE_BYTES * 10);
+        var normal = throttle.add(new FakeTopic("Pose", Priority.NORMAL, 1000));
+        var low = throttle.add(new FakeTopic("Temperature", Priority.LOW, 1000));
+        throttle.offer(normal);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(Result.LOGGED, throttle.offer(low));
+        }
+        // Retrying a held back value doesn't log it again
+        throttle.update();
+        assertEquals(5, low.getLoggedCount());
+        assertEquals(0, low.published);
+    }
+
+    @Test
+    void testTopicOrder() {
+        var throttle = throttle(1000);
+        throttle.add(new FakeTopic("A", Priority.LOW, 1));
+        throttle.add(new FakeTopic("B", Priority.CRITICAL, 1));
+        throttle.add(new FakeTopic("C", Priority.NORMAL, 1));
+        throttle.add(new FakeTopic("D", Priority.CRITICAL, 1));
+        var topics = throttle.getTopics();
+        assertEquals("B", topics.get(0).getName());
+        assertEquals("D", topics.get(1).getName());
+        assertEquals("C", topics.get(2).getName());
+        assertEquals("A", topics.get(3).getName());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> throttle(0));
+        assertThrows(IllegalArgumentException.class, () -> new FakeTopic("A", Priority.LOW, 0));
+    }
+
+}
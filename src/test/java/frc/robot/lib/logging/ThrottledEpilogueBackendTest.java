@@ -0,0 +1,99 @@
+package frc.robot.lib.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.epilogue.logging.EpilogueBackend;
+import edu.wpi.first.epilogue.logging.NullBackend;
+import frc.robot.lib.logging.TelemetryThrottle.Priority;
+import frc.robot.lib.logging.TelemetryThrottle.Topic;
+
+public class ThrottledEpilogueBackendTest {
+
+    /**
+     * A fallback that records the names of what it was given.
+     */
+    private static class RecordingBackend extends NullBackend {
+        private final List<String> logged = new ArrayList<>();
+
+        @Override
+        public void log(String identifier, double[] value) {
+            logged.add(identifier);
+        }
+
+        @Override
+        public void log(String identifier, String value) {
+            logged.add(identifier);
+        }
+    }
+
+    private double time;
+    private final TelemetryThrottle throttle = new TelemetryThrottle(1e6, () -> time);
+    private final RecordingBackend fallback = new RecordingBackend();
+
+    private Topic topic(String name) {
+        for (Topic topic : throttle.getTopics()) {
+            if (topic.getName().equals(name)) return topic;
+        }
+        throw new AssertionError("No topic " + name);
+    }
+
+    @Test
+    void testRules() {
+        var backend = new ThrottledEpilogueBackend(throttle, fallback, Priority.LOW, 5)
+            .withRule("/Robot/drive", Priority.NORMAL, 50)
+            .withRule("/Robot/drive/Enabled", Priority.CRITICAL, 50);
+        EpilogueBackend drive = backend.getNested("Robot").getNested("drive");
+        drive.log("Speed", 1.5);
+        drive.log("Enabled", true);
+        backend.getNested("Robot").getNested("shooter").log("Speed", 3);
+        assertEquals(Priority.NORMAL, topic("/Robot/drive/Speed").getPriority());
+        assertEquals(Priority.CRITICAL, topic("/Robot/drive/Enabled").getPriority());
+        assertEquals(Priority.LOW, topic("/Robot/shooter/Speed").getPriority());
+        // Nested backends are reused, so their topics are too
+        assertSame(drive, backend.getNested("Robot").getNested("drive"));
+        drive.log("Speed", 2.5);
+        assertEquals(3, throttle.getTopics().size());
+    }
+
+    @Test
+    void testValuesAreThrottled() {
+        var backend = new ThrottledEpilogueBackend(throttle, fallback, Priority.NORMAL, 10);
+        backend.log("Device ID", 4);
+        backend.log("Device ID", 4);
+        backend.log("Velocity", 1.0);
+        time = 0.05;
+        backend.log("Velocity", 2.0);
+        assertEquals(1, topic("/Device ID").getSentCount());
+        assertEquals(1, topic("/Velocity").getSentCount());
+        assertEquals(1, topic("/Velocity").getRateLimitedCount());
+        time = 0.1;
+        throttle.update();
+        assertEquals(2, topic("/Velocity").getSentCount());
+    }
+
+    @Test
+    void testFallback() {
+        var backend = new ThrottledEpilogueBackend(throttle, fallback, Priority.NORMAL, 10);
+        backend.getNested("Robot").log("Module States", new double[] {1, 2});
+        backend.log("Mode", 1.0);
+        // The same name logged as another type can't share the topic
+        backend.log("Mode", "Auto");
+        assertEquals(List.of("/Robot/Module States", "/Mode"), fallback.logged);
+        assertEquals(1, throttle.getTopics().size());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ThrottledEpilogueBackend(throttle, fallback, Priority.LOW, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ThrottledEpilogueBackend(throttle, fallback, Priority.LOW, 5)
+            .withRule("/Robot", Priority.LOW, -1));
+    }
+
+}
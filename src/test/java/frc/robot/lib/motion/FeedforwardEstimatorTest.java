@@ -0,0 +1,159 @@
+package frc.robot.lib.motion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import frc.robot.lib.motion.FeedforwardEstimator.Gain;
+import frc.robot.lib.motion.FeedforwardEstimator.Mechanism;
+
+public class FeedforwardEstimatorTest {
+
+    private static final double DT = 0.005;
+
+    /**
+     * A mechanism driven by a varied voltage, integrated with known gains.
+     */
+    private static class Plant {
+        private final Mechanism mechanism;
+        private double kS, kV, kA, kG;
+        private double position;
+        private double velocity;
+
+        private Plant(Mechanism mechanism, double kS, double kV, double kA, double kG) {
+            this.mechanism = mechanism;
+            this.kS = kS;
+            this.kV = kV;
+            this.kA = kA;
+            this.kG = kG;
+        }
+
+        private double gravity() {
+            return switch (mechanism) {
+                case SIMPLE -> 0;
+                case ELEVATOR -> kG;
+                case ARM -> kG * Math.cos(position);
+            };
+        }
+
+        /**
+         * Drives the plant for one step and feeds the estimator, the measured voltage has noise.
+         */
+        private void step(FeedforwardEstimator estimator, double voltage, Random random) {
+            double acceleration = (voltage - kS * Math.signum(velocity) - kV * velocity - gravity()) / kA;
+            estimator.addSample(voltage + random.nextGaussian() * 0.05, velocity, acceleration, position);
+            velocity += acceleration * DT;
+            position += velocity * DT;
+        }
+    }
+
+    private static double input(int i, double gravity) {
+        double t = i * DT;
+        return gravity + 4 * Math.sin(2 * Math.PI * 0.3 * t) + 2 * Math.sin(2 * Math.PI * 1.7 * t) + Math.sin(2 * Math.PI * 4.1 * t);
+    }
+
+    private static void assertWithinBound(double expected, FeedforwardEstimator estimator, Gain gain) {
+        double estimate = estimator.getEstimate(gain);
+        double bound = estimator.getBound(gain);
+        assertTrue(Math.abs(estimate - expected) <= bound, gain + " was " + estimate + " +/- " + bound + ", expected " + expected);
+        assertTrue(bound < 0.05, gain + " bound was " + bound);
+    }
+
+    @Test
+    void testSimpleMechanism() {
+        var plant = new Plant(Mechanism.SIMPLE, 0.25, 2.0, 0.3, 0);
+        var estimator = new FeedforwardEstimator(Mechanism.SIMPLE);
+        var random = new Random(1);
+        for (int i = 0; i < 4000; i++) {
+            plant.step(estimator, input(i, 0), random);
+        }
+        assertWithinBound(0.25, estimator, Gain.KS);
+        assertWithinBound(2.0, estimator, Gain.KV);
+        assertWithinBound(0.3, estimator, Gain.KA);
+        assertEquals(0.05, estimator.getResidualStandardDeviation(), 0.01);
+    }
+
+    @Test
+    void testElevator() {
+        var plant = new Plant(Mechanism.ELEVATOR, 0.1, 3.0, 0.2, 0.6);
+        var estimator = new FeedforwardEstimator(Mechanism.ELEVATOR);
+        var random = new Random(2);
+        for (int i = 0; i < 4000; i++) {
+            plant.step(estimator, input(i, 0.6), random);
+        }
+        assertWithinBound(0.1, estimator, Gain.KS);
+        assertWithinBound(3.0, estimator, Gain.KV);
+        assertWithinBound(0.2, estimator, Gain.KA);
+        assertWithinBound(0.6, estimator, Gain.KG);
+    }
+
+    @Test
+    void testArm() {
+        var plant = new Plant(Mechanism.ARM, 0.15, 1.5, 0.1, 0.8);
+        var estimator = new FeedforwardEstimator(Mechanism.ARM);
+        var random = new Random(3);
+        for (int i = 0; i < 4000; i++) {
+            plant.step(estimator, input(i, 0) + 0.8 * Math.cos(plant.position), random);
+        }
+        assertWithinBound(0.15, estimator, Gain.KS);
+        assertWithinBound(1.5, estimator, Gain.KV);
+        assertWithinBound(0.1, estimator, Gain.KA);
+        assertWithinBound(0.8, estimator, Gain.KG);
+    }
+
+    @Test
+    void testFollowsWear() {
+        var plant = new Plant(Mechanism.SIMPLE, 0.25, 2.0, 0.3, 0);
+        var estimator = new FeedforwardEstimator(Mechanism.SIMPLE, 0.998, 0.05);
+        var random = new Random(4);
+        for (int i = 0; i < 4000; i++) {
+            plant.step(estimator, input(i, 0), random);
+        }
+        assertEquals(2.0, estimator.getEstimate(Gain.KV), 0.05);
+        // The gearbox gets stiffer
+        plant.kV = 2.4;
+        plant.kS = 0.35;
+        for (int i = 4000; i < 8000; i++) {
+            plant.step(estimator, input(i, 0), random);
+        }
+        assertEquals(2.4, estimator.getEstimate(Gain.KV), 0.05);
+        assertEquals(0.35, estimator.getEstimate(Gain.KS), 0.05);
+    }
+
+    @Test
+    void testSkipsSlowAndInvalidSamples() {
+        var estimator = new FeedforwardEstimator(Mechanism.SIMPLE);
+        assertFalse(estimator.addSample(1, 0, 0));
+        assertFalse(estimator.addSample(1, 0.01, 0));
+        assertFalse(estimator.addSample(Double.NaN, 1, 0));
+        assertTrue(estimator.addSample(1, 1, 0));
+        assertEquals(1, estimator.getSampleCount());
+        estimator.reset();
+        assertEquals(0, estimator.getSampleCount());
+        assertEquals(0.0, estimator.getEstimate(Gain.KV));
+    }
+
+    @Test
+    void testStaysBoundedWithoutExcitation() {
+        var estimator = new FeedforwardEstimator(Mechanism.SIMPLE, 0.99, 0.05);
+        for (int i = 0; i < 100_000; i++) {
+            estimator.addSample(2.25, 1, 0);
+        }
+        assertTrue(Double.isFinite(estimator.getEstimate(Gain.KA)));
+        assertTrue(Double.isFinite(estimator.getBound(Gain.KA)));
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new FeedforwardEstimator(Mechanism.SIMPLE, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new FeedforwardEstimator(Mechanism.SIMPLE, 1.1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new FeedforwardEstimator(Mechanism.SIMPLE, 0.99, -1));
+        assertThrows(IllegalArgumentException.class, () -> new FeedforwardEstimator(Mechanism.SIMPLE).getEstimate(Gain.KG));
+    }
+
+}
@@ -0,0 +1,126 @@
+package frc.robot.lib.motion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.geometry.Pose2d;
+
+public class PoseHistoryTest {
+
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    void testInterpolation() {
+        var history = new PoseHistory(10);
+        assertTrue(history.getLatest().isEmpty());
+        history.add(1, 0, 0, 0);
+        history.add(2, 2, 4, 1);
+        Pose2d pose = history.getAt(1.25).orElseThrow();
+        assertEquals(0.5, pose.getX(), EPSILON);
+        assertEquals(1, pose.getY(), EPSILON);
+        assertEquals(0.25, pose.getRotation().getRadians(), EPSILON);
+        // Newer than the history is the latest, older is empty
+        assertEquals(2, history.getAt(5).orElseThrow().getX(), EPSILON);
+        assertFalse(history.getAt(0.5).isPresent());
+    }
+
+    @Test
+    void testHeadingTakesShortestPath() {
+        var history = new PoseHistory(4);
+        history.add(0, 0, 0, Math.PI - 0.1);
+        history.add(1, 0, 0, -Math.PI + 0.1);
+        double heading = history.getAt(0.5).orElseThrow().getRotation().getRadians();
+        assertEquals(Math.PI, Math.abs(heading), EPSILON);
+    }
+
+    @Test
+    void testOverwritesOldest() {
+        var history = new PoseHistory(4);
+        for (int i = 0; i < 10; i++) {
+            history.add(i, i, 0, 0);
+        }
+        assertEquals(4, history.size());
+        assertFalse(history.getAt(5.5).isPresent());
+        assertEquals(6, history.getAt(6).orElseThrow().getX(), EPSILON);
+        assertEquals(7.5, history.getAt(7.5).orElseThrow().getX(), EPSILON);
+        assertEquals(9, history.getLatest().orElseThrow().getX(), EPSILON);
+        history.clear();
+        assertTrue(history.getLatest().isEmpty());
+    }
+
+    @Test
+    void testLatestWithoutAllocating() {
+        var history = new PoseHistory(4);
+        double[] pose = {-1, -1, -1};
+        assertFalse(history.getLatest(pose));
+        assertEquals(-1, pose[0], EPSILON);
+        assertSame(Pose2d.kZero, history.getLatestPose(Pose2d.kZero));
+        history.add(1, 2, 3, 0.5);
+        assertTrue(history.getLatest(pose));
+        assertEquals(2, pose[0], EPSILON);
+        assertEquals(3, pose[1], EPSILON);
+        assertEquals(0.5, pose[2], EPSILON);
+        // The pose is only rebuilt once there's a new one
+        Pose2d latest = history.getLatestPose(Pose2d.kZero);
+        assertEquals(2, latest.getX(), EPSILON);
+        assertSame(latest, history.getLatestPose(Pose2d.kZero));
+        history.add(2, 4, 6, 1);
+        assertNotSame(latest, history.getLatestPose(Pose2d.kZero));
+        assertEquals(4, history.getLatestPose(Pose2d.kZero).getX(), EPSILON);
+        history.clear();
+        assertSame(Pose2d.kZero, history.getLatestPose(Pose2d.kZero));
+    }
+
+    @Test
+    void testConcurrentReadsAreConsistent() throws InterruptedException {
+        var history = new PoseHistory(64);
+        int count = 500_000;
+        Thread writer = new Thread(() -> {
+            for (int i = 1; i <= count; i++) {
+                history.add(i, i, -i, 0);
+            }
+        });
+        writer.start();
+        boolean consistent = true;
+        double[] latest = new double[3];
+        while (writer.isAlive()) {
+            var pose = history.getLatest();
+            if (pose.isPresent() && pose.get().getX() != -pose.get().getY()) consistent = false;
+            if (history.getLatest(latest) && latest[0] != -latest[1]) consistent = false;
+            Pose2d cached = history.getLatestPose(Pose2d.kZero);
+            if (cached.getX() != -cached.getY()) consistent = false;
+            var past = history.getAt(history.size() > 10 ? latest[0] - 5.5 : 0);
+            if (past.isPresent() && past.get().getX() != -past.get().getY()) consistent = false;
+        }
+        writer.join();
+        assertTrue(consistent);
+        assertEquals(count, history.getLatest().orElseThrow().getX(), EPSILON);
+    }
+
+    @Test
+    void testIntegrateArc() {
+        // Driving a quarter circle of radius 1 in many small steps ends up at (1, 1) facing 90 degrees
+        double[] pose = new double[3];
+        int steps = 1000;
+        for (int i = 1; i <= steps; i++) {
+            OdometryThread.integrate(pose, Math.PI / 2 / steps, Math.PI / 2 * i / steps);
+        }
+        assertEquals(1, pose[0], 1e-6);
+        assertEquals(1, pose[1], 1e-6);
+        // The arc is exact, so doing it in one step gives the same answer
+        double[] single = new double[3];
+        OdometryThread.integrate(single, Math.PI / 2, Math.PI / 2);
+        assertEquals(1, single[0], 1e-9);
+        assertEquals(1, single[1], 1e-9);
+        double[] straight = {1, 1, Math.PI / 2};
+        OdometryThread.integrate(straight, 2, Math.PI / 2);
+        assertEquals(1, straight[0], 1e-9);
+        assertEquals(3, straight[1], 1e-9);
+    }
+
+}
@@ -0,0 +1,97 @@
+package frc.robot.lib.motion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.ctre.phoenix6.controls.NeutralOut;
+import com.ctre.phoenix6.controls.VelocityTorqueCurrentFOC;
+import com.ctre.phoenix6.controls.VelocityVoltage;
+import com.ctre.phoenix6.hardware.TalonFX;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.DifferentialDriveKinematics;
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.math.trajectory.TrajectoryConfig;
+import edu.wpi.first.math.trajectory.TrajectoryGenerator;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import edu.wpi.first.wpilibj2.command.Subsystem;
+import frc.robot.lib.motion.TalonFXDriveOutput.Mode;
+import frc.robot.lib.sim.SimHarness;
+
+public class TalonFXDriveOutputTest {
+
+    private static final double EPSILON = 1e-9;
+    private static final double METERS_PER_ROTATION = 0.5;
+    private static final double KA = 0.4;
+
+    @Test
+    void testVelocityAndFeedforward() {
+        try (var harness = new SimHarness()) {
+            var left = new TalonFX(10);
+            var right = new TalonFX(11);
+            var output = new TalonFXDriveOutput(left, right, METERS_PER_ROTATION, Mode.VOLTAGE, KA);
+            assertTrue(output.set(2, -1, 3, -1.5).isOK());
+            var leftRequest = assertInstanceOf(VelocityVoltage.class, left.getAppliedControl());
+            var rightRequest = assertInstanceOf(VelocityVoltage.class, right.getAppliedControl());
+            // Meters per second to rotations per second, and kA times the acceleration as the feedforward
+            assertEquals(4, leftRequest.Velocity, EPSILON);
+            assertEquals(-2, rightRequest.Velocity, EPSILON);
+            assertEquals(1.2, leftRequest.FeedForward, EPSILON);
+            assertEquals(-0.6, rightRequest.FeedForward, EPSILON);
+            // The simulated talons run the same setpoint
+            harness.waitForDevices(0.1);
+            assertEquals(4, left.getClosedLoopReference().refresh().getValueAsDouble(), 1e-3);
+            assertEquals(1.2, left.getClosedLoopFeedForward().refresh().getValueAsDouble(), 1e-3);
+            assertEquals(-2, right.getClosedLoopReference().refresh().getValueAsDouble(), 1e-3);
+            assertEquals(-0.6, right.getClosedLoopFeedForward().refresh().getValueAsDouble(), 1e-3);
+        }
+    }
+
+    @Test
+    void testTorqueCurrentMode() {
+        SimHarness.initialize();
+        var left = new TalonFX(12);
+        var right = new TalonFX(13);
+        var output = new TalonFXDriveOutput(left, right, METERS_PER_ROTATION, Mode.TORQUE_CURRENT_FOC, KA).withSlot(1);
+        output.set(1, 1.5);
+        var request = assertInstanceOf(VelocityTorqueCurrentFOC.class, right.getAppliedControl());
+        assertEquals(3, request.Velocity, EPSILON);
+        assertEquals(0, request.FeedForward, EPSILON);
+        assertEquals(1, request.Slot);
+    }
+
+    @Test
+    void testInterruptedFollowingStops() {
+        try (var harness = new SimHarness()) {
+            var left = new TalonFX(14);
+            var right = new TalonFX(15);
+            var output = new TalonFXDriveOutput(left, right, METERS_PER_ROTATION, Mode.VOLTAGE, KA);
+            var kinematics = new DifferentialDriveKinematics(0.6);
+            Trajectory trajectory = TrajectoryGenerator.generateTrajectory(Pose2d.kZero, List.of(),
+                new Pose2d(3, 0, Rotation2d.kZero), new TrajectoryConfig(2, 2).setKinematics(kinematics));
+            Command follow = FollowTrajectory.LTVControllerCommand(trajectory, () -> trajectory.sample(harness.getLoopCount() * 0.02).poseMeters,
+                output, kinematics, new Subsystem() {});
+            harness.addPeriodic(CommandScheduler.getInstance()::run);
+            CommandScheduler.getInstance().schedule(follow);
+            harness.run(0.5);
+            var request = assertInstanceOf(VelocityVoltage.class, left.getAppliedControl());
+            assertTrue(request.Velocity > 0);
+            assertInstanceOf(VelocityVoltage.class, right.getAppliedControl());
+            // Interrupted halfway, both sides are left in neutral instead of running the last setpoint
+            follow.cancel();
+            assertInstanceOf(NeutralOut.class, left.getAppliedControl());
+            assertInstanceOf(NeutralOut.class, right.getAppliedControl());
+            harness.waitForDevices(0.1);
+            assertEquals(0, left.getMotorVoltage().refresh().getValueAsDouble(), 1e-3);
+            assertEquals(0, right.getMotorVoltage().refresh().getValueAsDouble(), 1e-3);
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+package frc.robot.lib.pneumatics;
+
+import static edu.wpi.first.units.Units.Inches;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import frc.robot.lib.pneumatics.CompressorScheduler.Decision;
+
+public class CompressorSchedulerTest {
+
+    private static final double EPSILON = 1e-3;
+    private static final double DT = 0.02;
+    // Roughly what a VIAIR 90C puts into two 574 mL tanks
+    private static final double COMPRESSOR_PSI_PER_SECOND = 4;
+
+    private double pressure;
+    private double voltage;
+    private boolean compressorOn;
+    private long extensions;
+    private long retractions;
+
+    @Test
+    void testModel() {
+        var model = new AirConsumptionModel(1.148, 60);
+        long[] extensions = {0};
+        model.addCylinder(() -> extensions[0], () -> 0, Inches.of(1.5), Inches.of(0.5), Inches.of(6));
+        // 1.5" bore x 6" stroke is about 0.174 L, which is 0.883 L of free air at 60 PSI
+        assertEquals(0, model.getConsumedFreeAirLiters(), EPSILON);
+        extensions[0] = 2;
+        assertEquals(2 * 0.883, model.getConsumedFreeAirLiters(), EPSILON);
+        assertTrue(model.getStrokesRemaining(120, 60) > 0);
+        assertEquals(0, model.getStrokesRemaining(50, 60), EPSILON);
+    }
+
+    @Test
+    void testDefersDuringHighLoadAndHoldsFloor() {
+        var model = new AirConsumptionModel(1.148, 60);
+        model.addCylinder(() -> extensions, () -> retractions, Inches.of(1.5), Inches.of(0.5), Inches.of(6));
+        var scheduler = new CompressorScheduler(model, 70, 120, 10, 3, 10, 11,
+            () -> pressure, () -> voltage, on -> compressorOn = on);
+        pressure = 120;
+        double lastUsed = model.getConsumedFreeAirLiters();
+        int highLoadRunning = 0;
+        for (int step = 0; step < 150 / DT; step++) {
+            double time = step * DT;
+            // Drive hard for 5 seconds out of every 10
+            boolean driving = time % 10 < 5;
+            voltage = driving ? 9.5 : 12.2;
+            // Extend a piston every 15 seconds and retract it halfway through
+            if (step % 750 == 0) extensions++;
+            if (step % 750 == 375) retractions++;
+            double used = model.getConsumedFreeAirLiters();
+            pressure -= model.freeAirToPressureDrop(used - lastUsed);
+            lastUsed = used;
+            Decision decision = scheduler.update();
+            if (compressorOn) pressure += COMPRESSOR_PSI_PER_SECOND * DT;
+            assertTrue(pressure > 70 - 5, "Pressure fell to " + pressure + " at " + time);
+            if (driving && compressorOn) {
+                highLoadRunning++;
+                assertTrue(decision == Decision.RUN_RESERVE || decision == Decision.RUN_BELOW_FLOOR);
+            }
+            if (!driving && time % 10 > 1) {
+                assertFalse(decision == Decision.DEFER_HIGH_LOAD);
+            }
+        }
+        // Most of the high load time should have the compressor off
+        assertTrue(highLoadRunning < 0.5 * (75 / DT), "Compressor ran for " + highLoadRunning + " high load steps");
+    }
+
+}
@@ -0,0 +1,121 @@
+package frc.robot.lib.pneumatics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.hal.util.AllocationException;
+import edu.wpi.first.wpilibj.PneumaticsBase;
+import edu.wpi.first.wpilibj.PneumaticsModuleType;
+import edu.wpi.first.wpilibj.simulation.REVPHSim;
+import frc.robot.lib.sim.SimHarness;
+
+public class PistonBankTest {
+
+    private static final int MODULE = 30;
+
+    /**
+     * A write sent by the bank, as the channels written and their values.
+     */
+    private record Write(int mask, int values) {}
+
+    private final List<Write> writes = new ArrayList<>();
+    private PistonBank bank;
+    private REVPHSim sim;
+
+    @BeforeEach
+    void createBank() {
+        SimHarness.initialize();
+        var module = PneumaticsBase.getForType(MODULE, PneumaticsModuleType.REVPH);
+        // Writes still reach the simulated hub so its outputs can be checked too
+        bank = new PistonBank(module, (mask, values) -> {
+            writes.add(new Write(mask, values));
+            module.setSolenoids(mask, values);
+        });
+        sim = new REVPHSim(MODULE);
+    }
+
+    @AfterEach
+    void closeBank() {
+        bank.close();
+    }
+
+    @Test
+    void testOnlyChangedChannelsWritten() {
+        var first = bank.createPiston(0, 1);
+        var second = bank.createPiston(2, 3);
+        first.extend();
+        second.retract();
+        bank.flush();
+        // The first write sets every channel of the bank
+        assertEquals(List.of(new Write(0b1111, 0b1001)), writes);
+        bank.flush();
+        first.extend();
+        bank.flush();
+        assertEquals(1, writes.size());
+        first.retract();
+        bank.flush();
+        assertEquals(new Write(0b0011, 0b1010), writes.get(1));
+        assertFalse(sim.getSolenoidOutput(0));
+        assertTrue(sim.getSolenoidOutput(1));
+        assertFalse(sim.getSolenoidOutput(2));
+        assertTrue(sim.getSolenoidOutput(3));
+    }
+
+    @Test
+    void testWriteCounts() {
+        var first = bank.createPiston(4, 5);
+        var second = bank.createPiston(6, 7);
+        for (int loop = 0; loop < 10; loop++) {
+            // Both pistons are told what to do every loop, but only change twice
+            if (loop < 5) first.extend();
+            else first.retract();
+            second.extend();
+            bank.flush();
+        }
+        // Two solenoids per piston per call
+        assertEquals(40, bank.getRequestedWrites());
+        assertEquals(2, bank.getWrites());
+        assertEquals(38, bank.getWritesSaved());
+        assertEquals(2, writes.size());
+        assertEquals(1, first.getExtendCount());
+        assertEquals(1, first.getRetractCount());
+        assertEquals(1, second.getActuationCount());
+    }
+
+    @Test
+    void testIsExtendedIsDesiredState() {
+        var piston = bank.createPiston(8, 9);
+        assertFalse(piston.isExtended());
+        piston.extend();
+        // Before the flush sends it
+        assertTrue(piston.isExtended());
+        assertEquals(1 << 8, bank.getDesiredState());
+        assertTrue(writes.isEmpty());
+        assertFalse(sim.getSolenoidOutput(8));
+        bank.flush();
+        assertTrue(piston.isExtended());
+        assertTrue(sim.getSolenoidOutput(8));
+        piston.disable();
+        assertFalse(piston.isExtended());
+        piston.retract();
+        assertFalse(piston.isExtended());
+    }
+
+    @Test
+    void testInvalidChannels() {
+        bank.createPiston(10, 11);
+        assertThrows(IllegalArgumentException.class, () -> bank.createPiston(12, 12));
+        assertThrows(IllegalArgumentException.class, () -> bank.createPiston(12, 99));
+        assertThrows(AllocationException.class, () -> bank.createPiston(11, 12));
+    }
+
+}
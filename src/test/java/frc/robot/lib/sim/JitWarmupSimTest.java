@@ -0,0 +1,106 @@
+package frc.robot.lib.sim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.DifferentialDriveKinematics;
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.math.trajectory.TrajectoryConfig;
+import edu.wpi.first.math.trajectory.TrajectoryGenerator;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import edu.wpi.first.wpilibj2.command.Subsystem;
+import frc.robot.lib.motion.FollowTrajectory;
+import frc.robot.lib.util.JitWarmup;
+
+// The JIT is shared by everything in a JVM, so each measurement runs in a fresh one started by the test
+public class JitWarmupSimTest {
+
+    private static final int kLoops = 50;
+    private static final DifferentialDriveKinematics kKinematics = new DifferentialDriveKinematics(0.6);
+
+    private static Pose2d pose = Pose2d.kZero;
+
+    /**
+     * Times the first enabled loops of a trajectory follower, run in a new JVM by the test.
+     * @param args If the warm-up should run while disabled first, and the file to write the loop times in nanoseconds to
+     */
+    public static void main(String[] args) throws Exception {
+        boolean warm = Boolean.parseBoolean(args[0]);
+        long[] loopNanos = new long[kLoops];
+        try (var harness = new SimHarness()) {
+            harness.setEnabled(false);
+            if (warm) {
+                var warmup = new JitWarmup().addUtilTasks();
+                FollowTrajectory.addWarmupTask(warmup, kKinematics);
+                while (!warmup.run()) {
+                    harness.step();
+                }
+            }
+            Trajectory trajectory = TrajectoryGenerator.generateTrajectory(
+                Pose2d.kZero, List.of(new Translation2d(1, 0.5), new Translation2d(2, -0.5)), new Pose2d(3, 0, Rotation2d.kZero),
+                new TrajectoryConfig(3, 2).setKinematics(kKinematics));
+            Subsystem drive = new Subsystem() {};
+            // The drivetrain follows the commanded wheel speeds perfectly
+            CommandScheduler.getInstance().schedule(FollowTrajectory.LTVControllerCommand(trajectory, () -> pose,
+                (left, right) -> pose = pose.exp(kKinematics.toTwist2d(left * TimedRobot.kDefaultPeriod, right * TimedRobot.kDefaultPeriod)),
+                kKinematics, drive));
+            int[] loop = new int[1];
+            harness.addPeriodic(() -> {
+                long start = System.nanoTime();
+                CommandScheduler.getInstance().run();
+                if (loop[0] < kLoops) loopNanos[loop[0]++] = System.nanoTime() - start;
+            });
+            harness.setEnabled(true);
+            while (loop[0] < kLoops) {
+                harness.step();
+            }
+        }
+        Files.writeString(Path.of(args[1]), Arrays.stream(loopNanos).mapToObj(Long::toString).collect(Collectors.joining(",")));
+    }
+
+    private static long[] measure(boolean warm, Path directory) throws Exception {
+        Path file = directory.resolve(warm ? "warm.csv" : "cold.csv");
+        Process process = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+            "-Djava.library.path=" + System.getProperty("java.library.path"),
+            "-cp", System.getProperty("java.class.path"),
+            JitWarmupSimTest.class.getName(), Boolean.toString(warm), file.toString())
+            .redirectErrorStream(true)
+            .redirectOutput(directory.resolve(warm ? "warm.log" : "cold.log").toFile())
+            .start();
+        assertTrue(process.waitFor(2, TimeUnit.MINUTES), "Timed out");
+        assertEquals(0, process.exitValue(), "The measurement JVM failed, see its log");
+        return Arrays.stream(Files.readString(file).split(",")).mapToLong(Long::parseLong).toArray();
+    }
+
+    private static String summarize(long[] loopNanos) {
+        return String.format("first %.2f ms, max %.2f ms, mean %.3f ms over %d loops", loopNanos[0] / 1e6,
+            Arrays.stream(loopNanos).max().orElse(0) / 1e6, Arrays.stream(loopNanos).average().orElse(0) / 1e6, loopNanos.length);
+    }
+
+    @Test
+    void testFirstEnabledLoops(TestReporter reporter, @TempDir Path directory) throws Exception {
+        long[] cold = measure(false, directory);
+        long[] warm = measure(true, directory);
+        assertEquals(kLoops, cold.length);
+        assertEquals(kLoops, warm.length);
+        // Only reported, the times depend too much on the machine to assert on
+        reporter.publishEntry("Cold", summarize(cold));
+        reporter.publishEntry("Warmed", summarize(warm));
+    }
+
+}
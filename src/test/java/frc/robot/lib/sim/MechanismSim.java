@@ -0,0 +1,248 @@
+package frc.robot.lib.sim;
+
+import java.util.function.DoubleSupplier;
+
+import com.ctre.phoenix6.hardware.TalonFX;
+import com.ctre.phoenix6.sim.TalonFXSimState;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.math.system.plant.LinearSystemId;
+import edu.wpi.first.wpilibj.simulation.DCMotorSim;
+import edu.wpi.first.wpilibj.simulation.ElevatorSim;
+import edu.wpi.first.wpilibj.simulation.SingleJointedArmSim;
+
+/**
+ * A WPILib physics model of a mechanism, driven either by a simulated TalonFX or by a voltage from code on the roboRIO.
+ * When driven by a talon the talon's output voltage is read from its sim state every step, and the rotor's position and
+ * velocity are written back, so the talon's signals follow the mechanism.
+ * <p>
+ * Positions and velocities are in the mechanism's units, rotations for a flywheel, meters for an elevator and radians
+ * for an arm.
+ */
+public class MechanismSim {
+
+    private interface Model {
+        void setInputVoltage(double volts);
+
+        void update(double dtSeconds);
+
+        double getPosition();
+
+        double getVelocity();
+
+        double getCurrentDrawAmps();
+    }
+
+    private final Model model;
+    // Rotor rotations per unit of mechanism position
+    private final double rotorRatio;
+    private DoubleSupplier voltage = () -> 0;
+    private TalonFXSimState talon;
+    private double supplyVoltage = 12;
+    private double appliedVoltage;
+
+    private MechanismSim(Model model, double rotorRatio) {
+        this.model = model;
+        this.rotorRatio = rotorRatio;
+    }
+
+    /**
+     * Creates a flywheel or any other mechanism that spins freely.
+     * @param motor The motors driving the flywheel
+     * @param gearing The reduction from the motors to the flywheel
+     * @param moi The moment of inertia of the flywheel in kg m^2
+     * @return The mechanism
+     */
+    public static MechanismSim flywheel(DCMotor motor, double gearing, double moi) {
+        var sim = new DCMotorSim(LinearSystemId.createDCMotorSystem(motor, moi, gearing), motor);
+        return new MechanismSim(new Model() {
+            @Override
+            public void setInputVoltage(double volts) {
+                sim.setInputVoltage(volts);
+            }
+
+            @Override
+            public void update(double dtSeconds) {
+                sim.update(dtSeconds);
+            }
+
+            @Override
+            public double getPosition() {
+                return sim.getAngularPositionRotations();
+            }
+
+            @Override
+            public double getVelocity() {
+                return sim.getAngularVelocityRPM() / 60;
+            }
+
+            @Override
+            public double getCurrentDrawAmps() {
+                return sim.getCurrentDrawAmps();
+            }
+        }, gearing);
+    }
+
+    /**
+     * Creates an elevator with gravity that starts at its lowest height.
+     * @param motor The motors driving the elevator
+     * @param gearing The reduction from the motors to the drum
+     * @param carriageMassKg The mass of the carriage
+     * @param drumRadiusMeters The radius of the drum the elevator's rope or chain wraps around
+     * @param minHeightMeters The lowest height of the elevator
+     * @param maxHeightMeters The highest height of the elevator
+     * @return The mechanism
+     */
+    public static MechanismSim elevator(DCMotor motor, double gearing, double carriageMassKg, double drumRadiusMeters,
+            double minHeightMeters, double maxHeightMeters) {
+        var sim = new ElevatorSim(motor, gearing, carriageMassKg, drumRadiusMeters, minHeightMeters, maxHeightMeters, true, minHeightMeters);
+        return new MechanismSim(new Model() {
+            @Override
+            public void setInputVoltage(double volts) {
+                sim.setInputVoltage(volts);
+            }
+
+            @Override
+            public void update(double dtSeconds) {
+                sim.update(dtSeconds);
+            }
+
+            @Override
+            public double getPosition() {
+                return sim.getPositionMeters();
+            }
+
+            @Override
+            public double getVelocity() {
+                return sim.getVelocityMetersPerSecond();
+            }
+
+            @Override
+            public double getCurrentDrawAmps() {
+                return sim.getCurrentDrawAmps();
+            }
+        }, gearing / (2 * Math.PI * drumRadiusMeters));
+    }
+
+    /**
+     * Creates an arm with gravity, with zero radians pointing horizontally.
+     * @param motor The motors driving the arm
+     * @param gearing The reduction from the motors to the arm
+     * @param moi The moment of inertia of the arm about its pivot in kg m^2
+     * @param armLengthMeters The length of the arm
+     * @param minAngleRads The lowest angle of the arm
+     * @param maxAngleRads The highest angle of the arm
+     * @param startingAngleRads The angle the arm starts at
+     * @return The mechanism
+     */
+    public static MechanismSim arm(DCMotor motor, double gearing, double moi, double armLengthMeters, double minAngleRads,
+            double maxAngleRads, double startingAngleRads) {
+        var sim = new SingleJointedArmSim(motor, gearing, moi, armLengthMeters, minAngleRads, maxAngleRads, true, startingAngleRads);
+        return new MechanismSim(new Model() {
+            @Override
+            public void setInputVoltage(double volts) {
+                sim.setInputVoltage(volts);
+            }
+
+            @Override
+            public void update(double dtSeconds) {
+                sim.update(dtSeconds);
+            }
+
+            @Override
+            public double getPosition() {
+                return sim.getAngleRads();
+            }
+
+            @Override
+            public double getVelocity() {
+                return sim.getVelocityRadPerSec();
+            }
+
+            @Override
+            public double getCurrentDrawAmps() {
+                return sim.getCurrentDrawAmps();
+            }
+        }, gearing / (2 * Math.PI));
+    }
+
+    /**
+     * Drives the mechanism with a talon's output, and writes the mechanism's motion back to the talon's rotor.
+     * @param talon The talon driving the mechanism
+     * @return This mechanism for chaining
+     */
+    public MechanismSim drivenBy(TalonFX talon) {
+        this.talon = talon.getSimState();
+        voltage = this.talon::getMotorVoltage;
+        writeRotor();
+        return this;
+    }
+
+    /**
+     * Drives the mechanism with a voltage, for mechanisms controlled from the roboRIO.
+     * @param voltage The voltage applied to the motors
+     * @return This mechanism for chaining
+     */
+    public MechanismSim drivenBy(DoubleSupplier voltage) {
+        talon = null;
+        this.voltage = voltage;
+        return this;
+    }
+
+    /**
+     * Sets the voltage supplied to the talon, 12 V by default.
+     * @param volts The supply voltage
+     * @return This mechanism for chaining
+     */
+    public MechanismSim withSupplyVoltage(double volts) {
+        supplyVoltage = volts;
+        return this;
+    }
+
+    /**
+     * Steps the physics forward.
+     * @param dtSeconds How far to step
+     */
+    public void update(double dtSeconds) {
+        if (talon != null) talon.setSupplyVoltage(supplyVoltage);
+        appliedVoltage = MathUtil.clamp(voltage.getAsDouble(), -supplyVoltage, supplyVoltage);
+        model.setInputVoltage(appliedVoltage);
+        model.update(dtSeconds);
+        if (talon != null) writeRotor();
+    }
+
+    /**
+     * @return The position of the mechanism
+     */
+    public double getPosition() {
+        return model.getPosition();
+    }
+
+    /**
+     * @return The velocity of the mechanism per second
+     */
+    public double getVelocity() {
+        return model.getVelocity();
+    }
+
+    /**
+     * @return The current drawn by the motors in amps
+     */
+    public double getCurrentDrawAmps() {
+        return model.getCurrentDrawAmps();
+    }
+
+    /**
+     * @return The voltage applied to the motors in the latest step
+     */
+    public double getAppliedVoltage() {
+        return appliedVoltage;
+    }
+
+    private void writeRotor() {
+        talon.setRawRotorPosition(model.getPosition() * rotorRatio);
+        talon.setRotorVelocity(model.getVelocity() * rotorRatio);
+    }
+
+}
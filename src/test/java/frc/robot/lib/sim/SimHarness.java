@@ -0,0 +1,178 @@
+package frc.robot.lib.sim;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ctre.phoenix6.unmanaged.Unmanaged;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+
+/**
+ * Runs mechanisms and robot code against the HAL's simulated clock as fast as possible, instead of waiting for each
+ * loop in real time. Every step runs the periodic code, steps every mechanism's physics and then steps the clock, so
+ * anything reading the WPILib clock, like {@code Timer} and {@code MathSharedStore}, sees simulated time.
+ * <p>
+ * Phoenix's simulated devices run their firmware on their own real time clock. Outputs commanded through a TalonFX show
+ * up in its sim state a few milliseconds of real time later, and signals read back from it update at their real update
+ * frequency, so wait with {@link #waitForDevices(double)} where a test depends on them.
+ * <pre>
+ * try (var harness = new SimHarness()) {
+ *     var elevator = MechanismSim.elevator(DCMotor.getKrakenX60(2), 10, 5, 0.02, 0, 1.5).drivenBy(() -&gt; volts);
+ *     harness.addMechanism(elevator).addPeriodic(() -&gt; volts = controller.calculate(elevator.getPosition()));
+ *     var result = harness.run(150);
+ * }
+ * </pre>
+ */
+public class SimHarness implements AutoCloseable {
+
+    /**
+     * How long a run took.
+     * @param loops The number of loops run
+     * @param simulatedSeconds The simulated time that passed
+     * @param wallSeconds The real time the run took
+     */
+    public record RunResult(long loops, double simulatedSeconds, double wallSeconds) {
+        /**
+         * @return How many times faster than real time the run was
+         */
+        public double speedup() {
+            return simulatedSeconds / wallSeconds;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d loops, %.1f s simulated in %.3f s (%.0fx real time)", loops, simulatedSeconds, wallSeconds, speedup());
+        }
+    }
+
+    private static boolean initialized;
+
+    private final double period;
+    private final List<MechanismSim> mechanisms = new ArrayList<>();
+    private final List<Runnable> periodic = new ArrayList<>();
+    private long loops;
+
+    /**
+     * Creates a harness that steps every 20 ms and enables the simulated robot.
+     */
+    public SimHarness() {
+        this(TimedRobot.kDefaultPeriod);
+    }
+
+    /**
+     * Creates a harness and enables the simulated robot.
+     * @param period How far to step the clock every loop in seconds
+     */
+    public SimHarness(double period) {
+        if (!(period > 0)) throw new IllegalArgumentException("Period must be positive, got: " + period);
+        this.period = period;
+        initialize();
+        SimHooks.pauseTiming();
+        setEnabled(true);
+    }
+
+    /**
+     * Starts the HAL, only the first call does anything.
+     */
+    public static synchronized void initialize() {
+        if (initialized) return;
+        if (!HAL.initialize(500, 0)) throw new IllegalStateException("Failed to initialize the HAL");
+        initialized = true;
+    }
+
+    /**
+     * Adds a mechanism whose physics is stepped every loop.
+     * @param mechanism The mechanism
+     * @return This harness for chaining
+     */
+    public SimHarness addMechanism(MechanismSim mechanism) {
+        mechanisms.add(mechanism);
+        return this;
+    }
+
+    /**
+     * Adds code that's run every loop before the physics is stepped, like a controller or the command scheduler.
+     * @param code The code to run
+     * @return This harness for chaining
+     */
+    public SimHarness addPeriodic(Runnable code) {
+        periodic.add(code);
+        return this;
+    }
+
+    /**
+     * Enables or disables the simulated robot.
+     * @param enabled If the robot should be enabled
+     */
+    public void setEnabled(boolean enabled) {
+        DriverStationSim.setEnabled(enabled);
+        DriverStationSim.notifyNewData();
+    }
+
+    /**
+     * Runs one loop.
+     */
+    public void step() {
+        // Keeps simulated Phoenix devices enabled, they stop driving their outputs when this isn't fed
+        Unmanaged.feedEnable(100);
+        for (int i = 0; i < periodic.size(); i++) {
+            periodic.get(i).run();
+        }
+        for (int i = 0; i < mechanisms.size(); i++) {
+            mechanisms.get(i).update(period);
+        }
+        SimHooks.stepTiming(period);
+        loops++;
+    }
+
+    /**
+     * Runs loops as fast as possible until some simulated time has passed.
+     * @param seconds The simulated time to run for
+     * @return How long the run took
+     */
+    public RunResult run(double seconds) {
+        long count = Math.round(seconds / period);
+        long start = System.nanoTime();
+        for (long i = 0; i < count; i++) {
+            step();
+        }
+        return new RunResult(count, count * period, (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Waits in real time for simulated Phoenix devices to catch up, keeping them enabled.
+     * @param seconds The real time to wait
+     */
+    public void waitForDevices(double seconds) {
+        long end = System.nanoTime() + (long) (seconds * 1e9);
+        while (System.nanoTime() < end) {
+            Unmanaged.feedEnable(100);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return The number of loops run
+     */
+    public long getLoopCount() {
+        return loops;
+    }
+
+    /**
+     * Disables the robot and lets the clock run in real time again.
+     */
+    @Override
+    public void close() {
+        setEnabled(false);
+        SimHooks.resumeTiming();
+    }
+
+}
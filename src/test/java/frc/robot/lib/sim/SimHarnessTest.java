@@ -0,0 +1,93 @@
+package frc.robot.lib.sim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.math.system.plant.DCMotor;
+import frc.robot.lib.util.DynamicSlewRateLimiter;
+
+public class SimHarnessTest {
+
+    private static final DCMotor kKraken = DCMotor.getKrakenX60(1);
+    private static final DCMotor kTwoKrakens = DCMotor.getKrakenX60(2);
+
+    private double volts;
+
+    @Test
+    void testFlywheelReachesFreeSpeed() {
+        try (var harness = new SimHarness()) {
+            var flywheel = MechanismSim.flywheel(kKraken, 1, 0.01).drivenBy(() -> 12);
+            harness.addMechanism(flywheel).run(5);
+            double freeSpeed = kKraken.freeSpeedRadPerSec / (2 * Math.PI);
+            assertEquals(freeSpeed, flywheel.getVelocity(), freeSpeed * 0.02);
+        }
+    }
+
+    @Test
+    void testElevatorSettles() {
+        try (var harness = new SimHarness()) {
+            double mass = 5;
+            double drumRadius = 0.02;
+            double gearing = 10;
+            // The voltage that holds the carriage up against gravity
+            double kG = kTwoKrakens.getVoltage(mass * 9.81 * drumRadius / gearing, 0);
+            var controller = new PIDController(60, 0, 0);
+            var elevator = MechanismSim.elevator(kTwoKrakens, gearing, mass, drumRadius, 0, 1.5).drivenBy(() -> volts);
+            harness.addMechanism(elevator).addPeriodic(() -> volts = kG + controller.calculate(elevator.getPosition(), 1));
+            harness.run(5);
+            assertEquals(1, elevator.getPosition(), 0.01);
+            assertEquals(0, elevator.getVelocity(), 0.01);
+        }
+    }
+
+    @Test
+    void testArmFallsWithoutPower() {
+        try (var harness = new SimHarness()) {
+            double length = 0.5;
+            var arm = MechanismSim.arm(kKraken, 50, 2 * length * length / 3, length, -Math.PI / 2, Math.PI / 2, 0).drivenBy(() -> 0);
+            harness.addMechanism(arm).run(20);
+            assertEquals(-Math.PI / 2, arm.getPosition(), 0.01);
+        }
+    }
+
+    @Test
+    void testMatchFasterThanRealTime(TestReporter reporter) {
+        try (var harness = new SimHarness()) {
+            var flywheel = MechanismSim.flywheel(kKraken, 1, 0.01);
+            var elevator = MechanismSim.elevator(kTwoKrakens, 10, 5, 0.02, 0, 1.5);
+            var arm = MechanismSim.arm(kKraken, 50, 0.17, 0.5, -Math.PI / 2, Math.PI / 2, 0);
+            var flywheelController = new PIDController(0.5, 0, 0);
+            var elevatorController = new PIDController(60, 0, 0);
+            var armController = new PIDController(40, 0, 1);
+            flywheel.drivenBy(() -> flywheelController.calculate(flywheel.getVelocity(), 50));
+            // Moves the elevator and arm between two setpoints every few seconds
+            elevator.drivenBy(() -> elevatorController.calculate(elevator.getPosition(), harness.getLoopCount() % 200 < 100 ? 0.2 : 1.2));
+            arm.drivenBy(() -> armController.calculate(arm.getPosition(), harness.getLoopCount() % 150 < 75 ? -1 : 1));
+            harness.addMechanism(flywheel).addMechanism(elevator).addMechanism(arm);
+            var result = harness.run(150);
+            reporter.publishEntry("Match", result.toString());
+            assertEquals(7500, result.loops());
+            assertEquals(150, result.simulatedSeconds(), 1e-6);
+            // Loose bound since the test machine might be busy
+            assertTrue(result.wallSeconds() < 5, "Took " + result.wallSeconds() + " s");
+        }
+    }
+
+    @Test
+    void testLimiterUsesSimulatedClock() {
+        try (var harness = new SimHarness()) {
+            var limiter = new DynamicSlewRateLimiter(2, 4);
+            harness.addPeriodic(() -> volts = limiter.calculate(1));
+            harness.run(0.3);
+            // The limiter last ran before the final step, 0.28 s after it was created
+            assertEquals(0.56, volts, 1e-6);
+            harness.run(1);
+            assertEquals(1, volts, 1e-6);
+        }
+    }
+
+}
@@ -0,0 +1,74 @@
+package frc.robot.lib.sim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import com.ctre.phoenix6.configs.MotorOutputConfigs;
+import com.ctre.phoenix6.controls.VoltageOut;
+import com.ctre.phoenix6.hardware.TalonFX;
+import com.ctre.phoenix6.signals.NeutralModeValue;
+
+import edu.wpi.first.epilogue.logging.NullBackend;
+import edu.wpi.first.epilogue.logging.errors.ErrorHandler;
+import edu.wpi.first.math.system.plant.DCMotor;
+import frc.robot.lib.logging.PhoenixSignalRegistry;
+import frc.robot.lib.logging.TalonFXLogger;
+import frc.robot.lib.util.Util;
+
+// Simulated talons run in real time, so these wait for them where they have to
+public class TalonFXSimTest {
+
+    private static final DCMotor kKraken = DCMotor.getKrakenX60(1);
+
+    @Test
+    void testVoltageOutDrivesFlywheel(TestReporter reporter) {
+        var talon = new TalonFX(1);
+        try (var harness = new SimHarness()) {
+            var flywheel = MechanismSim.flywheel(kKraken, 1, 0.01).drivenBy(talon);
+            harness.addMechanism(flywheel);
+            talon.setControl(new VoltageOut(6));
+            harness.waitForDevices(0.1);
+            var result = harness.run(5);
+            reporter.publishEntry("Flywheel", result.toString());
+            assertEquals(250, result.loops());
+            // Half the free speed at half the voltage
+            double halfFreeSpeed = kKraken.freeSpeedRadPerSec / (2 * Math.PI) / 2;
+            assertEquals(halfFreeSpeed, flywheel.getVelocity(), halfFreeSpeed * 0.05);
+            harness.waitForDevices(0.1);
+            assertEquals(flywheel.getVelocity(), talon.getVelocity().refresh().getValueAsDouble(), halfFreeSpeed * 0.05);
+        }
+    }
+
+    @Test
+    void testNeutralModes() {
+        SimHarness.initialize();
+        var talon = new TalonFX(2);
+        var configs = new MotorOutputConfigs();
+        Util.brakeMode(talon);
+        talon.getConfigurator().refresh(configs);
+        assertEquals(NeutralModeValue.Brake, configs.NeutralMode);
+        Util.coastMode(talon);
+        talon.getConfigurator().refresh(configs);
+        assertEquals(NeutralModeValue.Coast, configs.NeutralMode);
+    }
+
+    @Test
+    void testLoggerRegistersSignals() {
+        SimHarness.initialize();
+        var talon = new TalonFX(3);
+        var logger = new TalonFXLogger();
+        assertFalse(PhoenixSignalRegistry.isRegistered(talon));
+        logger.tryUpdate(new NullBackend(), talon, ErrorHandler.crashOnError());
+        assertTrue(PhoenixSignalRegistry.isRegistered(talon));
+        int signals = PhoenixSignalRegistry.getSignalCount();
+        // Logging again only reads the cached signals
+        logger.tryUpdate(new NullBackend(), talon, ErrorHandler.crashOnError());
+        assertEquals(signals, PhoenixSignalRegistry.getSignalCount());
+        PhoenixSignalRegistry.refreshAll();
+    }
+
+}
@@ -0,0 +1,55 @@
+package frc.robot.lib.util;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.lang.management.ManagementFactory;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Assertions for how much memory a block of code allocates, for checking that hot paths don't create garbage.
+ */
+public class AllocationAssertions {
+
+    private static final ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final int kWarmupIterations = 20_000;
+    private static final int kMeasuredIterations = 10_000;
+
+    /**
+     * Prevent this class from being instantiated.
+     */
+    private AllocationAssertions() {}
+
+    /**
+     * Fails if the code allocates more than a budget per run on average. The code is run enough times first for the
+     * JIT to compile it, since interpreted code allocates things that compiled code doesn't.
+     * @param budgetBytes The most bytes allowed per run
+     * @param code The code to check
+     */
+    public static void assertAllocatesAtMost(long budgetBytes, Runnable code) {
+        if (!threadBean.isThreadAllocatedMemorySupported()) return;
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+        for (int i = 0; i < kWarmupIterations; i++) {
+            code.run();
+        }
+        long start = threadBean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < kMeasuredIterations; i++) {
+            code.run();
+        }
+        long bytes = threadBean.getCurrentThreadAllocatedBytes() - start;
+        double perRun = (double) bytes / kMeasuredIterations;
+        // Allow a tiny amount for one-off allocations like a late JIT deoptimization
+        if (perRun > budgetBytes + 0.1) {
+            fail("Expected at most " + budgetBytes + " bytes per run but allocated " + perRun);
+        }
+    }
+
+    /**
+     * Fails if the code allocates anything in steady state.
+     * @param code The code to check
+     */
+    public static void assertNoAllocation(Runnable code) {
+        assertAllocatesAtMost(0, code);
+    }
+
+}
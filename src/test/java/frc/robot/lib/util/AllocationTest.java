@@ -0,0 +1,76 @@
+package frc.robot.lib.util;
+
+import static frc.robot.lib.util.AllocationAssertions.assertAllocatesAtMost;
+import static frc.robot.lib.util.AllocationAssertions.assertNoAllocation;
+
+import org.junit.jupiter.api.Test;
+
+public class AllocationTest {
+
+    private double time = 0;
+    private double sink = 0;
+
+    @Test
+    void testSlewRateLimiterBank() {
+        var bank = new SlewRateLimiterBank(3, 1, 2).setVectorChannels(0, 1).setJerkLimit(2, 5);
+        double[] inputs = new double[3];
+        assertNoAllocation(() -> {
+            time += 0.02;
+            inputs[0] = Math.sin(time);
+            inputs[1] = Math.cos(time);
+            inputs[2] = -inputs[0];
+            sink += bank.calculate(inputs, time)[2];
+        });
+    }
+
+    @Test
+    void testDynamicSlewRateLimiter() {
+        var limiter = new DynamicSlewRateLimiter(() -> 3 - Math.abs(Math.sin(time)), () -> 6);
+        assertNoAllocation(() -> {
+            time += 0.02;
+            sink += limiter.calculate(Math.cos(time * 3), time);
+        });
+    }
+
+    @Test
+    void testFilters() {
+        var mean = new RunningMean(10);
+        var variance = new RunningVariance(10);
+        var minMax = new WindowMinMax(10);
+        var median = new SlidingMedian(11);
+        var ema = new ExponentialMovingAverage(0.2);
+        assertNoAllocation(() -> {
+            time += 0.02;
+            double input = Math.sin(time * 7);
+            minMax.add(input);
+            sink += mean.calculate(input) + variance.calculate(input) + median.calculate(input) + ema.calculate(input) + minMax.getMax();
+        });
+    }
+
+    @Test
+    void testLookups() {
+        var table = new InterpolatingTable(InterpolatingTable.Mode.MONOTONE_CUBIC, true, new double[] {1, 2, 3.5, 5},
+            new double[] {2000, 20}, new double[] {2500, 25}, new double[] {3200, 31}, new double[] {4000, 35});
+        var transformer = new RangeTransformer(-1, 1, 0, 10, true);
+        double[] result = new double[2];
+        assertNoAllocation(() -> {
+            time += 0.01;
+            table.calculate(1 + (time % 4), result);
+            sink += result[0] + transformer.calculate(Math.sin(time));
+        });
+    }
+
+    @Test
+    void testDriveUtil() {
+        assertNoAllocation(() -> {
+            time += 0.01;
+            sink += DriveUtil.processDeadband(Math.sin(time), 0.1, 1) + DriveUtil.squareKeepSign(Math.cos(time));
+        });
+        // Boxes two doubles into a Pair unless the JIT can remove them
+        assertAllocatesAtMost(64, () -> {
+            time += 0.01;
+            sink += DriveUtil.normalizeValues(Math.sin(time) * 2, Math.cos(time)).getFirst();
+        });
+    }
+
+}
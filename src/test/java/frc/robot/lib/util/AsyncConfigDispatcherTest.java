@@ -0,0 +1,98 @@
+package frc.robot.lib.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import com.ctre.phoenix6.StatusCode;
+
+// Changes are queued against plain objects since constructing a device needs the Phoenix natives
+public class AsyncConfigDispatcherTest {
+
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+
+    private Supplier<StatusCode> send(String change, StatusCode code) {
+        return () -> {
+            sent.add(change);
+            return code;
+        };
+    }
+
+    private static StatusCode await(CompletableFuture<StatusCode> future) throws Exception {
+        return future.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testCoalescing() throws Exception {
+        try (var dispatcher = new AsyncConfigDispatcher()) {
+            Object left = new Object();
+            Object right = new Object();
+            var brake = dispatcher.enqueue(left, "NeutralMode", send("Left Brake", StatusCode.OK));
+            var coast = dispatcher.enqueue(left, "NeutralMode", send("Left Coast", StatusCode.OK));
+            var limit = dispatcher.enqueue(left, "SupplyCurrentLimit", send("Left Limit", StatusCode.OK));
+            var other = dispatcher.enqueue(right, "NeutralMode", send("Right Brake", StatusCode.OK));
+            // Nothing is sent until a flush
+            Thread.sleep(20);
+            assertTrue(sent.isEmpty());
+            dispatcher.flush();
+            await(brake);
+            await(coast);
+            await(limit);
+            await(other);
+            // Brake then coast in the same loop only sends coast
+            assertEquals(3, sent.size());
+            assertTrue(sent.containsAll(List.of("Left Coast", "Left Limit", "Right Brake")));
+            assertEquals(4, dispatcher.getSubmittedCount());
+            assertEquals(1, dispatcher.getCoalescedCount());
+            assertEquals(3, dispatcher.getSentCount());
+            assertEquals(0, dispatcher.getFailureCount());
+        }
+    }
+
+    @Test
+    void testReplacedChangesComplete() throws Exception {
+        try (var dispatcher = new AsyncConfigDispatcher()) {
+            Object talon = new Object();
+            var first = dispatcher.enqueue(talon, "NeutralMode", send("Brake", StatusCode.OK));
+            var second = dispatcher.enqueue(talon, "NeutralMode", send("Coast", StatusCode.RxTimeout));
+            dispatcher.flush();
+            // A replaced change completes with the status of the change that was actually sent
+            assertEquals(StatusCode.RxTimeout, await(first));
+            assertEquals(StatusCode.RxTimeout, await(second));
+            // Changes queued after a flush are sent by the next one
+            var third = dispatcher.enqueue(talon, "NeutralMode", send("Brake", StatusCode.OK));
+            dispatcher.flush();
+            assertEquals(StatusCode.OK, await(third));
+            assertEquals(List.of("Coast", "Brake"), sent);
+        }
+    }
+
+    @Test
+    void testFailureCounting() throws Exception {
+        try (var dispatcher = new AsyncConfigDispatcher()) {
+            Object talon = new Object();
+            var timeout = dispatcher.enqueue(talon, "NeutralMode", send("Brake", StatusCode.RxTimeout));
+            var thrown = dispatcher.enqueue(talon, "SupplyCurrentLimit", () -> {
+                throw new IllegalStateException("Device disconnected");
+            });
+            var ok = dispatcher.enqueue(talon, "Inverted", send("Inverted", StatusCode.OK));
+            dispatcher.flush();
+            assertEquals(StatusCode.RxTimeout, await(timeout));
+            var exception = assertThrows(ExecutionException.class, () -> await(thrown));
+            assertTrue(exception.getCause() instanceof IllegalStateException);
+            assertEquals(StatusCode.OK, await(ok));
+            assertEquals(3, dispatcher.getSentCount());
+            assertEquals(2, dispatcher.getFailureCount());
+        }
+    }
+
+}
@@ -0,0 +1,191 @@
+package frc.robot.lib.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import frc.robot.lib.util.CurrentBudgetManager.Priority;
+
+public class CurrentBudgetManagerTest {
+
+    private static final double EPSILON = 1e-6;
+    private static final double OPEN_CIRCUIT_VOLTAGE = 12.5;
+    private static final double RESISTANCE = 0.02;
+    private static final double OTHER_LOAD = 10;
+
+    /**
+     * A battery behind a resistance feeding devices that draw what they want up to their limit.
+     */
+    private static class SimulatedRobot {
+        private final String[] names;
+        private final double[] demand;
+        private final double[] limit;
+        private final double[] draw;
+        private final int[] writes;
+        private double voltage = OPEN_CIRCUIT_VOLTAGE;
+        private double minVoltage = OPEN_CIRCUIT_VOLTAGE;
+        private final CurrentBudgetManager manager;
+
+        private SimulatedRobot(String[] names, Priority[] priorities, double[] min, double[] max) {
+            this.names = names;
+            demand = new double[names.length];
+            limit = max.clone();
+            draw = new double[names.length];
+            writes = new int[names.length];
+            manager = new CurrentBudgetManager(RESISTANCE, 8, () -> voltage).setReservedCurrent(OTHER_LOAD);
+            for (int i = 0; i < names.length; i++) {
+                int device = i;
+                manager.addDevice(names[i], priorities[i], min[i], max[i], () -> draw[device], () -> Double.NaN, amps -> {
+                    limit[device] = amps;
+                    writes[device]++;
+                });
+            }
+        }
+
+        private void step(int loops) {
+            for (int loop = 0; loop < loops; loop++) {
+                double total = OTHER_LOAD;
+                for (int i = 0; i < names.length; i++) {
+                    draw[i] = Math.min(demand[i], limit[i]);
+                    total += draw[i];
+                }
+                voltage = OPEN_CIRCUIT_VOLTAGE - total * RESISTANCE;
+                // Skip the first loop, before the manager has seen any current
+                if (loop > 0) minVoltage = Math.min(minVoltage, voltage);
+                manager.update();
+            }
+        }
+    }
+
+    private static SimulatedRobot robot() {
+        return new SimulatedRobot(
+            new String[] {"Drive FL", "Drive FR", "Drive BL", "Drive BR", "Shooter", "Intake", "Climber"},
+            new Priority[] {Priority.CRITICAL, Priority.CRITICAL, Priority.CRITICAL, Priority.CRITICAL, Priority.HIGH, Priority.NORMAL, Priority.LOW},
+            new double[] {20, 20, 20, 20, 20, 10, 10},
+            new double[] {40, 40, 40, 40, 80, 40, 60});
+    }
+
+    @Test
+    void testNoChangesWhenEverythingFits() {
+        var robot = new SimulatedRobot(new String[] {"Left", "Right"}, new Priority[] {Priority.CRITICAL, Priority.LOW},
+            new double[] {20, 10}, new double[] {80, 60});
+        Arrays.fill(robot.demand, 100);
+        robot.step(100);
+        assertEquals(0, robot.manager.getWriteCount());
+        assertEquals(OPEN_CIRCUIT_VOLTAGE, robot.manager.getOpenCircuitVoltage(), EPSILON);
+        assertEquals((OPEN_CIRCUIT_VOLTAGE - 8) / RESISTANCE - OTHER_LOAD, robot.manager.getBudget(), EPSILON);
+        assertEquals(80, robot.manager.getLimit("Left"), EPSILON);
+        assertEquals(60, robot.manager.getLimit("Right"), EPSILON);
+    }
+
+    @Test
+    void testEverythingSpikingKeepsVoltageUp() {
+        var robot = robot();
+        Arrays.fill(robot.demand, 100);
+        robot.step(200);
+        // Without limits everything would draw 410 A and sag the battery to 4.3 V
+        assertTrue(robot.minVoltage >= 8 - EPSILON, "Voltage sagged to " + robot.minVoltage);
+        assertEquals(215, robot.manager.getBudget(), EPSILON);
+        // Minimums take 120 A, the drive takes 80 A more to reach its maximum and the shooter gets the rest
+        assertEquals(40, robot.manager.getLimit("Drive FL"), EPSILON);
+        assertEquals(20 + 15, robot.manager.getLimit("Shooter"), EPSILON);
+        assertEquals(10, robot.manager.getLimit("Intake"), EPSILON);
+        assertEquals(10, robot.manager.getLimit("Climber"), EPSILON);
+    }
+
+    @Test
+    void testIdleDevicesGiveUpCurrent() {
+        var robot = robot();
+        Arrays.fill(robot.demand, 100);
+        robot.step(50);
+        // The shooter stops, so the next priority gets its current
+        robot.demand[4] = 0;
+        robot.step(100);
+        assertTrue(robot.minVoltage >= 8 - EPSILON, "Voltage sagged to " + robot.minVoltage);
+        assertEquals(40, robot.manager.getLimit("Drive FL"), EPSILON);
+        assertEquals(20, robot.manager.getLimit("Shooter"), EPSILON);
+        assertEquals(10 + 15, robot.manager.getLimit("Intake"), EPSILON);
+        assertEquals(10, robot.manager.getLimit("Climber"), EPSILON);
+    }
+
+    @Test
+    void testIdleCurrentIsShared() {
+        var robot = robot();
+        robot.step(10);
+        // Nothing is drawing, so after the drive's maximum every other device gets the same share of what's above its minimum
+        double fraction = (215 - 120 - 80) / (60 + 30 + 50.0);
+        assertEquals(40, robot.manager.getLimit("Drive FL"), EPSILON);
+        assertEquals(20 + 60 * fraction, robot.manager.getLimit("Shooter"), EPSILON);
+        assertEquals(10 + 50 * fraction, robot.manager.getLimit("Climber"), EPSILON);
+    }
+
+    @Test
+    void testCriticalHoldsMaximum() {
+        var robot = robot();
+        robot.demand[6] = 100;
+        for (int loop = 0; loop < 200; loop++) {
+            // The drive idles then spikes, it can draw its maximum the moment it spikes
+            boolean spike = loop % 50 >= 40;
+            for (int i = 0; i < 4; i++) {
+                robot.demand[i] = spike ? 100 : 0;
+            }
+            robot.step(1);
+            for (int i = 0; i < 4; i++) {
+                assertEquals(40, robot.limit[i], EPSILON, "Loop " + loop);
+            }
+        }
+        assertEquals(0, robot.writes[0]);
+        assertTrue(robot.minVoltage >= 8 - EPSILON, "Voltage sagged to " + robot.minVoltage);
+    }
+
+    @Test
+    void testIncreasesAreRateLimited() {
+        var robot = robot();
+        double last = robot.limit[6];
+        int lastIncrease = -100;
+        for (int loop = 0; loop < 300; loop++) {
+            // The shooter keeps spiking, which pushes the climber down right away and lets it back up slowly
+            boolean spike = loop % 40 < 10;
+            robot.demand[4] = spike ? 100 : 0;
+            robot.demand[6] = 100;
+            robot.step(1);
+            double limit = robot.limit[6];
+            if (limit > last) {
+                assertTrue(loop - lastIncrease >= 5, "Increased at " + lastIncrease + " and " + loop);
+                lastIncrease = loop;
+            }
+            last = limit;
+        }
+        assertTrue(lastIncrease > 0);
+    }
+
+    @Test
+    void testDeterministic() {
+        var first = robot();
+        var second = robot();
+        for (int i = 0; i < 300; i++) {
+            double demand = 50 + 50 * Math.sin(i * 0.1);
+            Arrays.fill(first.demand, demand);
+            Arrays.fill(second.demand, demand);
+            first.step(1);
+            second.step(1);
+        }
+        assertEquals(first.manager.getWriteCount(), second.manager.getWriteCount());
+        for (String name : first.names) {
+            assertEquals(first.manager.getLimit(name), second.manager.getLimit(name), 0);
+        }
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new CurrentBudgetManager(0, 8, () -> 12));
+        assertThrows(IllegalArgumentException.class, () -> new CurrentBudgetManager(0.02, 8, () -> 12)
+            .addDevice("Bad", Priority.LOW, 40, 20, () -> 0, () -> 0, amps -> {}));
+        assertThrows(IllegalArgumentException.class, () -> new CurrentBudgetManager(0.02, 8, () -> 12).getLimit("Missing"));
+    }
+
+}
@@ -0,0 +1,101 @@
+package frc.robot.lib.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import frc.robot.lib.util.InterpolatingTable.Mode;
+
+public class InterpolatingTableTest {
+
+    private static final double EPSILON = 1e-6;
+
+    @Test
+    void testLinearUniform() {
+        var table = new InterpolatingTable(true, new double[] {0, 1, 2, 3}, new double[] {0, 10, 30, 60});
+        assertEquals(0, table.calculate(0), EPSILON);
+        assertEquals(5, table.calculate(0.5), EPSILON);
+        assertEquals(10, table.calculate(1), EPSILON);
+        assertEquals(20, table.calculate(1.5), EPSILON);
+        assertEquals(45, table.calculate(2.5), EPSILON);
+        assertEquals(60, table.calculate(3), EPSILON);
+        assertEquals(0, table.calculate(-1), EPSILON);
+        assertEquals(60, table.calculate(5), EPSILON);
+    }
+
+    @Test
+    void testLinearNonUniform() {
+        var table = new InterpolatingTable(false, new double[] {1, 1.5, 4, 10}, new double[] {2, 3, 8, 8});
+        assertEquals(2.5, table.calculate(1.25), EPSILON);
+        assertEquals(5, table.calculate(2.5), EPSILON);
+        assertEquals(8, table.calculate(7), EPSILON);
+        assertEquals(8, table.calculate(10), EPSILON);
+        // Extrapolates the first and last segments
+        assertEquals(0, table.calculate(0), EPSILON);
+        assertEquals(8, table.calculate(20), EPSILON);
+    }
+
+    @Test
+    void testMultipleOutputs() {
+        var table = new InterpolatingTable(Mode.LINEAR, true, new double[] {2, 4, 6},
+            new double[] {3000, 20},
+            new double[] {3500, 30},
+            new double[] {4500, 35});
+        double[] result = new double[2];
+        table.calculate(3, result);
+        assertEquals(3250, result[0], EPSILON);
+        assertEquals(25, result[1], EPSILON);
+        table.calculate(5.5, result);
+        assertEquals(4250, result[0], EPSILON);
+        assertEquals(33.75, result[1], EPSILON);
+        assertEquals(33.75, table.calculate(5.5, 1), EPSILON);
+    }
+
+    @Test
+    void testMonotoneCubic() {
+        double[] x = {0, 1, 2, 3, 4};
+        double[] y = {0, 1, 1, 3, 10};
+        var table = new InterpolatingTable(Mode.MONOTONE_CUBIC, true, x, toRows(y));
+        for (int i = 0; i < x.length; i++) {
+            assertEquals(y[i], table.calculate(x[i]), EPSILON);
+        }
+        // Flat segment stays flat and the curve never decreases
+        assertEquals(1, table.calculate(1.5), EPSILON);
+        double previous = table.calculate(0);
+        for (double input = 0; input <= 4; input += 0.01) {
+            double value = table.calculate(input);
+            assertTrue(value >= previous - EPSILON);
+            previous = value;
+        }
+    }
+
+    @Test
+    void testMatchesRangeTransformer() {
+        var transformer = new RangeTransformer(-1, 1, 10, 0, true);
+        var table = transformer.toTable();
+        for (double input = -2; input <= 2; input += 0.1) {
+            assertEquals(transformer.calculate(input), table.calculate(input), EPSILON);
+        }
+        var unclamped = new RangeTransformer(0, 5, 0, 100, false);
+        assertEquals(120, unclamped.calculate(6), EPSILON);
+        assertEquals(120, unclamped.toTable().calculate(6), EPSILON);
+    }
+
+    @Test
+    void testInvalidTables() {
+        assertThrows(IllegalArgumentException.class, () -> new InterpolatingTable(true, new double[] {0}, new double[] {0}));
+        assertThrows(IllegalArgumentException.class, () -> new InterpolatingTable(true, new double[] {0, 0}, new double[] {0, 1}));
+        assertThrows(IllegalArgumentException.class, () -> new InterpolatingTable(true, new double[] {0, 1}, new double[] {0}));
+    }
+
+    private static double[][] toRows(double[] y) {
+        double[][] rows = new double[y.length][];
+        for (int i = 0; i < y.length; i++) {
+            rows[i] = new double[] {y[i]};
+        }
+        return rows;
+    }
+
+}
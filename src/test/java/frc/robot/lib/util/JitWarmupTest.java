@@ -0,0 +1,71 @@
+package frc.robot.lib.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class JitWarmupTest {
+
+    @Test
+    void testRunsEveryTaskToItsTarget() {
+        int[] counts = new int[2];
+        var warmup = new JitWarmup(1)
+            .add("A", 100, i -> ++counts[0])
+            .add("B", 300, i -> ++counts[1]);
+        assertFalse(warmup.isComplete());
+        assertTrue(warmup.run());
+        assertEquals(100, counts[0]);
+        assertEquals(300, counts[1]);
+        assertEquals(1, warmup.getProgress(), 1e-9);
+        // Nothing runs once complete
+        warmup.run();
+        assertEquals(300, counts[1]);
+        assertEquals(1, warmup.getLoops());
+    }
+
+    @Test
+    void testStaysWithinBudget() {
+        int[] count = new int[1];
+        var warmup = new JitWarmup(0.002).add("Slow", 1000, i -> {
+            long end = System.nanoTime() + 100_000;
+            while (System.nanoTime() < end) {}
+            return ++count[0];
+        });
+        long start = System.nanoTime();
+        assertFalse(warmup.run());
+        // One iteration can go over the budget, but not many
+        assertTrue(System.nanoTime() - start < 10_000_000);
+        assertTrue(count[0] > 0 && count[0] < 1000);
+        int loops = 1;
+        while (!warmup.run()) loops++;
+        assertEquals(1000, count[0]);
+        assertEquals(loops + 1, warmup.getLoops());
+    }
+
+    @Test
+    void testRoundRobin() {
+        StringBuilder order = new StringBuilder();
+        var warmup = new JitWarmup(1)
+            .add("A", 2, i -> order.append('A').length())
+            .add("B", 3, i -> order.append('B').length());
+        warmup.run();
+        assertEquals("ABABB", order.toString());
+    }
+
+    @Test
+    void testUtilTasksComplete() {
+        var warmup = new JitWarmup(10).addUtilTasks();
+        assertTrue(warmup.run());
+        assertTrue(Double.isFinite(warmup.getSink()));
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new JitWarmup(0));
+        assertThrows(IllegalArgumentException.class, () -> new JitWarmup().add("A", 0, i -> i));
+    }
+
+}
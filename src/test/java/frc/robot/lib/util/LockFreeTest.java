@@ -0,0 +1,182 @@
+package frc.robot.lib.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The stress tests run a real producer and consumer thread against each other and check that every value arrives
+ * in order and every record is consistent. They can't prove there's no race but they'll catch most of them.
+ */
+public class LockFreeTest {
+
+    private static final int kStressCount = 2_000_000;
+
+    @Test
+    void testQueueOrderAndCapacity() {
+        var queue = new DoubleSpscQueue(4);
+        assertTrue(queue.isEmpty());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(i));
+        }
+        assertFalse(queue.offer(4));
+        assertEquals(4, queue.size());
+        assertEquals(0, queue.poll(), 0);
+        assertTrue(queue.offer(4));
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(i, queue.poll(), 0);
+        }
+        assertTrue(queue.isEmpty());
+        assertThrows(NoSuchElementException.class, queue::poll);
+        assertThrows(IllegalArgumentException.class, () -> new DoubleSpscQueue(3));
+    }
+
+    @Test
+    void testDrainWrapsAround() {
+        var queue = new LongSpscQueue(8);
+        long[] out = new long[8];
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 6; i++) {
+                assertTrue(queue.offer(round * 10 + i));
+            }
+            assertEquals(6, queue.drainTo(out));
+            for (int i = 0; i < 6; i++) {
+                assertEquals(round * 10 + i, out[i]);
+            }
+        }
+        assertEquals(0, queue.drainTo(out));
+    }
+
+    @Test
+    void testQueueStress() throws InterruptedException {
+        var queue = new LongSpscQueue(1024);
+        AtomicReference<String> error = new AtomicReference<>();
+        Thread producer = new Thread(() -> {
+            for (long i = 0; i < kStressCount; i++) {
+                while (!queue.offer(i)) Thread.onSpinWait();
+            }
+        });
+        Thread consumer = new Thread(() -> {
+            long[] batch = new long[64];
+            long expected = 0;
+            while (expected < kStressCount) {
+                // Alternate between draining and polling so both get exercised
+                int count = 0;
+                if ((expected & 1) == 0) {
+                    count = queue.drainTo(batch);
+                } else if (!queue.isEmpty()) {
+                    batch[0] = queue.poll();
+                    count = 1;
+                }
+                for (int i = 0; i < count; i++) {
+                    if (batch[i] != expected) {
+                        error.set("Expected " + expected + ", got " + batch[i]);
+                        return;
+                    }
+                    expected++;
+                }
+            }
+        });
+        runAll(producer, consumer);
+        assertNull(error.get());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void testSnapshotExchanger() {
+        var exchanger = new SnapshotExchanger(2);
+        assertFalse(exchanger.update());
+        assertEquals(0, exchanger.read()[0], 0);
+        exchanger.publish(1, 2);
+        exchanger.publish(3, 4);
+        assertEquals(2, exchanger.getPublishedCount());
+        // Only the latest record is seen
+        assertTrue(exchanger.update());
+        assertEquals(3, exchanger.getReadBuffer()[0], 0);
+        assertEquals(4, exchanger.getReadBuffer()[1], 0);
+        assertFalse(exchanger.update());
+        assertEquals(3, exchanger.read()[0], 0);
+        assertThrows(IllegalArgumentException.class, () -> exchanger.publish(1));
+    }
+
+    @Test
+    void testSnapshotExchangerStress() throws InterruptedException {
+        int length = 16;
+        var exchanger = new SnapshotExchanger(length);
+        AtomicReference<String> error = new AtomicReference<>();
+        Thread producer = new Thread(() -> {
+            for (int i = 1; i <= kStressCount; i++) {
+                double[] record = exchanger.getWriteBuffer();
+                for (int j = 0; j < length; j++) {
+                    record[j] = i;
+                }
+                exchanger.publish();
+            }
+        });
+        Thread consumer = new Thread(() -> {
+            double last = 0;
+            while (last < kStressCount) {
+                double[] record = exchanger.read();
+                // A torn record would have elements from different writes
+                for (int j = 1; j < length; j++) {
+                    if (record[j] != record[0]) {
+                        error.set("Torn record at " + record[0]);
+                        return;
+                    }
+                }
+                if (record[0] < last) {
+                    error.set("Went backwards from " + last + " to " + record[0]);
+                    return;
+                }
+                last = record[0];
+            }
+        });
+        runAll(producer, consumer);
+        assertNull(error.get());
+    }
+
+    @Test
+    void testLatestValueStress() throws InterruptedException {
+        var cell = new LatestValue<Long>(0L);
+        AtomicReference<String> error = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            for (long i = 1; i <= kStressCount; i++) {
+                cell.set(i);
+            }
+        });
+        Thread reader = new Thread(() -> {
+            long last = 0;
+            while (last < kStressCount) {
+                long version = cell.getVersion();
+                long value = cell.get();
+                if (value < version || value < last) {
+                    error.set("Value " + value + " is older than version " + version + " or last value " + last);
+                    return;
+                }
+                last = value;
+            }
+        });
+        runAll(writer, reader);
+        assertNull(error.get());
+        assertEquals(kStressCount, cell.getVersion());
+    }
+
+    private static void runAll(Thread... threads) throws InterruptedException {
+        for (Thread thread : threads) {
+            thread.setDaemon(true);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join(30_000);
+            assertFalse(thread.isAlive(), thread + " didn't finish");
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+package frc.robot.lib.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import frc.robot.lib.util.PeriodicScheduler.Priority;
+
+// Control tasks aren't tested since making a thread real-time needs the HAL
+public class PeriodicSchedulerTest {
+
+    @Test
+    void testRunsAtRate() throws InterruptedException {
+        try (var scheduler = new PeriodicScheduler()) {
+            AtomicInteger fast = new AtomicInteger();
+            AtomicInteger slow = new AtomicInteger();
+            scheduler.schedule("Fast", Priority.TELEMETRY, 0.005, fast::incrementAndGet);
+            scheduler.schedule("Slow", Priority.TELEMETRY, 0.05, slow::incrementAndGet);
+            Thread.sleep(500);
+            // Loose bounds since the test machine might be busy
+            assertTrue(fast.get() > 50 && fast.get() <= 101, "Fast ran " + fast.get() + " times");
+            assertTrue(slow.get() > 5 && slow.get() <= 11, "Slow ran " + slow.get() + " times");
+        }
+    }
+
+    @Test
+    void testResultHandoff() throws InterruptedException {
+        try (var scheduler = new PeriodicScheduler()) {
+            AtomicInteger count = new AtomicInteger();
+            Supplier<Integer> latest = scheduler.scheduleWithResult("Counter", Priority.BACKGROUND, 0.01, count::incrementAndGet);
+            assertNull(latest.get());
+            Thread.sleep(200);
+            assertTrue(latest.get() > 0);
+        }
+    }
+
+    @Test
+    void testOverrunsSkipPeriods() throws InterruptedException {
+        try (var scheduler = new PeriodicScheduler()) {
+            AtomicInteger count = new AtomicInteger();
+            scheduler.schedule("Slow Task", Priority.BACKGROUND, 0.01, () -> {
+                count.incrementAndGet();
+                sleep(25);
+            });
+            Thread.sleep(300);
+            // Runs about every 30 ms instead of piling up every 10 ms
+            assertTrue(count.get() <= 12, "Ran " + count.get() + " times");
+            assertTrue(scheduler.getOverrunCount("Slow Task") > 0);
+            assertTrue(scheduler.getMaxDuration("Slow Task") >= 0.025);
+        }
+    }
+
+    @Test
+    void testInvalidArguments() {
+        try (var scheduler = new PeriodicScheduler()) {
+            scheduler.schedule("Task", Priority.BACKGROUND, 1, () -> {});
+            assertThrows(IllegalArgumentException.class, () -> scheduler.schedule("Task", Priority.BACKGROUND, 1, () -> {}));
+            assertThrows(IllegalArgumentException.class, () -> scheduler.schedule("Other", Priority.BACKGROUND, 0, () -> {}));
+            assertThrows(IllegalStateException.class, () -> scheduler.setAffinity(Priority.BACKGROUND, 0));
+            assertThrows(IllegalArgumentException.class, () -> scheduler.getOverrunCount("Missing"));
+            assertEquals(0, scheduler.getOverrunCount("Task"));
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,76 @@
+package frc.robot.lib.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class SlewRateLimiterBankTest {
+
+    private static final double EPSILON = 1e-6;
+
+    @Test
+    void testScalarChannels() {
+        var bank = new SlewRateLimiterBank(2, 1, 2);
+        double[] inputs = {1, -1};
+        bank.calculate(inputs, 0);
+        double[] result = bank.calculate(inputs, 0.5);
+        assertEquals(0.5, result[0], EPSILON);
+        assertEquals(-0.5, result[1], EPSILON);
+        result = bank.calculate(new double[] {0, 0}, 0.6);
+        // Getting closer to zero uses the decreasing limit
+        assertEquals(0.3, result[0], EPSILON);
+        assertEquals(-0.3, result[1], EPSILON);
+    }
+
+    @Test
+    void testVectorKeepsDirection() {
+        var bank = new SlewRateLimiterBank(3, 1, 1).setVectorChannels(0, 1);
+        double[] inputs = {1, 1, 1};
+        bank.calculate(inputs, 0);
+        double[] result = bank.calculate(inputs, 0.5);
+        // Magnitude is limited to 0.5 while staying on the 45 degree line
+        assertEquals(0.5, Math.hypot(result[0], result[1]), EPSILON);
+        assertEquals(result[0], result[1], EPSILON);
+        assertEquals(0.5, result[2], EPSILON);
+        for (double time = 0.6; time < 3; time += 0.1) {
+            result = bank.calculate(inputs, time);
+        }
+        assertEquals(1, result[0], EPSILON);
+        assertEquals(1, result[1], EPSILON);
+    }
+
+    @Test
+    void testJerkLimit() {
+        var bank = new SlewRateLimiterBank(1, 1, 1).setJerkLimit(0, 2);
+        double[] inputs = {1};
+        double dt = 0.02;
+        bank.calculate(inputs, 0);
+        double previousValue = 0;
+        double previousRate = 0;
+        for (int i = 1; i <= 200; i++) {
+            double value = bank.calculate(inputs, i * dt)[0];
+            double rate = (value - previousValue) / dt;
+            assertTrue(rate <= 1 + EPSILON, "Rate limit exceeded: " + rate);
+            assertTrue(Math.abs(rate - previousRate) <= 2 * dt + EPSILON, "Jerk limit exceeded");
+            assertTrue(value <= 1 + EPSILON, "Overshot: " + value);
+            previousValue = value;
+            previousRate = rate;
+        }
+        assertEquals(1, previousValue, 1e-3);
+    }
+
+    @Test
+    void testRateLimitSuppliers() {
+        double[] limit = {1};
+        var bank = new SlewRateLimiterBank(1, 1, 1).setRateLimits(0, () -> limit[0], () -> limit[0]);
+        bank.calculate(new double[] {10}, 0);
+        assertEquals(1, bank.calculate(new double[] {10}, 1)[0], EPSILON);
+        limit[0] = 2;
+        assertEquals(3, bank.calculate(new double[] {10}, 2)[0], EPSILON);
+        limit[0] = -1;
+        assertThrows(IllegalArgumentException.class, () -> bank.calculate(new double[] {10}, 3));
+    }
+
+}
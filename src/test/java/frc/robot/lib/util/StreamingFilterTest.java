@@ -0,0 +1,78 @@
+package frc.robot.lib.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class StreamingFilterTest {
+
+    private static final double EPSILON = 1e-6;
+    private static final int WINDOW = 7;
+
+    @Test
+    void testAgainstBruteForce() {
+        var mean = new RunningMean(WINDOW);
+        var variance = new RunningVariance(WINDOW);
+        var minMax = new WindowMinMax(WINDOW);
+        var median = new SlidingMedian(WINDOW);
+        var random = new Random(2508);
+        double[] inputs = new double[500];
+        for (int i = 0; i < inputs.length; i++) {
+            // Lots of repeated values to exercise ties
+            inputs[i] = random.nextInt(20) - 10 + (random.nextBoolean() ? 0 : random.nextDouble());
+            double[] window = Arrays.copyOfRange(inputs, Math.max(0, i - WINDOW + 1), i + 1);
+
+            assertEquals(bruteMean(window), mean.calculate(inputs[i]), EPSILON);
+            assertEquals(bruteVariance(window), variance.calculate(inputs[i]), EPSILON);
+            minMax.add(inputs[i]);
+            assertEquals(Arrays.stream(window).min().getAsDouble(), minMax.getMin(), EPSILON);
+            assertEquals(Arrays.stream(window).max().getAsDouble(), minMax.getMax(), EPSILON);
+            assertEquals(bruteMedian(window), median.calculate(inputs[i]), EPSILON);
+        }
+    }
+
+    @Test
+    void testMedianRejectsSpikes() {
+        var median = new SlidingMedian(5);
+        for (int i = 0; i < 5; i++) {
+            median.calculate(10);
+        }
+        assertEquals(10, median.calculate(1000), EPSILON);
+        assertEquals(10, median.calculate(-1000), EPSILON);
+        median.reset();
+        assertEquals(3, median.calculate(3), EPSILON);
+        assertEquals(4, median.calculate(5), EPSILON);
+    }
+
+    @Test
+    void testExponentialMovingAverage() {
+        var ema = new ExponentialMovingAverage(0.5);
+        assertEquals(4, ema.calculate(4), EPSILON);
+        assertEquals(2, ema.calculate(0), EPSILON);
+        assertEquals(1, ema.calculate(0), EPSILON);
+        var fromTimeConstant = ExponentialMovingAverage.fromTimeConstant(0.1, 0.02);
+        fromTimeConstant.calculate(0);
+        assertEquals(1 - Math.exp(-0.2), fromTimeConstant.calculate(1), EPSILON);
+    }
+
+    private static double bruteMean(double[] window) {
+        return Arrays.stream(window).average().getAsDouble();
+    }
+
+    private static double bruteVariance(double[] window) {
+        if (window.length < 2) return 0;
+        double mean = bruteMean(window);
+        return Arrays.stream(window).map(x -> (x - mean) * (x - mean)).sum() / (window.length - 1);
+    }
+
+    private static double bruteMedian(double[] window) {
+        double[] sorted = window.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+}
@@ -0,0 +1,60 @@
+package frc.robot.lib.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class TalonFXConfigApplierTest {
+
+    private static final double TOLERANCE = 1e-3;
+    private static final String CONFIG = "MotorOutput.Inverted=Clockwise_Positive;Slot0.kP=12.5;Slot0.kV=0.12;"
+        + "CurrentLimits.SupplyCurrentLimit=70;Feedback.SensorToMechanismRatio=1.0e1;";
+
+    private static boolean matches(String actual) {
+        return TalonFXConfigApplier.configsMatch(CONFIG, actual, TOLERANCE);
+    }
+
+    @Test
+    void testEqualConfigs() {
+        assertTrue(matches(CONFIG));
+        assertTrue(TalonFXConfigApplier.configsMatch("", "", TOLERANCE));
+    }
+
+    @Test
+    void testNumbersWithinTolerance() {
+        // Devices store some values with less precision
+        assertTrue(matches(CONFIG.replace("kP=12.5", "kP=12.5049")));
+        assertTrue(matches(CONFIG.replace("kV=0.12", "kV=0.11999")));
+        // The same number written differently
+        assertTrue(matches(CONFIG.replace("SupplyCurrentLimit=70", "SupplyCurrentLimit=70.0")));
+        assertTrue(matches(CONFIG.replace("1.0e1", "10")));
+        // Zero only matches numbers that are practically zero
+        assertTrue(TalonFXConfigApplier.configsMatch("kS=0", "kS=1e-13", TOLERANCE));
+    }
+
+    @Test
+    void testNumbersOutsideTolerance() {
+        assertFalse(matches(CONFIG.replace("kP=12.5", "kP=12.6")));
+        assertFalse(matches(CONFIG.replace("kV=0.12", "kV=-0.12")));
+        assertFalse(matches(CONFIG.replace("SupplyCurrentLimit=70", "SupplyCurrentLimit=40")));
+        assertFalse(TalonFXConfigApplier.configsMatch("kS=0", "kS=0.001", TOLERANCE));
+    }
+
+    @Test
+    void testDifferentText() {
+        assertFalse(matches(CONFIG.replace("Clockwise_Positive", "CounterClockwise_Positive")));
+        assertFalse(matches(CONFIG.replace("Slot0.kP", "Slot1.kP")));
+        assertFalse(matches(CONFIG.replace("kV", "kA")));
+        assertFalse(matches(CONFIG + " "));
+    }
+
+    @Test
+    void testExtraOrMissingFields() {
+        assertFalse(matches(CONFIG + "Slot0.kD=0.5;"));
+        assertFalse(matches(CONFIG.replace("Slot0.kV=0.12;", "")));
+        assertFalse(matches(CONFIG.replace("MotorOutput.Inverted=Clockwise_Positive;", "")));
+        assertFalse(TalonFXConfigApplier.configsMatch(CONFIG + "Slot0.kD=0.5;", CONFIG, TOLERANCE));
+    }
+
+}